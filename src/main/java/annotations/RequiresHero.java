@@ -0,0 +1,27 @@
+package annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for the test class which needs heroes created via API before the test class runs
+ * @description - owner is the field of RequiresUser annotation, heroes are created after all users
+ * of the class are created and added to the owner. Field type is Hero, or List<Hero> when more
+ * heroes are needed. Heroes are deleted together with their owner e.g.
+ * @RequiresUser(field = "user")
+ * @RequiresHero(field = "heroes", owner = "user", count = 3)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(RequiresHeroes.class)
+public @interface RequiresHero {
+    // name of the field where hero (or list of heroes) is injected
+    String field();
+    // field of RequiresUser annotation, if there are more users, every one of them gets count heroes
+    String owner();
+    // how many heroes are created for every owner
+    int count() default 1;
+}
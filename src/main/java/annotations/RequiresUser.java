@@ -0,0 +1,27 @@
+package annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for the test class which needs users created via API before the test class runs
+ * @description - FixtureListener creates users of all RequiresUser and RequiresHero annotations
+ * of the class at the same time, injects them into the field of the test class and submits them
+ * for deletion (CleanupUtils) when the test class is finished. Field type is User, or List<User>
+ * when more users are needed. Usernames start with simple name of the test class. Annotation
+ * can be repeated for more fields e.g.
+ * @RequiresUser(field = "user")
+ * @RequiresUser(field = "searchUsers", count = 5)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(RequiresUsers.class)
+public @interface RequiresUser {
+    // name of the field where user (or list of users) is injected
+    String field();
+    // how many users are created
+    int count() default 1;
+}
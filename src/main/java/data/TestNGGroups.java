@@ -8,6 +8,9 @@ public final class TestNGGroups {
     public static final String SANITY = "sanity";
     public static final String API = "api";
     public static final String EVALUATION = "evaluation";
+    public static final String LOAD = "load";
+    public static final String BENCHMARK = "benchmark";
+    public static final String NETWORK = "network";
 
     public static final String LOGIN = "login";
     public static final String REGISTER = "register";
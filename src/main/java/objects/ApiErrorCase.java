@@ -0,0 +1,132 @@
+package objects;
+
+import java.util.List;
+
+/**
+ * Class that stores one negative API case (ApiErrorCaseUtils): what is sent, with which credentials
+ * and which ApiError is expected. Expected values that are null are not checked
+ */
+public class ApiErrorCase {
+
+    /**
+     * API calls that negative case can use
+     */
+    public enum Operation {
+        POST_USER, POST_USER_JSON, GET_USER, POST_HERO, POST_HERO_JSON
+    }
+
+    private final String name;
+    private final Operation operation;
+    private final Object payload;
+    private final String authUser;
+    private final String authPass;
+    private List<Integer> expectedStatuses;
+    private String expectedError;
+    private String expectedException;
+    private String expectedMessage;
+    private String expectedPath;
+    private String usernameToCleanUp;
+
+    /**
+     * Constructor for the negative case
+     *
+     * @param name {String} - name of the case e.g. "POST user without email, about is empty"
+     * @param operation {Operation} - API call
+     * @param payload {Object} - User or Hero to POST, JSON body for POST_USER_JSON and POST_HERO_JSON or username for GET_USER
+     * @param authUser {String} - username to authenticate
+     * @param authPass {String} - password to authenticate
+     */
+    public ApiErrorCase(String name, Operation operation, Object payload, String authUser, String authPass) {
+        this.name = name;
+        this.operation = operation;
+        this.payload = payload;
+        this.authUser = authUser;
+        this.authPass = authPass;
+    }
+
+    /**
+     * Method that sets expected ApiError, null values are not checked
+     *
+     * @param expectedStatuses {List<Integer>} - status codes that are accepted e.g. List.of(400, 500) for wrong types
+     * @param expectedError {String} - expected error e.g. 'Internal Server Error'
+     * @param expectedException {String} - expected exception e.g. 'java.lang.IllegalArgumentException'
+     * @param expectedMessage {String} - expected message e.g. 'Email is not specified!'
+     * @param expectedPath {String} - expected path e.g. '/api/users/add'
+     *
+     * @return {ApiErrorCase} - this case
+     */
+    public ApiErrorCase expect(List<Integer> expectedStatuses, String expectedError, String expectedException,
+                               String expectedMessage, String expectedPath) {
+        this.expectedStatuses = expectedStatuses;
+        this.expectedError = expectedError;
+        this.expectedException = expectedException;
+        this.expectedMessage = expectedMessage;
+        this.expectedPath = expectedPath;
+        return this;
+    }
+
+    // Getters
+
+    public String getName() {
+        return name;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    public String getAuthUser() {
+        return authUser;
+    }
+
+    public String getAuthPass() {
+        return authPass;
+    }
+
+    public List<Integer> getExpectedStatuses() {
+        return expectedStatuses;
+    }
+
+    public String getExpectedError() {
+        return expectedError;
+    }
+
+    public String getExpectedException() {
+        return expectedException;
+    }
+
+    public String getExpectedMessage() {
+        return expectedMessage;
+    }
+
+    public String getExpectedPath() {
+        return expectedPath;
+    }
+
+    public String getUsernameToCleanUp() {
+        return usernameToCleanUp;
+    }
+
+    /**
+     * Method that sets username of the new user that would be created if backend accepts
+     * the payload by mistake, so the user can be deleted (existing users must not be set here)
+     *
+     * @param usernameToCleanUp {String} - username of the new user
+     *
+     * @return {ApiErrorCase} - this case
+     */
+    public ApiErrorCase cleanUp(String usernameToCleanUp) {
+        this.usernameToCleanUp = usernameToCleanUp;
+        return this;
+    }
+
+    // name is shown in the report as parameter of the test
+    @Override
+    public String toString() {
+        return name;
+    }
+}
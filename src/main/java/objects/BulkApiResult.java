@@ -0,0 +1,123 @@
+package objects;
+
+import org.testng.Assert;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class that stores result of the bulk API operation (e.g. POST of many users),
+ * for every item it has status, error message and how long it took
+ */
+public class BulkApiResult {
+
+    private final String operation;
+    private final List<ItemResult> results;
+    private final long durationMillis;
+
+    /**
+     * Class that stores result for one item (user or hero) of the bulk API operation
+     */
+    public static class ItemResult {
+        private final String name;
+        private final boolean success;
+        private final String error;
+        private final long durationMillis;
+
+        public ItemResult(String name, boolean success, String error, long durationMillis) {
+            this.name = name;
+            this.success = success;
+            this.error = error;
+            this.durationMillis = durationMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "ItemResult{" +
+                    "Name='" + getName() + '\'' +
+                    ", Success=" + isSuccess() +
+                    ", Duration=" + getDurationMillis() + "ms" +
+                    (isSuccess() ? "" : ", Error='" + getError() + '\'') +
+                    '}';
+        }
+    }
+
+    public BulkApiResult(String operation, List<ItemResult> results, long durationMillis) {
+        this.operation = operation;
+        this.results = Collections.unmodifiableList(results);
+        this.durationMillis = durationMillis;
+    }
+
+    // Getters
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Results in the same order as items were passed to the bulk operation
+     */
+    public List<ItemResult> getResults() {
+        return results;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public List<ItemResult> getFailed() {
+        List<ItemResult> failed = new ArrayList<>();
+        for (ItemResult result : results){
+            if (!result.isSuccess()){
+                failed.add(result);
+            }
+        }
+        return failed;
+    }
+
+    public int getSuccessCount() {
+        return results.size() - getFailed().size();
+    }
+
+    public boolean isSuccess() {
+        return getFailed().isEmpty();
+    }
+
+    /**
+     * Method that fails the test if any item of the bulk operation failed
+     * and lists all items that failed with their errors
+     */
+    public void assertSuccess() {
+        List<ItemResult> failed = getFailed();
+        if (!failed.isEmpty()){
+            Assert.fail(String.format("%s failed for %d of %d items: %s", operation, failed.size(), results.size(), failed));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BulkApiResult{" +
+                "Operation='" + getOperation() + '\'' +
+                ", Items=" + getResults().size() +
+                ", Succeeded=" + getSuccessCount() +
+                ", Failed=" + getFailed().size() +
+                ", Duration=" + getDurationMillis() + "ms" +
+                '}';
+    }
+}
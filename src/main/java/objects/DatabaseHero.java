@@ -53,7 +53,7 @@ public class DatabaseHero {
         this.created = created;
     }
 
-    public String getFK_user_id() {
+    public String getFk_user_id() {
         return fk_user_id;
     }
 
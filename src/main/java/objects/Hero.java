@@ -5,7 +5,9 @@ import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 import utils.DateTimeUtils;
 import utils.HeroClass;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 
 public class Hero {
@@ -167,6 +169,26 @@ public class Hero {
     }
 
 
+    /**
+     * Method that creates list of new Heroes for the same user for bulk creation
+     * (e.g. BulkRestApiUtils.postHeroes()), index is added after date time stamp
+     * so hero names are unique even if they are created in the same millisecond
+     *
+     * @param user {User} - User that will create Heroes
+     * @param sHeroName {String} - Hero name prefix
+     * @param iCount {int} - how many heroes to create
+     *
+     * @return {List<Hero>} - list of new Hero instances
+     */
+    public static List<Hero> createNewUniqueHeroes(User user, String sHeroName, int iCount){
+        String sPrefix = sHeroName + DateTimeUtils.getDateTimeStamp();
+        List<Hero> heroes = new ArrayList<>();
+        for (int i = 0; i < iCount; i++){
+            heroes.add(new Hero(sPrefix + i, createRandomHeroClass(), createRandomHeroLevel(), user.getUsername()));
+        }
+        return heroes;
+    }
+
     /**
      * Method that create new random Hero level using
      * faker class
@@ -275,6 +275,25 @@ public class User {
         return  new User(username);
     }
 
+    /**
+     * Method that creates list of new Users for bulk creation (e.g. BulkRestApiUtils.postUsers())
+     * @description - date time stamp is the same for users created in the same millisecond,
+     * so index of the user is added after the stamp to keep usernames unique
+     *
+     * @param sUsername {String} - user name prefix for new Users
+     * @param iCount {int} - how many users to create
+     *
+     * @return {List<User>} - list of new User instances
+     */
+    public static List<User> createNewUniqueUsers(String sUsername, int iCount){
+        String sPrefix = sUsername.toLowerCase() + DateTimeUtils.getDateTimeStamp();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < iCount; i++){
+            users.add(new User(sPrefix + i));
+        }
+        return users;
+    }
+
     /**
      * Method that create new random First Name using
      * faker class
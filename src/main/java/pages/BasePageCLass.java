@@ -7,11 +7,13 @@ import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.*;
 import org.testng.Assert;
 import utils.JavaScriptUtils;
+import utils.LatencyUtils;
 import utils.LoggerUtils;
 import utils.PropertiesUtils;
 import utils.WebDriverUtils;
 import java.time.Duration;
 import java.util.List;
+import java.util.function.Function;
 
 public abstract class BasePageCLass extends LoggerUtils {
 
@@ -59,6 +61,31 @@ public abstract class BasePageCLass extends LoggerUtils {
         return driver.getCurrentUrl();
     }
 
+    /**
+     * Method that waits until condition is true and records how long it waited in LatencyUtils
+     * (e.g. "UI getWebElement (10s) OK" or "TIMEOUT"), so it can be seen how close waits
+     * are to their timeouts from data.Time when network is slower (FaultProxyHarnessUtils)
+     *
+     * @param wait {Wait<WebDriver>} - wait with timeout
+     * @param condition {Function} - condition that wait is waiting for
+     * @param sWaitName {String} - name of the wait method
+     * @param timeout {int} - timeout of the wait in seconds
+     *
+     * @return {T} - result of the condition
+     */
+    private <T> T waitUntil(Wait<WebDriver> wait, Function<? super WebDriver, T> condition, String sWaitName, int timeout){
+        long lStart = System.nanoTime();
+        String sName = String.format("UI %s (%ds)", sWaitName, timeout);
+        try {
+            T result = wait.until(condition);
+            LatencyUtils.record(sName, "OK", lStart);
+            return result;
+        } catch (TimeoutException e){
+            LatencyUtils.record(sName, "TIMEOUT", lStart);
+            throw e;
+        }
+    }
+
     /**
      * Method that checks if URL has changed or if URL contains a specified
      * String that is being passed as a parameter, and is waiting for that
@@ -74,7 +101,7 @@ public abstract class BasePageCLass extends LoggerUtils {
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
         // mark variable and right click, Show Action Content if
         // we want to see which type is some variable
-        return wait.until(ExpectedConditions.urlContains(url));
+        return waitUntil(wait, ExpectedConditions.urlContains(url), "waitForUrlChange", timeout);
     }
 
     /**
@@ -99,7 +126,7 @@ public abstract class BasePageCLass extends LoggerUtils {
     protected boolean waitForUrlChangeToExactUrl(String url, int timeout) {
         log.trace(String.format("waitForUrlChange: %s, %s", url, timeout));
         WebDriverWait wait = new WebDriverWait((driver), Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.urlToBe(url));
+        return waitUntil(wait, ExpectedConditions.urlToBe(url), "waitForUrlChangeToExactUrl", timeout);
     }
 
     /**
@@ -119,8 +146,8 @@ public abstract class BasePageCLass extends LoggerUtils {
         // JavascriptExecutor js = (JavascriptExecutor) this.driver;
         // boolean result = js.executeScript("return document.readyState").equals("complete");
         // new wait faction that we created
-        return wait.until(driver -> ((JavascriptExecutor) driver).executeScript
-                ("return document.readyState").equals("complete"));
+        return waitUntil(wait, driver -> ((JavascriptExecutor) driver).executeScript
+                ("return document.readyState").equals("complete"), "waitUntilPageIsReady", timeout);
     }
 
     /**
@@ -149,7 +176,7 @@ public abstract class BasePageCLass extends LoggerUtils {
     protected WebElement getWebElement(By locator, int timeout) {
         log.trace(String.format("getWebElement (%s, wait for the element to be present for: %s)", locator, timeout));
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+        return waitUntil(wait, ExpectedConditions.presenceOfElementLocated(locator), "getWebElement", timeout);
     }
 
     /**
@@ -173,7 +200,7 @@ public abstract class BasePageCLass extends LoggerUtils {
                 .withTimeout(Duration.ofSeconds(timeout))
                 .pollingEvery(Duration.ofSeconds(pollingTime))
                 .ignoring(NoSuchElementException.class);
-        return wait.until(driver -> driver.findElement(locator));
+        return waitUntil(wait, driver -> driver.findElement(locator), "getWebElement", timeout);
     }
 
     /**
@@ -203,7 +230,7 @@ public abstract class BasePageCLass extends LoggerUtils {
         log.trace(String.format("getNestedWebElement (%s, wait for element " +
                 "to be present for: %s, locator: %s)", locator, timeout, locator));
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.presenceOfNestedElementLocatedBy(element,locator));
+        return waitUntil(wait, ExpectedConditions.presenceOfNestedElementLocatedBy(element,locator), "getNestedWebElement", timeout);
     }
 
     /**
@@ -233,7 +260,7 @@ public abstract class BasePageCLass extends LoggerUtils {
         log.trace(String.format("waitForWebElementToBeClickable (%s, wait for element to " +
                                  "be clickable for: %s)", element, timeout));
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.elementToBeClickable(element));
+        return waitUntil(wait, ExpectedConditions.elementToBeClickable(element), "waitForWebElementToBeClickable", timeout);
 
     }
 
@@ -250,7 +277,7 @@ public abstract class BasePageCLass extends LoggerUtils {
     protected WebElement waitForWebElementToBeVisible(By locator, int timeout){
         log.trace(String.format("waitForWebElementToBeVisible %s, for: %s", locator,timeout));
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return waitUntil(wait, ExpectedConditions.visibilityOfElementLocated(locator), "waitForWebElementToBeVisible", timeout);
     }
 
     /**
@@ -266,7 +293,7 @@ public abstract class BasePageCLass extends LoggerUtils {
     protected WebElement waitForWebElementToBeVisible(WebElement element, int timeout){
         log.trace(String.format("waitForWebElementToBeVisible %s, for: %s", element,timeout));
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.visibilityOf(element));
+        return waitUntil(wait, ExpectedConditions.visibilityOf(element), "waitForWebElementToBeVisible", timeout);
     }
 
     /**
@@ -330,7 +357,7 @@ public abstract class BasePageCLass extends LoggerUtils {
         log.trace(String.format("waitForWebElementToBeSelected (%s, wait for element to " +
                 "be clickable for: %s)", element, timeout));
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.elementToBeSelected(element));
+        return waitUntil(wait, ExpectedConditions.elementToBeSelected(element), "waitForWebElementToBeSelected", timeout);
 
     }
 
@@ -381,7 +408,7 @@ public abstract class BasePageCLass extends LoggerUtils {
     protected boolean waitForWebElementToBeInvisible(By locator, int timeout){
         log.trace(String.format("waitForWebElementToBeInvisible %s, for: %s", locator,timeout));
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        return waitUntil(wait, ExpectedConditions.invisibilityOfElementLocated(locator), "waitForWebElementToBeInvisible", timeout);
     }
 
     /**
@@ -396,7 +423,7 @@ public abstract class BasePageCLass extends LoggerUtils {
     protected boolean waitForWebElementToBeInvisible(WebElement element, int timeout){
         log.trace(String.format("waitForWebElementToBeInvisible %s, for: %s", element,timeout));
         WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.invisibilityOf(element));
+        return waitUntil(wait, ExpectedConditions.invisibilityOf(element), "waitForWebElementToBeInvisible", timeout);
     }
 
     /**
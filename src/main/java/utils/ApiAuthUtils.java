@@ -0,0 +1,234 @@
+package utils;
+
+import io.restassured.response.Response;
+import org.testng.Assert;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class that decides how API calls are authenticated for each pair of credentials
+ * and keeps statistics how many round trips are saved that way
+ */
+public class ApiAuthUtils extends LoggerUtils {
+
+    /*
+     * CHALLENGE - request is first sent without credentials, server answers with 401 and then the same
+     * request is sent again with Authorization header, so every API call costs two round trips. Credentials
+     * are added to the repeated request as header and not to the shared HTTP client (RestAssured auth().basic()
+     * stores them in client-wide CredentialsProvider, so they would be used by calls of other threads)
+     * PREEMPTIVE - Authorization header is sent with the first request, one round trip per call
+     * SESSION - the first call is sent with preemptive basic auth, and session cookie that server
+     * returns is used for all next calls with the same credentials, so server doesn't have to check
+     * password again. If session expires (401) the call is repeated once with preemptive basic auth
+     */
+    public enum AuthMode {
+        CHALLENGE, PREEMPTIVE, SESSION
+    }
+
+    private static final String sAdminUser = PropertiesUtils.getAdminUserName();
+    private static final String sEndUser = PropertiesUtils.getEndUserUsername();
+    private static final AuthMode adminAuthMode = parseAuthMode(PropertiesUtils.getAdminAuthMode());
+    private static final AuthMode endUserAuthMode = parseAuthMode(PropertiesUtils.getEndUserAuthMode());
+    private static final AuthMode defaultAuthMode = parseAuthMode(PropertiesUtils.getDefaultAuthMode());
+    private static final String sSessionCookieName = PropertiesUtils.getSessionCookieName();
+
+    // session cookies for credential pairs "username:password"
+    private static final Map<String, String> sessions = new ConcurrentHashMap<>();
+    // session cookie that the current thread sent with its last call (null if it used basic auth)
+    private static final ThreadLocal<String> sentSession = new ThreadLocal<>();
+    // set when the current thread repeats the call after 401, so it is sent with preemptive basic auth
+    private static final ThreadLocal<Boolean> repeatingCall = new ThreadLocal<>();
+    // statistics for endpoints "METHOD /api/path/"
+    private static final Map<String, AuthStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Class that counts calls, calls sent with credentials or session on the first try,
+     * and calls repeated after 401 for one endpoint (repeated calls are not counted as calls)
+     */
+    private static class AuthStatistics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder savedRoundTrips = new LongAdder();
+        private final LongAdder challenges = new LongAdder();
+        private final LongAdder sessionRetries = new LongAdder();
+    }
+
+    /**
+     * Method that converts auth mode from the property file into AuthMode
+     *
+     * @param sAuthMode {String} - auth mode e.g. challenge, preemptive, session
+     *
+     * @return {AuthMode} - auth mode
+     */
+    private static AuthMode parseAuthMode(String sAuthMode){
+        try {
+            return AuthMode.valueOf(sAuthMode.trim().toUpperCase());
+        } catch (IllegalArgumentException e){
+            Assert.fail(String.format("Auth mode %s is not recognised!", sAuthMode));
+        }
+        return null;
+    }
+
+    /**
+     * Method that returns auth mode for specific user, admin and end user have their own
+     * auth mode defined in the property file and all other users use default auth mode
+     *
+     * @param sAuthUser {String} - username to authenticate
+     *
+     * @return {AuthMode} - auth mode for the user
+     */
+    public static AuthMode getAuthMode(String sAuthUser){
+        if (sAdminUser.equals(sAuthUser)){
+            return adminAuthMode;
+        }
+        if (sEndUser.equals(sAuthUser)){
+            return endUserAuthMode;
+        }
+        return defaultAuthMode;
+    }
+
+    private static String getSessionKey(String sAuthUser, String sAuthPass){
+        return sAuthUser + ":" + sAuthPass;
+    }
+
+    private static AuthStatistics getStatistics(String sEndpoint){
+        return statistics.computeIfAbsent(sEndpoint, k -> new AuthStatistics());
+    }
+
+    /**
+     * Method that returns authentication headers of the request based on auth mode for the credentials,
+     * call that is repeated after 401 (shouldRepeatCall()) is always sent with preemptive basic auth.
+     * Headers are added to the request by the transport (RestAssured or HTTP/2 client in ApiClientUtils),
+     * so every call is authenticated the same way
+     *
+     * @param sEndpoint {String} - endpoint name used for statistics e.g. "GET /api/users/exists/"
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     *
+     * @return {Map<String, String>} - Authorization or Cookie header, empty if credentials are sent only after 401
+     */
+    public static Map<String, String> getAuthHeaders(String sEndpoint, String sAuthUser, String sAuthPass){
+        sentSession.remove();
+        if (repeatingCall.get() != null){
+            repeatingCall.remove();
+            return createBasicAuthHeader(sAuthUser, sAuthPass);
+        }
+        AuthMode authMode = getAuthMode(sAuthUser);
+        AuthStatistics endpointStatistics = getStatistics(sEndpoint);
+        endpointStatistics.calls.increment();
+        if (authMode == AuthMode.CHALLENGE){
+            // credentials are sent only when server asks for them (shouldRepeatCall())
+            return Collections.emptyMap();
+        }
+        endpointStatistics.savedRoundTrips.increment();
+        if (authMode == AuthMode.SESSION){
+            String sSession = sessions.get(getSessionKey(sAuthUser, sAuthPass));
+            sentSession.set(sSession);
+            if (sSession != null){
+                return Collections.singletonMap("Cookie", sSessionCookieName + "=" + sSession);
+            }
+        }
+        return createBasicAuthHeader(sAuthUser, sAuthPass);
+    }
+
+    private static Map<String, String> createBasicAuthHeader(String sAuthUser, String sAuthPass){
+        String sCredentials = Base64.getEncoder().encodeToString((sAuthUser + ":" + sAuthPass).getBytes(StandardCharsets.UTF_8));
+        return Collections.singletonMap("Authorization", "Basic " + sCredentials);
+    }
+
+    /**
+     * Method that stores session cookie from response, so next calls with the same
+     * credentials can use it (only if credentials use SESSION auth mode)
+     *
+     * @param response {Response} - response of the authenticated call
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     */
+    public static void storeSession(Response response, String sAuthUser, String sAuthPass){
+        if (getAuthMode(sAuthUser) != AuthMode.SESSION || response.getStatusCode() == 401){
+            return;
+        }
+        String sSession = response.getCookie(sSessionCookieName);
+        if (sSession != null){
+            sessions.put(getSessionKey(sAuthUser, sAuthPass), sSession);
+        }
+    }
+
+    /**
+     * Method that checks if call has to be repeated with basic auth after 401
+     * @description - call is repeated once if it was sent without credentials (CHALLENGE auth mode)
+     * or with session cookie that has expired, expired session is removed. Repeated call is sent with
+     * preemptive basic auth, so 401 of the repeated call means that credentials are wrong
+     *
+     * @param response {Response} - response of the authenticated call
+     * @param sEndpoint {String} - endpoint name used for statistics
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     *
+     * @return {boolean} - if the call should be repeated
+     */
+    public static boolean shouldRepeatCall(Response response, String sEndpoint, String sAuthUser, String sAuthPass){
+        String sSession = sentSession.get();
+        sentSession.remove();
+        if (response.getStatusCode() != 401){
+            return false;
+        }
+        AuthMode authMode = getAuthMode(sAuthUser);
+        if (authMode == AuthMode.CHALLENGE){
+            getStatistics(sEndpoint).challenges.increment();
+            repeatingCall.set(Boolean.TRUE);
+            return true;
+        }
+        // several threads can send the same expired session at the same time, all of them repeat the call,
+        // but only the session they sent is removed (other thread may already have stored the new one)
+        if (authMode != AuthMode.SESSION || sSession == null){
+            return false;
+        }
+        sessions.remove(getSessionKey(sAuthUser, sAuthPass), sSession);
+        log.debug(String.format("Session for %s expired on %s, repeating call with basic auth", sAuthUser, sEndpoint));
+        getStatistics(sEndpoint).sessionRetries.increment();
+        repeatingCall.set(Boolean.TRUE);
+        return true;
+    }
+
+    /**
+     * Method that removes stored session for the credentials, so next call is authenticated with basic auth
+     *
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     */
+    public static void removeSession(String sAuthUser, String sAuthPass){
+        sessions.remove(getSessionKey(sAuthUser, sAuthPass));
+    }
+
+    /**
+     * Method that removes all stored sessions e.g. when test changes the password
+     */
+    public static void clearSessions(){
+        sessions.clear();
+    }
+
+    /**
+     * Method that logs for every endpoint how many calls were made and how many
+     * round trips (401 challenges) were saved by preemptive and session auth
+     */
+    public static void logAuthStatistics(){
+        long lTotalCalls = 0;
+        long lTotalSaved = 0;
+        for (Map.Entry<String, AuthStatistics> entry : new TreeMap<>(statistics).entrySet()){
+            AuthStatistics endpointStatistics = entry.getValue();
+            long lCalls = endpointStatistics.calls.sum();
+            // call with expired session costs two round trips like challenge, so it didn't save anything
+            long lSaved = endpointStatistics.savedRoundTrips.sum() - endpointStatistics.sessionRetries.sum();
+            lTotalCalls += lCalls;
+            lTotalSaved += lSaved;
+            log.info(String.format("[API AUTH] %s calls: %d, saved round trips: %d, challenges: %d, expired sessions: %d",
+                    entry.getKey(), lCalls, lSaved, endpointStatistics.challenges.sum(), endpointStatistics.sessionRetries.sum()));
+        }
+        log.info(String.format("[API AUTH] Total calls: %d, saved round trips: %d", lTotalCalls, lTotalSaved));
+    }
+}
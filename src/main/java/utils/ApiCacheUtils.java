@@ -0,0 +1,244 @@
+package utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Class that caches GET user and GET hero responses, so reading the same user or hero
+ * several times in one test (e.g. to get createdAt after POST and again in verification)
+ * costs only one API call
+ * @description - cache is used only if apiCacheEnabled is true, suite can turn it on or off with parameter
+ * apiCacheEnabled (<parameter name="apiCacheEnabled" value="true"/>), which is read when suite starts. Response bodies (JSON) are cached
+ * and not User or Hero objects, because tests change objects they get (e.g. addHero()), so every
+ * read returns a new object. Entry expires after apiCacheTimeToLive seconds and if there are more
+ * than apiCacheMaxSize entries the least recently used one is removed. POST and DELETE API methods
+ * remove entries of the user or hero they change. Cache is cleared when the suite starts and finishes
+ */
+public class ApiCacheUtils extends LoggerUtils {
+
+    private static final boolean bDefaultCacheEnabled = PropertiesUtils.getApiCacheEnabled();
+    // value for the suite that is running (configure())
+    private static volatile boolean bCacheEnabled = bDefaultCacheEnabled;
+    private static final long lTimeToLiveNanos = TimeUnit.SECONDS.toNanos(PropertiesUtils.getApiCacheTimeToLive());
+    private static final int iMaxSize = PropertiesUtils.getApiCacheMaxSize();
+
+    private static final ResponseCache users = new ResponseCache("users");
+    private static final ResponseCache heroes = new ResponseCache("heroes");
+
+    /**
+     * Class that stores one cached response body
+     */
+    private static class CacheEntry {
+        private final String sName;
+        private final String sJson;
+        private final long lExpiresAt;
+
+        private CacheEntry(String sName, String sJson) {
+            this.sName = sName;
+            this.sJson = sJson;
+            this.lExpiresAt = System.nanoTime() + lTimeToLiveNanos;
+        }
+
+        private boolean isExpired(){
+            return System.nanoTime() - lExpiresAt > 0;
+        }
+    }
+
+    /**
+     * Class that stores responses of one entity (users or heroes) with statistics,
+     * keys are "authUser:authPass:name" because response can depend on who is asking
+     * (with wrong password the call fails and it must not get response of the correct one)
+     */
+    private static class ResponseCache {
+        private final String sCacheName;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder invalidations = new LongAdder();
+        // changed by every invalidation, response that was loaded while it changed may be stale and it is not cached
+        private long lGeneration;
+        // access order, so the eldest entry is the least recently used one
+        private final Map<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > iMaxSize){
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        private ResponseCache(String sCacheName) {
+            this.sCacheName = sCacheName;
+        }
+
+        private String get(String sName, String sAuthUser, String sAuthPass, Supplier<String> loader){
+            String sKey = sAuthUser + ":" + sAuthPass + ":" + sName;
+            long lLoadGeneration;
+            synchronized (entries){
+                CacheEntry entry = entries.get(sKey);
+                if (entry != null && !entry.isExpired()){
+                    hits.increment();
+                    log.trace(String.format("[API CACHE] %s hit: %s", sCacheName, sKey));
+                    return entry.sJson;
+                }
+                if (entry != null){
+                    entries.remove(sKey);
+                    evictions.increment();
+                }
+                lLoadGeneration = lGeneration;
+            }
+            misses.increment();
+            // API call is outside synchronized block, so other threads don't wait for it
+            String sJson = loader.get();
+            synchronized (entries){
+                // e.g. DELETE of the user by another thread while GET was in flight
+                if (lLoadGeneration == lGeneration){
+                    entries.put(sKey, new CacheEntry(sName, sJson));
+                }
+            }
+            return sJson;
+        }
+
+        private void invalidate(String sName){
+            synchronized (entries){
+                lGeneration++;
+                Iterator<CacheEntry> iterator = entries.values().iterator();
+                while (iterator.hasNext()){
+                    if (iterator.next().sName.equals(sName)){
+                        iterator.remove();
+                        invalidations.increment();
+                    }
+                }
+            }
+        }
+
+        private void clear(){
+            synchronized (entries){
+                lGeneration++;
+                entries.clear();
+            }
+        }
+
+        private void logStatistics(){
+            long lHits = hits.sum();
+            long lMisses = misses.sum();
+            long lTotal = lHits + lMisses;
+            log.info(String.format("[API CACHE] %s hits: %d, misses: %d, hit ratio: %.1f%%, evictions: %d, invalidations: %d",
+                    sCacheName, lHits, lMisses, lTotal == 0 ? 0.0 : 100.0 * lHits / lTotal, evictions.sum(), invalidations.sum()));
+        }
+    }
+
+    /**
+     * Method that turns cache on or off for the suite that starts and clears it, it is called when suite starts
+     *
+     * @param sSuiteCacheEnabled {String} - value of the suite parameter apiCacheEnabled,
+     *                           if it is null value of the property apiCacheEnabled is used
+     */
+    public static void configure(String sSuiteCacheEnabled){
+        boolean bEnabled = bDefaultCacheEnabled;
+        if (sSuiteCacheEnabled != null){
+            if (sSuiteCacheEnabled.equalsIgnoreCase("true") || sSuiteCacheEnabled.equalsIgnoreCase("false")){
+                bEnabled = Boolean.parseBoolean(sSuiteCacheEnabled);
+            } else {
+                log.warn(String.format("Suite parameter 'apiCacheEnabled' %s is not recognised as boolean value!", sSuiteCacheEnabled));
+            }
+        }
+        bCacheEnabled = bEnabled;
+        clear();
+        log.debug("[API CACHE] enabled: " + bEnabled);
+    }
+
+    /**
+     * Method that returns if GET user and GET hero responses are cached for the current thread,
+     * cache is not used when it is turned off for the thread (ApiClientUtils.disableResponseSharing())
+     *
+     * @return {boolean} - if cache is turned on for the suite and not turned off for the current thread
+     */
+    public static boolean isEnabled(){
+        return bCacheEnabled && !ApiClientUtils.isResponseSharingDisabled();
+    }
+
+    /**
+     * Method that returns cached GET user response body, if it is not cached (or it is expired)
+     * loader is called (API call) and its result is cached
+     *
+     * @param sUsername {String} - username of user that we want to get
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     * @param loader {Supplier<String>} - GET user API call that returns response body
+     *
+     * @return {String} - User in JSON format
+     */
+    public static String getUser(String sUsername, String sAuthUser, String sAuthPass, Supplier<String> loader){
+        return users.get(sUsername, sAuthUser, sAuthPass, loader);
+    }
+
+    /**
+     * Method that returns cached GET hero response body, if it is not cached (or it is expired)
+     * loader is called (API call) and its result is cached
+     *
+     * @param sHeroName {String} - name of hero that we want to get
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     * @param loader {Supplier<String>} - GET hero API call that returns response body
+     *
+     * @return {String} - Hero in JSON format
+     */
+    public static String getHero(String sHeroName, String sAuthUser, String sAuthPass, Supplier<String> loader){
+        return heroes.get(sHeroName, sAuthUser, sAuthPass, loader);
+    }
+
+    /**
+     * Method that removes cached user (for all credentials), it is called after POST or DELETE user
+     *
+     * @param sUsername {String} - username of user that is changed
+     */
+    public static void invalidateUser(String sUsername){
+        if (bCacheEnabled){
+            users.invalidate(sUsername);
+        }
+    }
+
+    /**
+     * Method that removes cached hero (for all credentials) and user that hero belongs to,
+     * because user response contains list of heroes. It is called after POST or DELETE hero
+     *
+     * @param sHeroName {String} - name of hero that is changed
+     * @param sUsername {String} - username of user that hero belongs to, if it is not known (null)
+     *                  all cached users are removed
+     */
+    public static void invalidateHero(String sHeroName, String sUsername){
+        if (bCacheEnabled){
+            heroes.invalidate(sHeroName);
+            if (sUsername != null){
+                users.invalidate(sUsername);
+            } else {
+                users.clear();
+            }
+        }
+    }
+
+    /**
+     * Method that removes all cached responses, it is called when suite starts and finishes
+     */
+    public static void clear(){
+        users.clear();
+        heroes.clear();
+    }
+
+    /**
+     * Method that logs hits and misses of users and heroes cache, it is called when suite is finished
+     */
+    public static void logCacheStatistics(){
+        if (bCacheEnabled){
+            users.logStatistics();
+            heroes.logStatistics();
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import org.testng.Assert;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Class that records API calls of the test into cassette file and replays them without backend
+ * @description - mode is set with apiCassetteMode property:
+ * - off - API calls are sent to the backend as usual
+ * - record - every API call (ApiClientUtils.sendRequest()) of the test is sent to the backend and request/response
+ *   pair is stored, cassette is written to apiCassetteDirectory/<test class>.<test method>.json when test passes
+ * - replay - API calls are not sent, response is taken from the cassette of the test
+ * Recorded call is matched by method, path, username and body. Bodies with random data (e.g. User created with faker)
+ * are different every run, so if there is no call with the same body, bodies are compared without random fields
+ * (RANDOM_FIELD_PATTERN), and only if there is still no match call with the same method, path and username is used
+ * (with warning, because body of the request is not checked then). Calls that are the same are replayed in the
+ * recorded order. Usernames and hero names have date time stamp (DateTimeUtils.getDateTimeStamp()), so stamps
+ * are stored as {{stamp0}}, {{stamp1}}... in order of appearance (in path, username used to authenticate and body)
+ * and replaced with stamps of the current run, and "timestamp" of ApiError is replaced with the current time.
+ * Cassette is started and stopped for every test method in BaseTestClass (data provider invocations have their own
+ * cassette) and for fixtures of every test class in FixtureListener. Calls from threads without cassette
+ * (e.g. background cleanup) are not recorded and in replay mode they fail. Async and bulk calls (AsyncRestApiUtils,
+ * BulkRestApiUtils) use cassette of the test that started them (bindCurrentCassette()), so they are recorded and replayed
+ * like calls of the test thread
+ */
+public class ApiCassetteUtils extends LoggerUtils {
+
+    /**
+     * Modes of the cassette
+     */
+    public enum CassetteMode {
+        OFF, RECORD, REPLAY
+    }
+
+    private static final CassetteMode mode = CassetteMode.valueOf(PropertiesUtils.getApiCassetteMode().toUpperCase());
+    private static final String sCassetteDirectory = PropertiesUtils.getApiCassetteDirectory();
+    private static final Pattern STAMP_PATTERN = Pattern.compile("\\d{15}");
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{\\{stamp\\d+}}");
+    private static final Pattern TIMESTAMP_PATTERN = Pattern.compile("(\"timestamp\"\\s*:\\s*)\\d+");
+    // fields that are created with faker or current time (User, Hero), they are different in every run
+    private static final Pattern RANDOM_FIELD_PATTERN = Pattern.compile(
+            "(\"(?:firstName|lastName|type|level|createdAt)\"\\s*:\\s*)(\"(?:[^\"\\\\]|\\\\.)*\"|-?\\d+|null)");
+    private static final Gson gson = new Gson();
+    private static final ThreadLocal<Cassette> currentCassette = new ThreadLocal<>();
+
+    /**
+     * Class for one recorded request/response pair
+     */
+    private static class Interaction {
+        private String method;
+        private String path;
+        private String user;
+        private String body;
+        private int status;
+        private String contentType;
+        private String response;
+    }
+
+    /**
+     * Class for cassette of one test, stamps of the current run are mapped to placeholders
+     */
+    private static class Cassette {
+        private final String sName;
+        private final List<Interaction> interactions;
+        private final boolean[] replayed;
+        private final Map<String, String> stamps = new HashMap<>();
+
+        private Cassette(String sName, List<Interaction> interactions) {
+            this.sName = sName;
+            this.interactions = interactions;
+            this.replayed = new boolean[interactions.size()];
+        }
+
+        /**
+         * Method that replaces date time stamps with placeholders, new stamps get new placeholder
+         * only if bAssign is true (stamps from requests), otherwise they are not changed
+         */
+        private String normalize(String sText, boolean bAssign){
+            if (sText == null){
+                return null;
+            }
+            Matcher matcher = STAMP_PATTERN.matcher(sText);
+            StringBuilder result = new StringBuilder();
+            while (matcher.find()){
+                String sPlaceholder = stamps.get(matcher.group());
+                if (sPlaceholder == null && bAssign){
+                    sPlaceholder = "{{stamp" + stamps.size() + "}}";
+                    stamps.put(matcher.group(), sPlaceholder);
+                }
+                matcher.appendReplacement(result, Matcher.quoteReplacement(sPlaceholder != null ? sPlaceholder : matcher.group()));
+            }
+            matcher.appendTail(result);
+            return result.toString();
+        }
+
+        /**
+         * Method that replaces placeholders with stamps of the current run
+         */
+        private String denormalize(String sText){
+            Map<String, String> placeholders = new HashMap<>();
+            for (Map.Entry<String, String> entry : stamps.entrySet()){
+                placeholders.put(entry.getValue(), entry.getKey());
+            }
+            Matcher matcher = PLACEHOLDER_PATTERN.matcher(sText);
+            StringBuilder result = new StringBuilder();
+            while (matcher.find()){
+                matcher.appendReplacement(result, Matcher.quoteReplacement(placeholders.getOrDefault(matcher.group(), matcher.group())));
+            }
+            matcher.appendTail(result);
+            return result.toString();
+        }
+    }
+
+    /**
+     * Method that checks if API calls are recorded or replayed
+     *
+     * @return {boolean} - true if cassette mode is not off
+     */
+    public static boolean isEnabled(){
+        return mode != CassetteMode.OFF;
+    }
+
+    /**
+     * Method that checks if API calls are replayed from the cassette instead of sent to the backend
+     *
+     * @return {boolean} - true if cassette mode is replay
+     */
+    public static boolean isReplaying(){
+        return mode == CassetteMode.REPLAY;
+    }
+
+    private static Path getCassettePath(String sName){
+        return Paths.get(sCassetteDirectory, sName + ".json");
+    }
+
+    /**
+     * Method that starts cassette for the current thread (test), in replay mode cassette is loaded from the file
+     *
+     * @param sName {String} - name of the cassette e.g. tests.api.Users.VerifyErrorGetUserNoPermission.testVerifyErrorGetUserNoPermission
+     */
+    public static void startCassette(String sName){
+        if (mode == CassetteMode.RECORD){
+            currentCassette.set(new Cassette(sName, new ArrayList<>()));
+        } else if (mode == CassetteMode.REPLAY){
+            Path path = getCassettePath(sName);
+            List<Interaction> interactions = null;
+            try {
+                interactions = gson.fromJson(Files.readString(path, StandardCharsets.UTF_8), new TypeToken<List<Interaction>>(){}.getType());
+            } catch (IOException e){
+                Assert.fail(String.format("Cassette %s is not recorded! Message: %s", path, e.getMessage()));
+            }
+            currentCassette.set(new Cassette(sName, interactions));
+        }
+        log.debug(String.format("startCassette() %s (%s)", sName, mode));
+    }
+
+    /**
+     * Method that stops cassette of the current thread, in record mode cassette is written to the file
+     *
+     * @param bWrite {boolean} - false if recorded calls should be thrown away (e.g. test failed)
+     */
+    public static void stopCassette(boolean bWrite){
+        Cassette cassette = currentCassette.get();
+        currentCassette.remove();
+        if (cassette == null || mode != CassetteMode.RECORD || cassette.interactions.isEmpty()){
+            return;
+        }
+        if (!bWrite){
+            log.warn(String.format("Cassette %s is not written because test didn't pass", cassette.sName));
+            return;
+        }
+        Path path = getCassettePath(cassette.sName);
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, gson.toJson(cassette.interactions), StandardCharsets.UTF_8);
+            log.debug(String.format("Cassette %s is written with %d calls", path, cassette.interactions.size()));
+        } catch (IOException e){
+            log.error(String.format("Cassette %s can't be written! Message: %s", path, e.getMessage()));
+        }
+    }
+
+    /**
+     * Method that returns task which runs with cassette of the current thread (test), so API calls
+     * that test starts on another thread (e.g. AsyncRestApiUtils) are recorded into (or replayed from) its cassette
+     *
+     * @param task {Runnable} - task that will be executed on another thread
+     *
+     * @return {Runnable} - task that sets cassette of the test while it is running
+     */
+    public static Runnable bindCurrentCassette(Runnable task){
+        Cassette cassette = currentCassette.get();
+        if (cassette == null){
+            return task;
+        }
+        return () -> {
+            Cassette previous = currentCassette.get();
+            currentCassette.set(cassette);
+            try {
+                task.run();
+            } finally {
+                if (previous != null){
+                    currentCassette.set(previous);
+                } else {
+                    currentCassette.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Method that stores request/response pair into cassette of the current thread, response body
+     * is read here, so it is cached in the response and can be read again by the caller
+     *
+     * @param method {Method} - HTTP method
+     * @param sPath {String} - path of the API call
+     * @param sBody {String} - body of the request or null
+     * @param sAuthUser {String} - username used to authenticate
+     * @param response {Response} - response from the backend
+     */
+    public static void record(Method method, String sPath, String sBody, String sAuthUser, Response response){
+        Cassette cassette = currentCassette.get();
+        if (cassette == null || mode != CassetteMode.RECORD){
+            return;
+        }
+        String sResponse = response.getBody().asString();
+        // async calls of the same test can record at the same time
+        synchronized (cassette){
+            Interaction interaction = new Interaction();
+            interaction.method = method.toString();
+            interaction.path = cassette.normalize(sPath, true);
+            interaction.user = cassette.normalize(sAuthUser, true);
+            interaction.body = cassette.normalize(sBody, true);
+            interaction.status = response.getStatusCode();
+            interaction.contentType = response.getContentType();
+            interaction.response = cassette.normalize(sResponse, false);
+            cassette.interactions.add(interaction);
+        }
+    }
+
+    /**
+     * Method that returns recorded response for the request from cassette of the current thread
+     *
+     * @param method {Method} - HTTP method
+     * @param sPath {String} - path of the API call
+     * @param sBody {String} - body of the request or null
+     * @param sAuthUser {String} - username used to authenticate
+     *
+     * @return {Response} - recorded response
+     */
+    public static Response replay(Method method, String sPath, String sBody, String sAuthUser){
+        Cassette cassette = currentCassette.get();
+        if (cassette == null){
+            Assert.fail(String.format("There is no cassette to replay %s %s (API call outside of the test thread?)", method, sPath));
+        }
+        String sNormalizedPath;
+        Interaction interaction;
+        String sResponse = null;
+        // async calls of the same test can replay at the same time
+        synchronized (cassette){
+            sNormalizedPath = cassette.normalize(sPath, true);
+            String sNormalizedUser = cassette.normalize(sAuthUser, true);
+            String sNormalizedBody = cassette.normalize(sBody, true);
+            interaction = findInteraction(cassette, method.toString(), sNormalizedPath, sNormalizedUser, sNormalizedBody);
+            if (interaction != null){
+                sResponse = cassette.denormalize(interaction.response);
+            }
+        }
+        if (interaction == null){
+            Assert.fail(String.format("Cassette %s doesn't have recorded call %s %s (user: %s)", cassette.sName, method, sNormalizedPath, sAuthUser));
+        }
+        sResponse = TIMESTAMP_PATTERN.matcher(sResponse).replaceAll("$1" + System.currentTimeMillis());
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(interaction.status)
+                .setStatusLine("HTTP/1.1 " + interaction.status)
+                .setBody(sResponse);
+        if (interaction.contentType != null && !interaction.contentType.isEmpty()){
+            builder.setContentType(interaction.contentType);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Method that finds the first call that is not replayed yet with the same body, then with the same body
+     * without random fields, then without body, and if all such calls are replayed the last one is used again
+     */
+    private static Interaction findInteraction(Cassette cassette, String sMethod, String sPath, String sUser, String sBody){
+        int iFound = -1;
+        String sMaskedBody = maskRandomFields(sBody);
+        for (int iPass = 0; iPass < 3; iPass++){
+            for (int i = 0; i < cassette.interactions.size(); i++){
+                Interaction interaction = cassette.interactions.get(i);
+                if (interaction.method.equals(sMethod) && interaction.path.equals(sPath) && Objects.equals(interaction.user, sUser)
+                        && isSameBody(iPass, interaction.body, sBody, sMaskedBody)){
+                    if (!cassette.replayed[i]){
+                        cassette.replayed[i] = true;
+                        if (iPass == 2){
+                            log.warn(String.format("Cassette %s doesn't have call %s %s (user: %s) with the same body, call with body %s is replayed",
+                                    cassette.sName, sMethod, sPath, sUser, interaction.body));
+                        }
+                        return interaction;
+                    }
+                    iFound = i;
+                }
+            }
+        }
+        return iFound >= 0 ? cassette.interactions.get(iFound) : null;
+    }
+
+    /**
+     * Method that compares recorded body with body of the request, 0 - exact match,
+     * 1 - match without random fields, 2 - body is not compared
+     */
+    private static boolean isSameBody(int iPass, String sRecordedBody, String sBody, String sMaskedBody){
+        switch (iPass){
+            case 0:
+                return Objects.equals(sRecordedBody, sBody);
+            case 1:
+                return Objects.equals(maskRandomFields(sRecordedBody), sMaskedBody);
+            default:
+                return true;
+        }
+    }
+
+    private static String maskRandomFields(String sBody){
+        return sBody == null ? null : RANDOM_FIELD_PATTERN.matcher(sBody).replaceAll("$1\"{{random}}\"");
+    }
+}
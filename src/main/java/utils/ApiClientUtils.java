@@ -0,0 +1,295 @@
+package utils;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.DecoderConfig.ContentDecoder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.HttpClient;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.util.EntityUtils;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class that holds the HTTP transport shared by all API calls in RestApiUtils
+ * e.g. pooled keep-alive connections and common request specification
+ */
+@SuppressWarnings("deprecation")
+public class ApiClientUtils extends LoggerUtils {
+
+    private static final String BASE_URL = PropertiesUtils.getBaseUrl();
+
+    /*
+     * By default RestAssured creates a new HttpClient (and with it a new connection manager)
+     * for every request and shuts it down when the response is read, so every API call pays
+     * for a new TCP connection. Here we create only one client for the whole run which has
+     * pooling connection manager, so connections are kept alive and reused between calls
+     * and between threads when tests are executed in parallel.
+     *
+     * RestAssured still needs the old DefaultHttpClient API (it sets parameters on the client),
+     * that is why PoolingClientConnectionManager is used instead of the newer HttpClientBuilder.
+     */
+    private static final PoolingClientConnectionManager connectionManager = createConnectionManager();
+    private static final HttpClient httpClient = createHttpClient();
+    private static final RequestSpecification requestSpecification = createRequestSpecification();
+    // load generator (LoadGeneratorUtils) turns off single-flight and cache for its threads, so every call reaches backend
+    private static final ThreadLocal<Boolean> responseSharingDisabled = new ThreadLocal<>();
+    // async calls (AsyncRestApiUtils) are sent over HTTP/2 (Http2ClientUtils) if apiAsyncHttpVersion is HTTP_2
+    private static final ThreadLocal<Boolean> http2Enabled = new ThreadLocal<>();
+
+    /**
+     * Method that creates thread safe pooling connection manager with the
+     * pool sizes and connection time to live defined in the property file
+     *
+     * @return {PoolingClientConnectionManager} - pooling connection manager
+     */
+    private static PoolingClientConnectionManager createConnectionManager(){
+        PoolingClientConnectionManager manager = new PoolingClientConnectionManager(
+                SchemeRegistryFactory.createDefault(), PropertiesUtils.getApiConnectionTimeToLive(), TimeUnit.SECONDS);
+        manager.setMaxTotal(PropertiesUtils.getApiMaxTotalConnections());
+        manager.setDefaultMaxPerRoute(PropertiesUtils.getApiMaxConnectionsPerRoute());
+        log.trace(String.format("createConnectionManager() max total: %s, max per route: %s",
+                manager.getMaxTotal(), manager.getDefaultMaxPerRoute()));
+        return manager;
+    }
+
+    /**
+     * Method that creates HttpClient which uses shared pooling connection manager
+     * and connection/socket timeouts defined in the property file
+     * @description - RestAssured doesn't read response body with Content-Length: 0 (e.g. DELETE),
+     * and such response can't be released via releaseConnection() because RestAssured doesn't
+     * keep its stream. That is why empty body is consumed and replaced already in the client,
+     * so connection is returned to the pool as soon as response headers are received
+     *
+     * @return {HttpClient} - HttpClient instance shared by all API calls
+     */
+    private static HttpClient createHttpClient(){
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        client.getParams().setParameter(CoreConnectionPNames.CONNECTION_TIMEOUT, PropertiesUtils.getApiConnectionTimeout() * 1000);
+        client.getParams().setParameter(CoreConnectionPNames.SO_TIMEOUT, PropertiesUtils.getApiSocketTimeout() * 1000);
+        client.addResponseInterceptor((response, context) -> {
+            HttpEntity entity = response.getEntity();
+            if (entity != null && entity.getContentLength() == 0){
+                EntityUtils.consume(entity);
+                ByteArrayEntity emptyEntity = new ByteArrayEntity(new byte[0]);
+                emptyEntity.setContentType(entity.getContentType());
+                response.setEntity(emptyEntity);
+            }
+        });
+        return client;
+    }
+
+    /**
+     * Method that creates decoder configuration based on apiCompressionEnabled property,
+     * without content decoders Accept-Encoding header is not sent and server returns plain response
+     *
+     * @return {DecoderConfig} - decoder configuration
+     */
+    private static DecoderConfig createDecoderConfig(){
+        if (PropertiesUtils.getApiCompressionEnabled()){
+            return DecoderConfig.decoderConfig().contentDecoders(ContentDecoder.GZIP, ContentDecoder.DEFLATE);
+        }
+        return DecoderConfig.decoderConfig().noContentDecoders();
+    }
+
+    /**
+     * Method that creates request specification that is common for all API calls
+     * @description - base URI, Content-Type and Accept headers and configuration which
+     * tells RestAssured to use (and reuse) our pooled HttpClient. If apiCompressionEnabled is true,
+     * request has Accept-Encoding: gzip,deflate header and compressed response is decoded before
+     * it is read (asString(), asInputStream()), so mapping into User/Hero is the same. Specification is built
+     * only once and every request is merged with it via given().spec(), so it is never
+     * changed after it is created and can be safely shared between threads
+     *
+     * @return {RequestSpecification} - common request specification
+     */
+    private static RequestSpecification createRequestSpecification(){
+        HttpClientConfig httpClientConfig = HttpClientConfig.httpClientConfig()
+                .httpClientFactory(() -> httpClient)
+                .reuseHttpClientInstance();
+        return new RequestSpecBuilder()
+                .setBaseUri(BASE_URL)
+                .addHeader("Content-Type", ContentType.JSON.toString())
+                .addHeader("Accept", ContentType.JSON.toString())
+                .setConfig(RestAssuredConfig.config().httpClient(httpClientConfig).decoderConfig(createDecoderConfig()))
+                .build();
+    }
+
+    /**
+     * Method that turns off single-flight (ApiSingleFlightUtils) and cache (ApiCacheUtils) for API calls
+     * of the current thread, so every call is sent to the backend e.g. when backend is load tested
+     */
+    public static void disableResponseSharing(){
+        responseSharingDisabled.set(Boolean.TRUE);
+    }
+
+    /**
+     * Method that turns single-flight and cache back on for API calls of the current thread
+     */
+    public static void resetResponseSharing(){
+        responseSharingDisabled.remove();
+    }
+
+    /**
+     * Method that checks if single-flight and cache are turned off for API calls of the current thread
+     *
+     * @return {boolean} - true if every API call of the current thread is sent to the backend
+     */
+    public static boolean isResponseSharingDisabled(){
+        return responseSharingDisabled.get() != null;
+    }
+
+    /**
+     * Method that sends API calls of the current thread over HTTP/2 (Http2ClientUtils) instead of pooled
+     * HTTP/1.1 connections, so concurrent calls are multiplexed over one connection
+     */
+    public static void enableHttp2(){
+        http2Enabled.set(Boolean.TRUE);
+    }
+
+    /**
+     * Method that sends API calls of the current thread over pooled HTTP/1.1 connections again
+     */
+    public static void resetHttp2(){
+        http2Enabled.remove();
+    }
+
+    private static boolean isHttp2Enabled(){
+        return http2Enabled.get() != null;
+    }
+
+    /**
+     * Method that sends API request and returns the response
+     * @description - every request is created from the common request specification,
+     * authenticated based on auth mode for the credentials (ApiAuthUtils) and if the body
+     * is passed it is added to the request. Request is sent with RestAssured over pooled connections, or over HTTP/2
+     * if the current thread turned it on (enableHttp2()). Response returns 302 redirected instead of 200 when
+     * e.g. Hero is successfully posted, so redirects are not followed for POST requests.
+     * If server asks for credentials (CHALLENGE auth mode) or stored session has expired,
+     * request is sent once more with basic auth.
+     * Duration of the call (until response headers are received) is recorded in LatencyUtils.
+     * Identical GET requests that are in flight at the same time share one call (ApiSingleFlightUtils),
+     * unless it is turned off for the current thread (disableResponseSharing()).
+     * In cassette record/replay mode request and response are recorded or replayed (ApiCassetteUtils)
+     *
+     * @param method {Method} - HTTP method e.g. GET, POST, DELETE
+     * @param sEndpoint {String} - endpoint from APICalls e.g. APICalls.GET_USER
+     * @param sPath {String} - path of the API call e.g. /api/users/findByUsername/admin
+     * @param sBody {String} - body of the request in JSON format or null if there is no body
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     *
+     * @return {Response} - response of the API call
+     */
+    public static Response sendRequest(Method method, String sEndpoint, String sPath, String sBody, String sAuthUser, String sAuthPass){
+        if (ApiCassetteUtils.isReplaying()){
+            return ApiCassetteUtils.replay(method, sPath, sBody, sAuthUser);
+        }
+        Response response;
+        if (method == Method.GET && !isResponseSharingDisabled()){
+            response = ApiSingleFlightUtils.execute(sPath, sAuthUser, sAuthPass,
+                    () -> send(method, sEndpoint, sPath, sBody, sAuthUser, sAuthPass));
+        } else {
+            response = send(method, sEndpoint, sPath, sBody, sAuthUser, sAuthPass);
+        }
+        ApiCassetteUtils.record(method, sPath, sBody, sAuthUser, response);
+        return response;
+    }
+
+    /**
+     * Method that sends API request to the backend when limiter (ApiLimiterUtils) allows it
+     */
+    private static Response send(Method method, String sEndpoint, String sPath, String sBody, String sAuthUser, String sAuthPass){
+        String sEndpointName = method + " " + sEndpoint;
+        long lStart = ApiLimiterUtils.acquire(sEndpointName);
+        Response response;
+        try {
+            response = execute(method, sEndpointName, sPath, sBody, sAuthUser, sAuthPass);
+            if (ApiAuthUtils.shouldRepeatCall(response, sEndpointName, sAuthUser, sAuthPass)){
+                releaseConnection(response);
+                response = execute(method, sEndpointName, sPath, sBody, sAuthUser, sAuthPass);
+            }
+        } catch (Throwable e){
+            // RestAssured rethrows checked exceptions (e.g. SocketTimeoutException) without declaring them,
+            // so only catching Throwable guarantees that the limiter permit is returned
+            LatencyUtils.record(sEndpointName, "ERROR", lStart);
+            ApiLimiterUtils.release(lStart, true);
+            throw e;
+        }
+        LatencyUtils.record(sEndpointName, response.getStatusCode(), lStart);
+        ApiLimiterUtils.release(lStart, isOverloaded(response.getStatusCode()));
+        ApiAuthUtils.storeSession(response, sAuthUser, sAuthPass);
+        return response;
+    }
+
+    /**
+     * Method that checks if status code means that backend (or proxy in front of it) is overloaded
+     */
+    private static boolean isOverloaded(int iStatusCode){
+        return iStatusCode == 429 || iStatusCode == 502 || iStatusCode == 503 || iStatusCode == 504;
+    }
+
+    /**
+     * Method that authenticates request (ApiAuthUtils) and sends it with RestAssured or over HTTP/2
+     */
+    private static Response execute(Method method, String sEndpointName, String sPath, String sBody, String sAuthUser, String sAuthPass){
+        Map<String, String> authHeaders = ApiAuthUtils.getAuthHeaders(sEndpointName, sAuthUser, sAuthPass);
+        if (isHttp2Enabled()){
+            return Http2ClientUtils.send(method, sPath, sBody, authHeaders);
+        }
+        return createRequest(method, sBody, authHeaders).request(method, sPath);
+    }
+
+    /**
+     * Method that creates new request based on common request specification
+     */
+    private static RequestSpecification createRequest(Method method, String sBody, Map<String, String> authHeaders){
+        RequestSpecification request = RestAssured.given().spec(requestSpecification).headers(authHeaders);
+        if (sBody != null){
+            request.body(sBody);
+        }
+        if (method == Method.POST){
+            request.redirects().follow(false);
+        }
+        return request;
+    }
+
+    /**
+     * Method that returns connection of the response to the pool when response body is not needed,
+     * connection is released only when whole body is read (or its stream is closed), otherwise
+     * it stays leased and pool runs out of connections
+     *
+     * @param response {Response} - response which body is not read
+     */
+    public static void releaseConnection(Response response){
+        try {
+            response.getBody().asInputStream().close();
+        } catch (IOException e){
+            log.warn("Connection is not released! Message: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method that closes connections which are idle longer than defined time, it can be
+     * called e.g. at the end of the suite so sockets are not left open on the server side
+     *
+     * @param iIdleSeconds {int} - how long connection needs to be idle to be closed
+     */
+    public static void closeIdleConnections(int iIdleSeconds){
+        log.trace("closeIdleConnections() " + iIdleSeconds);
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(iIdleSeconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,269 @@
+package utils;
+
+import data.APICalls;
+import data.CommonStrings;
+import objects.ApiError;
+import objects.ApiErrorCase;
+import objects.ApiErrorCase.Operation;
+import objects.Hero;
+import objects.User;
+import org.testng.Assert;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Class that generates negative API cases (invalid User and Hero payloads and wrong credentials)
+ * with ApiError that is expected for each of them, and sends them through RestApiUtils
+ * @description - every base user case (missing email, duplicate username) is combined with variants of the
+ * free text fields (empty, long, unicode, HTML, SQL), which must not change the error. Hero cases are missing
+ * name/type/level, level out of range (hero.schema.json), duplicate hero name and owner that doesn't exist.
+ * Wrong types are sent as JSON body, because they can't be created from User or Hero object. For wrong types and
+ * values that break hero schema backend can answer with 400 or 500, so only status and path are checked. Only errors which are known from the API are in the table,
+ * e.g. message for wrong password is not checked. Cases are independent, so they can be sent in parallel
+ * (e.g. TestNG data provider with parallel = true)
+ */
+public class ApiErrorCaseUtils extends LoggerUtils {
+
+    private static final String sAdminUser = PropertiesUtils.getAdminUserName();
+    private static final String sAdminPassword = PropertiesUtils.getAdminPassword();
+    private static final String sEndUser = PropertiesUtils.getEndUserUsername();
+    private static final String sEndUserPassword = PropertiesUtils.getEndUserPassword();
+
+    private static final List<Integer> SERVER_ERROR = List.of(500);
+    private static final List<Integer> UNAUTHORIZED = List.of(401);
+    private static final List<Integer> FORBIDDEN = List.of(403);
+    private static final List<Integer> WRONG_TYPE = List.of(400, 500);
+    private static final List<Integer> INVALID_VALUE = List.of(400, 500);
+
+    // values of free text fields that backend stores as they are, unicode is escaped, so it doesn't depend on source encoding
+    private static final String[] FREE_TEXT_VALUES = {"", "a".repeat(255), "\u00DCn\u00EFc\u00F6d\u00E9 \u540D\u524D \u2713", "<script>alert(1)</script>", "' OR '1'='1"};
+
+    /**
+     * Class for one free text field of the User that is changed in variants
+     */
+    private static class FreeTextField {
+        private final String sName;
+        private final BiConsumer<User, String> setter;
+
+        private FreeTextField(String sName, BiConsumer<User, String> setter) {
+            this.sName = sName;
+            this.setter = setter;
+        }
+    }
+
+    private static final List<FreeTextField> FREE_TEXT_FIELDS = List.of(
+            new FreeTextField("firstName", User::setFirstName),
+            new FreeTextField("lastName", User::setLastName),
+            new FreeTextField("about", User::setAbout),
+            new FreeTextField("secretQuestion", User::setSecretQuestion),
+            new FreeTextField("secretAnswer", User::setSecretAnswer));
+
+    /**
+     * Method that creates all negative cases
+     *
+     * @param existingUser {User} - user that already exists (e.g. created by RequiresUser), it is used for
+     *                     duplicate username and as owner of heroes
+     * @param existingHero {Hero} - hero of existingUser that already exists (e.g. created by RequiresHero),
+     *                     it is used for duplicate hero name
+     *
+     * @return {List<ApiErrorCase>} - negative cases with expected errors
+     */
+    public static List<ApiErrorCase> createErrorCases(User existingUser, Hero existingHero){
+        List<ApiErrorCase> cases = new ArrayList<>();
+        addMissingEmailCases(cases);
+        addDuplicateUsernameCases(cases, List.of(sAdminUser, sEndUser, existingUser.getUsername()));
+        addWrongTypeCases(cases);
+        addInvalidHeroCases(cases, existingUser, existingHero);
+        addHeroWrongTypeCases(cases, existingUser);
+        addWrongCredentialsCases(cases, existingUser);
+        log.info(String.format("createErrorCases() %d negative API cases", cases.size()));
+        return cases;
+    }
+
+    /**
+     * Method that creates new user (from the prefix) for every variant: one user as it is,
+     * and one for every free text field with every free text value
+     */
+    private static List<ApiErrorCase> createVariants(String sCaseName, String sPrefix, Operation operation,
+                                                     BiConsumer<User, ApiErrorCase> prepare){
+        List<ApiErrorCase> variants = new ArrayList<>();
+        int iVariants = 1 + FREE_TEXT_FIELDS.size() * FREE_TEXT_VALUES.length;
+        List<User> users = User.createNewUniqueUsers(sPrefix, iVariants);
+        int iUser = 0;
+        User user = users.get(iUser++);
+        ApiErrorCase errorCase = new ApiErrorCase(sCaseName, operation, user, sAdminUser, sAdminPassword);
+        prepare.accept(user, errorCase);
+        variants.add(errorCase);
+        for (FreeTextField field : FREE_TEXT_FIELDS){
+            for (int i = 0; i < FREE_TEXT_VALUES.length; i++){
+                user = users.get(iUser++);
+                field.setter.accept(user, FREE_TEXT_VALUES[i]);
+                errorCase = new ApiErrorCase(String.format("%s, %s variant %d", sCaseName, field.sName, i), operation, user, sAdminUser, sAdminPassword);
+                prepare.accept(user, errorCase);
+                variants.add(errorCase);
+            }
+        }
+        return variants;
+    }
+
+    private static void addMissingEmailCases(List<ApiErrorCase> cases){
+        cases.addAll(createVariants("POST user without email", "NoEmail", Operation.POST_USER, (user, errorCase) -> {
+            user.setClearEmail();
+            errorCase.cleanUp(user.getUsername()).expect(SERVER_ERROR, CommonStrings.getApiErrorInternalServerError(),
+                    CommonStrings.getApiIllegalArgumentException(), CommonStrings.getApiMessageEmailNotSpecified(),
+                    APICalls.createPostUserApiCall());
+        }));
+    }
+
+    private static void addDuplicateUsernameCases(List<ApiErrorCase> cases, List<String> existingUsernames){
+        for (String sExistingUsername : existingUsernames){
+            cases.addAll(createVariants("POST user with existing username " + sExistingUsername, "Duplicate", Operation.POST_USER,
+                    (user, errorCase) -> {
+                        user.setUsername(sExistingUsername);
+                        errorCase.expect(SERVER_ERROR, CommonStrings.getApiErrorInternalServerError(),
+                                CommonStrings.getApiIllegalArgumentException(),
+                                CommonStrings.getApiMessageAlreadyExistingUser(sExistingUsername), APICalls.createPostUserApiCall());
+                    }));
+        }
+    }
+
+    private static void addWrongTypeCases(List<ApiErrorCase> cases){
+        String sUsername = User.createNewUniqueUser("WrongType").getUsername();
+        String sUser = "{\"username\":\"" + sUsername + "\",\"password\":\"Password1\",\"email\":\"" + sUsername + "@mail.com\"";
+        String[][] bodies = {
+                {"createdAt is text", sUser + ",\"createdAt\":\"yesterday\"}"},
+                {"heroCount is text", sUser + ",\"heroCount\":\"many\"}"},
+                {"heroes is text", sUser + ",\"heroes\":\"none\"}"},
+                {"heroes has number", sUser + ",\"heroes\":[1]}"},
+                {"email is object", "{\"username\":\"" + sUsername + "\",\"password\":\"Password1\",\"email\":{\"address\":\"a@b.c\"}}"},
+                {"username is array", "{\"username\":[\"" + sUsername + "\"],\"email\":\"" + sUsername + "@mail.com\"}"},
+                {"body is array", "[]"},
+                {"body is not JSON", "not json"},
+                {"body is not finished", sUser}};
+        for (String[] body : bodies){
+            cases.add(new ApiErrorCase("POST user JSON, " + body[0], Operation.POST_USER_JSON, body[1], sAdminUser, sAdminPassword)
+                    .cleanUp(sUsername)
+                    .expect(WRONG_TYPE, null, null, null, APICalls.createPostUserApiCall()));
+        }
+    }
+
+    private static void addInvalidHeroCases(List<ApiErrorCase> cases, User existingUser, Hero existingHero){
+        Map<String, Consumer<Hero>> invalidValues = new LinkedHashMap<>();
+        invalidValues.put("without name", hero -> hero.setHeroName(null));
+        invalidValues.put("without type", hero -> hero.setHeroClass(null));
+        invalidValues.put("without level", hero -> hero.setHeroLevel(null));
+        invalidValues.put("with level below minimum", hero -> hero.setHeroLevel(-1));
+        invalidValues.put("with level above maximum", hero -> hero.setHeroLevel(81));
+        for (Map.Entry<String, Consumer<Hero>> invalidValue : invalidValues.entrySet()){
+            Hero hero = Hero.createNewUniqueHero(existingUser, "Invalid");
+            invalidValue.getValue().accept(hero);
+            cases.add(new ApiErrorCase("POST hero " + invalidValue.getKey(), Operation.POST_HERO, hero, sAdminUser, sAdminPassword)
+                    .expect(INVALID_VALUE, null, null, null, APICalls.createPostHeroApiCall()));
+        }
+
+        Hero duplicateHero = Hero.createNewUniqueHero(existingUser, "Duplicate");
+        duplicateHero.setHeroName(existingHero.getHeroName());
+        cases.add(new ApiErrorCase("POST hero with existing name " + existingHero.getHeroName(), Operation.POST_HERO, duplicateHero,
+                sAdminUser, sAdminPassword)
+                .expect(SERVER_ERROR, CommonStrings.getApiErrorInternalServerError(), CommonStrings.getApiIllegalArgumentException(),
+                        null, APICalls.createPostHeroApiCall()));
+
+        Hero orphanHero = Hero.createNewUniqueHero(existingUser, "NoOwner");
+        orphanHero.setUsername("unknown" + DateTimeUtils.getDateTimeStamp());
+        cases.add(new ApiErrorCase("POST hero with unknown owner", Operation.POST_HERO, orphanHero, sAdminUser, sAdminPassword)
+                .expect(SERVER_ERROR, CommonStrings.getApiErrorInternalServerError(), CommonStrings.getApiIllegalArgumentException(),
+                        null, APICalls.createPostHeroApiCall()));
+    }
+
+    private static void addHeroWrongTypeCases(List<ApiErrorCase> cases, User existingUser){
+        Hero hero = Hero.createNewUniqueHero(existingUser, "WrongType");
+        String sName = "\"name\":\"" + hero.getHeroName() + "\"";
+        String sType = "\"type\":\"" + hero.getHeroClass() + "\"";
+        String sOwner = "\"username\":\"" + existingUser.getUsername() + "\"";
+        String sHero = "{" + sName + "," + sType + ",\"level\":" + hero.getHeroLevel() + "," + sOwner;
+        String[][] bodies = {
+                {"level is text", "{" + sName + "," + sType + ",\"level\":\"high\"," + sOwner + "}"},
+                {"level is array", "{" + sName + "," + sType + ",\"level\":[1]," + sOwner + "}"},
+                {"name is object", "{\"name\":{\"first\":\"" + hero.getHeroName() + "\"}," + sType + ",\"level\":1," + sOwner + "}"},
+                {"type is array", "{" + sName + ",\"type\":[\"" + hero.getHeroClass() + "\"],\"level\":1," + sOwner + "}"},
+                {"createdAt is text", sHero + ",\"createdAt\":\"yesterday\"}"},
+                {"body is array", "[]"},
+                {"body is not JSON", "not json"},
+                {"body is not finished", sHero}};
+        for (String[] body : bodies){
+            // heroes that are created by mistake are deleted with existing user
+            cases.add(new ApiErrorCase("POST hero JSON, " + body[0], Operation.POST_HERO_JSON, body[1], sAdminUser, sAdminPassword)
+                    .expect(WRONG_TYPE, null, null, null, APICalls.createPostHeroApiCall()));
+        }
+    }
+
+    private static void addWrongCredentialsCases(List<ApiErrorCase> cases, User existingUser){
+        String[][] credentials = {
+                {"end user", sEndUser, sEndUserPassword},
+                {"wrong password", sAdminUser, sAdminPassword + "wrong"},
+                {"unknown user", "unknown" + DateTimeUtils.getDateTimeStamp(), sAdminPassword}};
+        for (String[] credential : credentials){
+            boolean bForbidden = credential[1].equals(sEndUser);
+            List<Integer> statuses = bForbidden ? FORBIDDEN : UNAUTHORIZED;
+            String sError = bForbidden ? CommonStrings.getApiErrorForbidden() : "Unauthorized";
+            String sMessage = bForbidden ? CommonStrings.getApiMessageAccessDenied() : null;
+
+            cases.add(new ApiErrorCase("GET user as " + credential[0], Operation.GET_USER, existingUser.getUsername(), credential[1], credential[2])
+                    .expect(statuses, sError, null, sMessage, APICalls.createGetUserApiCall(existingUser.getUsername())));
+            User user = User.createNewUniqueUser("Credentials");
+            cases.add(new ApiErrorCase("POST user as " + credential[0], Operation.POST_USER, user, credential[1], credential[2])
+                    .cleanUp(user.getUsername())
+                    .expect(statuses, sError, null, sMessage, APICalls.createPostUserApiCall()));
+            Hero hero = Hero.createNewUniqueHero(existingUser, "Credentials");
+            cases.add(new ApiErrorCase("POST hero as " + credential[0], Operation.POST_HERO, hero, credential[1], credential[2])
+                    .expect(statuses, sError, null, sMessage, APICalls.createPostHeroApiCall()));
+        }
+    }
+
+    /**
+     * Method that sends negative case through RestApiUtils and returns the error
+     *
+     * @param errorCase {ApiErrorCase} - negative case
+     *
+     * @return {ApiError} - error from the API
+     */
+    public static ApiError send(ApiErrorCase errorCase){
+        switch (errorCase.getOperation()){
+            case POST_USER:
+                return RestApiUtils.postUserError((User) errorCase.getPayload(), errorCase.getAuthUser(), errorCase.getAuthPass());
+            case POST_USER_JSON:
+                return RestApiUtils.postUserJSONError((String) errorCase.getPayload(), errorCase.getAuthUser(), errorCase.getAuthPass());
+            case GET_USER:
+                return RestApiUtils.getUserError((String) errorCase.getPayload(), errorCase.getAuthUser(), errorCase.getAuthPass());
+            case POST_HERO:
+                return RestApiUtils.postHeroError((Hero) errorCase.getPayload(), errorCase.getAuthUser(), errorCase.getAuthPass());
+            case POST_HERO_JSON:
+                return RestApiUtils.postHeroJSONError((String) errorCase.getPayload(), errorCase.getAuthUser(), errorCase.getAuthPass());
+            default:
+                Assert.fail(String.format("Operation %s is not supported!", errorCase.getOperation()));
+        }
+        return null;
+    }
+
+    /**
+     * Method that submits user for deletion if backend created it by mistake (e.g. case failed),
+     * heroes are not checked, because they are deleted with their owner
+     *
+     * @param errorCase {ApiErrorCase} - negative case
+     */
+    public static void cleanUp(ApiErrorCase errorCase){
+        String sUsername = errorCase.getUsernameToCleanUp();
+        try {
+            if (sUsername != null && RestApiUtils.checkIfUserExist(sUsername)){
+                log.warn(String.format("User %s is created by negative case '%s'", sUsername, errorCase));
+                CleanupUtils.deleteUser(sUsername);
+            }
+        } catch (AssertionError | Exception e){
+            log.error(String.format("Cleaning up of '%s' failed! Message: %s", errorCase, e.getMessage()));
+        }
+    }
+}
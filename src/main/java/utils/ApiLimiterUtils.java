@@ -0,0 +1,133 @@
+package utils;
+
+import org.testng.Assert;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class that limits how many API calls are sent to the backend at the same time by all test threads
+ * @description - limit is adaptive (AIMD - additive increase, multiplicative decrease). When call is
+ * finished on time (faster than apiLimiterLatencyThreshold ms) and limit was fully used, limit is increased
+ * by 1/limit (about +1 after limit number of calls). When call is too slow, or backend is overloaded
+ * (429, 502, 503, 504 or exception) limit is decreased by 10%, but only once per threshold time, because
+ * all calls that are in flight at that moment are slow for the same reason. This way number of calls
+ * in flight stays near to what backend can handle, instead of all parallel tests sending calls at once
+ * until backend is so slow that fixtures time out. Time that call waits for the permit is recorded
+ * in LatencyUtils as "LIMITER endpoint QUEUE"
+ */
+public class ApiLimiterUtils extends LoggerUtils {
+
+    private static final boolean bLimiterEnabled = PropertiesUtils.getApiLimiterEnabled();
+    private static final int iMaxLimit = PropertiesUtils.getApiLimiterMaxLimit();
+    private static final long lLatencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(PropertiesUtils.getApiLimiterLatencyThreshold());
+    private static final double MIN_LIMIT = 1;
+    private static final double DECREASE_RATIO = 0.9;
+
+    private static final ReentrantLock lock = new ReentrantLock();
+    private static final Condition permitReleased = lock.newCondition();
+    private static double dLimit = PropertiesUtils.getApiLimiterInitialLimit();
+    private static int iInFlight = 0;
+    private static int iMaxInFlight = 0;
+    private static long lLastDecrease = System.nanoTime();
+
+    private static final LongAdder queuedCalls = new LongAdder();
+    private static final LongAdder increases = new LongAdder();
+    private static final LongAdder decreases = new LongAdder();
+
+    /**
+     * Method that waits until number of calls in flight is below the limit and takes the permit
+     *
+     * @param sEndpointName {String} - method and endpoint e.g. "GET /api/users/findByUsername/"
+     *
+     * @return {long} - System.nanoTime() when permit is taken, it has to be passed to release()
+     */
+    public static long acquire(String sEndpointName){
+        long lStart = System.nanoTime();
+        if (!bLimiterEnabled){
+            return lStart;
+        }
+        lock.lock();
+        try {
+            if (iInFlight >= (int) dLimit){
+                queuedCalls.increment();
+                while (iInFlight >= (int) dLimit){
+                    permitReleased.await();
+                }
+            }
+            iInFlight++;
+            iMaxInFlight = Math.max(iMaxInFlight, iInFlight);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            Assert.fail(String.format("Waiting for API permit for %s was interrupted!", sEndpointName));
+        } finally {
+            lock.unlock();
+        }
+        LatencyUtils.record("LIMITER " + sEndpointName, "QUEUE", lStart);
+        return System.nanoTime();
+    }
+
+    /**
+     * Method that returns the permit and adapts the limit based on how long the call took
+     *
+     * @param lAcquired {long} - value returned by acquire()
+     * @param bOverloaded {boolean} - true if backend answered that it is overloaded or call failed
+     */
+    public static void release(long lAcquired, boolean bOverloaded){
+        if (!bLimiterEnabled){
+            return;
+        }
+        long lNow = System.nanoTime();
+        boolean bSlow = bOverloaded || lNow - lAcquired > lLatencyThresholdNanos;
+        lock.lock();
+        try {
+            boolean bLimitUsed = iInFlight >= (int) dLimit;
+            iInFlight--;
+            if (bSlow){
+                if (lNow - lLastDecrease > lLatencyThresholdNanos){
+                    dLimit = Math.max(MIN_LIMIT, dLimit * DECREASE_RATIO);
+                    lLastDecrease = lNow;
+                    decreases.increment();
+                    log.debug(String.format("API limit decreased to %.1f", dLimit));
+                }
+            } else if (bLimitUsed && dLimit < iMaxLimit){
+                dLimit = Math.min(iMaxLimit, dLimit + 1 / dLimit);
+                increases.increment();
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Method that returns current limit of API calls in flight
+     *
+     * @return {int} - current limit
+     */
+    public static int getLimit(){
+        lock.lock();
+        try {
+            return (int) dLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Method that logs current limit and how many calls had to wait, it is called when suite is finished
+     */
+    public static void logLimiterStatistics(){
+        if (!bLimiterEnabled){
+            return;
+        }
+        lock.lock();
+        try {
+            log.info(String.format("[API LIMITER] limit: %.1f (max %d), max in flight: %d, queued calls: %d, increases: %d, decreases: %d",
+                    dLimit, iMaxLimit, iMaxInFlight, queuedCalls.sum(), increases.sum(), decreases.sum()));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package utils;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Cookies;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Class that coalesces identical GET API calls that are in flight at the same time
+ * @description - when tests are executed in parallel several threads often GET the same thing
+ * at the same moment (e.g. checkIfUserExist() or getUser() of admin or shared user). First call
+ * (leader) is sent to the backend and all identical calls (same path and credentials) that come while
+ * it is in flight wait for it and get their own copy of its response. As soon as response is
+ * received the call is removed, so the next call goes to the backend again and there is no stale data
+ * like with cache (ApiCacheUtils). Response is copied only if at least one call joined the leader, otherwise
+ * the body is not read here. If leader fails, waiting calls are sent on their own.
+ * It is used only if apiSingleFlightEnabled is true
+ */
+public class ApiSingleFlightUtils extends LoggerUtils {
+
+    private static final boolean bSingleFlightEnabled = PropertiesUtils.getApiSingleFlightEnabled();
+
+    private static final ConcurrentHashMap<String, InFlightCall> inFlight = new ConcurrentHashMap<>();
+    private static final LongAdder sentCalls = new LongAdder();
+    private static final LongAdder coalescedCalls = new LongAdder();
+
+    /**
+     * Class that stores everything from the leader's response that is needed
+     * to create a copy of it, body is already read, so it can be shared by threads
+     */
+    private static class ResponseSnapshot {
+        private final int iStatusCode;
+        private final String sStatusLine;
+        private final Headers headers;
+        private final Cookies cookies;
+        private final String sContentType;
+        private final byte[] body;
+
+        private ResponseSnapshot(Response response) {
+            this.body = response.getBody().asByteArray();
+            this.iStatusCode = response.getStatusCode();
+            this.sStatusLine = response.getStatusLine();
+            this.headers = response.getHeaders();
+            this.cookies = response.getDetailedCookies();
+            this.sContentType = response.getContentType();
+        }
+
+        private Response createResponse(){
+            ResponseBuilder builder = new ResponseBuilder()
+                    .setStatusCode(iStatusCode)
+                    .setStatusLine(sStatusLine)
+                    .setHeaders(headers)
+                    .setCookies(cookies)
+                    .setBody(body);
+            if (sContentType != null && !sContentType.isEmpty()){
+                builder.setContentType(sContentType);
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * Class that holds the leader's call while it is in flight and counts how many calls wait for it.
+     * Waiters join only through inFlight.compute() and leader reads the count after it removed the call
+     * from the map, so no call can join after leader decided whether response has to be copied
+     */
+    private static class InFlightCall {
+        private final CompletableFuture<ResponseSnapshot> future = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private InFlightCall join(){
+            waiters.incrementAndGet();
+            return this;
+        }
+    }
+
+    /**
+     * Method that sends GET API call, or waits for the identical call that is already in flight
+     * and returns copy of its response
+     *
+     * @param sPath {String} - path of the API call e.g. /api/users/findByUsername/admin
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     * @param apiCall {Supplier<Response>} - sends the API call
+     *
+     * @return {Response} - response of the API call or its copy
+     */
+    public static Response execute(String sPath, String sAuthUser, String sAuthPass, Supplier<Response> apiCall){
+        if (!bSingleFlightEnabled){
+            return apiCall.get();
+        }
+        String sKey = sAuthUser + ":" + sAuthPass + ":" + sPath;
+        InFlightCall call = new InFlightCall();
+        InFlightCall leader = inFlight.compute(sKey, (key, current) -> current == null ? call : current.join());
+        if (leader != call){
+            try {
+                ResponseSnapshot snapshot = leader.future.join();
+                coalescedCalls.increment();
+                log.trace(String.format("[API SINGLE-FLIGHT] coalesced GET %s (user: %s)", sPath, sAuthUser));
+                return snapshot.createResponse();
+            } catch (CompletionException e){
+                log.debug(String.format("[API SINGLE-FLIGHT] GET %s failed for other thread, it is sent again. Message: %s", sPath, e.getMessage()));
+                return apiCall.get();
+            }
+        }
+        sentCalls.increment();
+        Response response;
+        try {
+            response = apiCall.get();
+        } catch (Throwable e){
+            // RestAssured rethrows checked exceptions without declaring them, so waiting calls are released on any failure
+            inFlight.remove(sKey, call);
+            call.future.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(sKey, call);
+        if (call.waiters.get() > 0){
+            try {
+                // body is read before waiting calls are released (connection goes back to the pool), and it stays
+                // cached in the response, so the caller can read it again
+                call.future.complete(new ResponseSnapshot(response));
+            } catch (Throwable e){
+                call.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Method that logs how many GET calls are sent and how many are coalesced, it is called when suite is finished
+     */
+    public static void logSingleFlightStatistics(){
+        if (bSingleFlightEnabled){
+            log.info(String.format("[API SINGLE-FLIGHT] sent: %d, coalesced: %d", sentCalls.sum(), coalescedCalls.sum()));
+        }
+    }
+
+    /**
+     * Method that returns how many GET calls got copy of the response of identical call instead of being sent
+     *
+     * @return {long} - number of coalesced calls
+     */
+    public static long getCoalescedCalls(){
+        return coalescedCalls.sum();
+    }
+}
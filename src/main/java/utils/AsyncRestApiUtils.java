@@ -0,0 +1,339 @@
+package utils;
+
+import objects.ApiError;
+import objects.Hero;
+import objects.User;
+import org.testng.Assert;
+import utils.RestApiUtils.VerificationLevel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of RestApiUtils, every API call returns CompletableFuture,
+ * so test can e.g. create users and heroes while the browser is starting
+ * @description - every call executes the same RestApiUtils method on the executor, so async calls go
+ * through the same building blocks as synchronous ones: auth mode (ApiAuthUtils), verification level
+ * and schema validation, limiter, single-flight, cache and cassettes (ApiClientUtils). Verification
+ * level and cassette of the test are taken from the thread that starts the call, and actions chained
+ * with thenCompose()/thenApply() are executed with them too. Checks that RestApiUtils does with Assert
+ * are done the same way, so if something is wrong future completes with AssertionError, and await()
+ * throws it on the test thread. If apiAsyncHttpVersion is HTTP_2 async calls are sent over HTTP/2
+ * (Http2ClientUtils), so many concurrent calls share one multiplexed connection
+ */
+public class AsyncRestApiUtils extends LoggerUtils {
+
+    private static final String sAdminUser = PropertiesUtils.getAdminUserName();
+    private static final String sAdminPassword = PropertiesUtils.getAdminPassword();
+
+    private static final boolean bHttp2 = parseHttp2(PropertiesUtils.getApiAsyncHttpVersion());
+
+    private static final ExecutorService executor = createExecutor();
+
+    /**
+     * Method that checks if HTTP version of async calls from the property file is HTTP_2
+     *
+     * @param sHttpVersion {String} - HTTP version e.g. HTTP_1_1, HTTP_2
+     *
+     * @return {boolean} - true if async calls are sent over HTTP/2
+     */
+    private static boolean parseHttp2(String sHttpVersion){
+        String sVersion = sHttpVersion.trim().toUpperCase();
+        if (!sVersion.equals("HTTP_2") && !sVersion.equals("HTTP_1_1")){
+            Assert.fail(String.format("HTTP version %s is not recognised!", sHttpVersion));
+        }
+        return sVersion.equals("HTTP_2");
+    }
+
+    /**
+     * Method that creates executor for async API calls
+     * @description - virtual threads are cheap, so every call can have its own thread.
+     * They exist from Java 21 and the project is compiled for older Java, that is why
+     * virtual thread executor is created via reflection, and if it is not available
+     * (older JVM) cached thread pool with daemon threads is used instead
+     *
+     * @return {ExecutorService} - executor for async API calls
+     */
+    private static ExecutorService createExecutor(){
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e){
+            log.warn("Virtual threads are not supported by this JVM, async API calls will use cached thread pool");
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "async-api");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Method that returns executor used for async API calls, so tests can run
+     * their own tasks (e.g. some other setup) on the same executor
+     *
+     * @return {ExecutorService} - executor for async API calls
+     */
+    public static ExecutorService getExecutor(){
+        return executor;
+    }
+
+    /**
+     * Method that waits for the async API call to finish and returns its result
+     * @description - if API call failed because of Assert, the same AssertionError is thrown,
+     * so test fails the same way as with RestApiUtils, any other exception fails the test
+     *
+     * @param future {CompletableFuture} - async API call
+     *
+     * @return {T} - result of the API call
+     */
+    public static <T> T await(CompletableFuture<T> future){
+        try {
+            return future.join();
+        } catch (CompletionException e){
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof AssertionError){
+                throw (AssertionError) cause;
+            }
+            Assert.fail(String.format("Exception in async API call. Message: %s", cause.getMessage()));
+        }
+        return null;
+    }
+
+    //-------------------------------------------
+    //----------Requests ------------------------
+    //-------------------------------------------
+
+    /**
+     * Method that executes synchronous API call on the executor with verification level and cassette
+     * of the current thread (test)
+     * @description - future is completed while they are still set, so actions that are chained on the
+     * future before it is completed (e.g. thenCompose(u -> postHero(hero))) start their calls with them too
+     *
+     * @param call {Supplier<T>} - RestApiUtils call
+     *
+     * @return {CompletableFuture<T>} - result of the call
+     */
+    private static <T> CompletableFuture<T> supply(Supplier<T> call){
+        VerificationLevel level = RestApiUtils.getVerificationLevel();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(ApiCassetteUtils.bindCurrentCassette(() -> {
+            RestApiUtils.setVerificationLevel(level);
+            if (bHttp2){
+                ApiClientUtils.enableHttp2();
+            }
+            try {
+                future.complete(call.get());
+            } catch (Throwable e){
+                future.completeExceptionally(e);
+            } finally {
+                RestApiUtils.resetVerificationLevel();
+                ApiClientUtils.resetHttp2();
+            }
+        }));
+        return future;
+    }
+
+    //-------------------------------------------
+    //----------User ----------------------------
+    //-------------------------------------------
+
+    /**
+     * Method that checks if user exists
+     *
+     * @param sUsername {String} - username of user that we want to check if user exist
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {CompletableFuture<Boolean>} - if user exist or not
+     */
+    public static CompletableFuture<Boolean> checkIfUserExist(String sUsername, String sAuthUser, String sAuthPass){
+        log.trace("async checkIfUserExist() " + sUsername);
+        return supply(() -> RestApiUtils.checkIfUserExist(sUsername, sAuthUser, sAuthPass));
+    }
+
+    public static CompletableFuture<Boolean> checkIfUserExist(String sUsername){
+        return checkIfUserExist(sUsername, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that returns User object
+     *
+     * @param sUsername {String} - username of user that we want to get
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {CompletableFuture<User>} - User object
+     */
+    public static CompletableFuture<User> getUser(String sUsername, String sAuthUser, String sAuthPass){
+        log.debug("async getUser() " + sUsername);
+        return supply(() -> RestApiUtils.getUser(sUsername, sAuthUser, sAuthPass));
+    }
+
+    public static CompletableFuture<User> getUser(String sUsername){
+        return getUser(sUsername, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that gets User error from GET API call and convert it to an ApiError instance
+     *
+     * @param sUsername {String} - User's username
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     *
+     * @return {CompletableFuture<ApiError>} - GET User API Error as a ApiError instance
+     */
+    public static CompletableFuture<ApiError> getUserError(String sUsername, String sAuthUser, String sAuthPass){
+        log.debug("async getUserError() " + sUsername);
+        return supply(() -> RestApiUtils.getUserError(sUsername, sAuthUser, sAuthPass));
+    }
+
+    public static CompletableFuture<ApiError> getUserError(String sUsername){
+        return getUserError(sUsername, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that POST user, future completes with the same User object when user is created,
+     * so the next call can be chained e.g. postUser(user).thenCompose(u -> postHero(hero))
+     *
+     * @param user {User} - User object
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {CompletableFuture<User>} - posted User object
+     */
+    public static CompletableFuture<User> postUser(User user, String sAuthUser, String sAuthPass){
+        log.debug("async postUser() " + user.getUsername());
+        return supply(() -> {
+            RestApiUtils.postUser(user, sAuthUser, sAuthPass);
+            return user;
+        });
+    }
+
+    public static CompletableFuture<User> postUser(User user){
+        return postUser(user, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that gets POST User error from POST API call and convert it to an ApiError instance
+     *
+     * @param user {User} - User to POST
+     * @param sAuthUser {String} - username to authenticate
+     * @param sAuthPass {String} - password to authenticate
+     *
+     * @return {CompletableFuture<ApiError>} - POST User API Error as a ApiError instance
+     */
+    public static CompletableFuture<ApiError> postUserError(User user, String sAuthUser, String sAuthPass){
+        log.debug("async postUserError() " + user.getUsername());
+        return supply(() -> RestApiUtils.postUserError(user, sAuthUser, sAuthPass));
+    }
+
+    public static CompletableFuture<ApiError> postUserError(User user){
+        return postUserError(user, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that DELETE user
+     *
+     * @param sUsername {String} - username of user that we want to DELETE
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {CompletableFuture<Void>} - completes when user is deleted
+     */
+    public static CompletableFuture<Void> deleteUser(String sUsername, String sAuthUser, String sAuthPass){
+        log.debug("async deleteUser() " + sUsername);
+        return supply(() -> {
+            RestApiUtils.deleteUser(sUsername, sAuthUser, sAuthPass);
+            return null;
+        });
+    }
+
+    public static CompletableFuture<Void> deleteUser(String sUsername){
+        return deleteUser(sUsername, sAdminUser, sAdminPassword);
+    }
+
+    //-------------------------------------------
+    //----------Hero ----------------------------
+    //-------------------------------------------
+
+    /**
+     * Method that checks if hero exists
+     *
+     * @param sHeroName {String} - heroName of hero that we want to check if exist
+     * @param sAuthName {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {CompletableFuture<Boolean>} - if hero exist or not
+     */
+    public static CompletableFuture<Boolean> checkIfHeroExist(String sHeroName, String sAuthName, String sAuthPass){
+        log.trace("async checkIfHeroExist() " + sHeroName);
+        return supply(() -> RestApiUtils.checkIfHeroExist(sHeroName, sAuthName, sAuthPass));
+    }
+
+    public static CompletableFuture<Boolean> checkIfHeroExist(String sHeroName){
+        return checkIfHeroExist(sHeroName, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that returns Hero object, like in RestApiUtils only fields with
+     * Expose annotation are deserialized
+     *
+     * @param sHeroName {String} - heroName of hero that we want to get
+     * @param sAuthName {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {CompletableFuture<Hero>} - Hero object
+     */
+    public static CompletableFuture<Hero> getHero(String sHeroName, String sAuthName, String sAuthPass){
+        log.debug("async getHero() " + sHeroName);
+        return supply(() -> RestApiUtils.getHero(sHeroName, sAuthName, sAuthPass));
+    }
+
+    public static CompletableFuture<Hero> getHero(String sHeroName){
+        return getHero(sHeroName, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that POST Hero, future completes with the same Hero object when hero is created
+     *
+     * @param hero {Hero} - Hero object
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {CompletableFuture<Hero>} - posted Hero object
+     */
+    public static CompletableFuture<Hero> postHero(Hero hero, String sAuthUser, String sAuthPass){
+        log.debug("async postHero() " + hero.getHeroName());
+        return supply(() -> {
+            RestApiUtils.postHero(hero, sAuthUser, sAuthPass);
+            return hero;
+        });
+    }
+
+    public static CompletableFuture<Hero> postHero(Hero hero){
+        return postHero(hero, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that DELETE Hero
+     *
+     * @param sHeroName {String} - heroName of Hero that we want to DELETE
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {CompletableFuture<Void>} - completes when hero is deleted
+     */
+    public static CompletableFuture<Void> deleteHero(String sHeroName, String sAuthUser, String sAuthPass){
+        log.debug("async deleteHero() " + sHeroName);
+        return supply(() -> {
+            RestApiUtils.deleteHero(sHeroName, sAuthUser, sAuthPass);
+            return null;
+        });
+    }
+
+    public static CompletableFuture<Void> deleteHero(String sHeroName){
+        return deleteHero(sHeroName, sAdminUser, sAdminPassword);
+    }
+}
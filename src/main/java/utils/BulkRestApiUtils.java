@@ -0,0 +1,165 @@
+package utils;
+
+import objects.BulkApiResult;
+import objects.BulkApiResult.ItemResult;
+import objects.Hero;
+import objects.User;
+import org.testng.Assert;
+import utils.RestApiUtils.VerificationLevel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Class for creating and deleting many users and heroes at once via API
+ * @description - items are sent through RestApiUtils (same auth, pooled connections and checks),
+ * but at most bulkApiConcurrency of them at the same time, so big fixtures (e.g. hundreds of users
+ * for UsersPage search) are created much faster than one by one, and backend is not overloaded.
+ * Bulk methods don't fail the test if some item fails, they return BulkApiResult with status
+ * and duration for every item, and test can call assertSuccess() on it
+ */
+public class BulkRestApiUtils extends LoggerUtils {
+
+    private static final String sAdminUser = PropertiesUtils.getAdminUserName();
+    private static final String sAdminPassword = PropertiesUtils.getAdminPassword();
+    private static final int iConcurrency = PropertiesUtils.getBulkApiConcurrency();
+
+    /**
+     * Method that runs API operation for every item with bounded concurrency and collects results
+     * @description - permit is taken before the task is submitted, so there are never more than
+     * iConcurrency calls in flight. Verification level and API cassette (ApiCassetteUtils) of the test (thread)
+     * that started bulk operation are also used in tasks, because they are executed on other threads
+     *
+     * @param sOperation {String} - name of the operation for logs and result e.g. "postUsers"
+     * @param items {Collection} - items e.g. users or hero names
+     * @param nameOf {Function} - how to get name of the item for the result
+     * @param operation {Consumer} - API call for one item e.g. RestApiUtils::postUser
+     *
+     * @return {BulkApiResult} - result for every item
+     */
+    private static <T> BulkApiResult runBulk(String sOperation, Collection<T> items, Function<T, String> nameOf, Consumer<T> operation){
+        log.debug(String.format("%s() %d items, concurrency %d", sOperation, items.size(), iConcurrency));
+        VerificationLevel level = RestApiUtils.getVerificationLevel();
+        Semaphore permits = new Semaphore(iConcurrency);
+        List<CompletableFuture<ItemResult>> futures = new ArrayList<>();
+        long lStart = System.nanoTime();
+
+        for (T item : items){
+            try {
+                permits.acquire();
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                Assert.fail(String.format("%s() was interrupted! Message: %s", sOperation, e.getMessage()));
+            }
+            CompletableFuture<ItemResult> future = new CompletableFuture<>();
+            futures.add(future);
+            AsyncRestApiUtils.getExecutor().execute(ApiCassetteUtils.bindCurrentCassette(() -> {
+                RestApiUtils.setVerificationLevel(level);
+                long lItemStart = System.nanoTime();
+                try {
+                    operation.accept(item);
+                    future.complete(new ItemResult(nameOf.apply(item), true, null, elapsedMillis(lItemStart)));
+                } catch (AssertionError | Exception e){
+                    future.complete(new ItemResult(nameOf.apply(item), false, e.getMessage(), elapsedMillis(lItemStart)));
+                } catch (Throwable e){
+                    future.completeExceptionally(e);
+                } finally {
+                    RestApiUtils.resetVerificationLevel();
+                    permits.release();
+                }
+            }));
+        }
+
+        List<ItemResult> results = new ArrayList<>();
+        for (CompletableFuture<ItemResult> future : futures){
+            results.add(future.join());
+        }
+        BulkApiResult result = new BulkApiResult(sOperation, results, elapsedMillis(lStart));
+        log.debug(result);
+        return result;
+    }
+
+    private static long elapsedMillis(long lStartNanos){
+        return (System.nanoTime() - lStartNanos) / 1_000_000;
+    }
+
+    //-------------------------------------------
+    //----------Users ---------------------------
+    //-------------------------------------------
+
+    /**
+     * Method that POST all users
+     *
+     * @param users {Collection<User>} - users to create e.g. User.createNewUniqueUsers("Search", 200)
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {BulkApiResult} - result for every user
+     */
+    public static BulkApiResult postUsers(Collection<User> users, String sAuthUser, String sAuthPass){
+        return runBulk("postUsers", users, User::getUsername, user -> RestApiUtils.postUser(user, sAuthUser, sAuthPass));
+    }
+
+    public static BulkApiResult postUsers(Collection<User> users){
+        return postUsers(users, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that DELETE all users with usernames passed
+     *
+     * @param usernames {Collection<String>} - usernames of users to delete
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {BulkApiResult} - result for every user
+     */
+    public static BulkApiResult deleteUsers(Collection<String> usernames, String sAuthUser, String sAuthPass){
+        return runBulk("deleteUsers", usernames, username -> username, username -> RestApiUtils.deleteUser(username, sAuthUser, sAuthPass));
+    }
+
+    public static BulkApiResult deleteUsers(Collection<String> usernames){
+        return deleteUsers(usernames, sAdminUser, sAdminPassword);
+    }
+
+    //-------------------------------------------
+    //----------Heroes --------------------------
+    //-------------------------------------------
+
+    /**
+     * Method that POST all heroes, users that heroes belong to have to be created before
+     *
+     * @param heroes {Collection<Hero>} - heroes to create e.g. Hero.createNewUniqueHeroes(user, "Hero", 10)
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {BulkApiResult} - result for every hero
+     */
+    public static BulkApiResult postHeroes(Collection<Hero> heroes, String sAuthUser, String sAuthPass){
+        return runBulk("postHeroes", heroes, Hero::getHeroName, hero -> RestApiUtils.postHero(hero, sAuthUser, sAuthPass));
+    }
+
+    public static BulkApiResult postHeroes(Collection<Hero> heroes){
+        return postHeroes(heroes, sAdminUser, sAdminPassword);
+    }
+
+    /**
+     * Method that DELETE all heroes with hero names passed
+     *
+     * @param heroNames {Collection<String>} - names of heroes to delete
+     * @param sAuthUser {String} - username
+     * @param sAuthPass {String} - password
+     *
+     * @return {BulkApiResult} - result for every hero
+     */
+    public static BulkApiResult deleteHeroes(Collection<String> heroNames, String sAuthUser, String sAuthPass){
+        return runBulk("deleteHeroes", heroNames, heroName -> heroName, heroName -> RestApiUtils.deleteHero(heroName, sAuthUser, sAuthPass));
+    }
+
+    public static BulkApiResult deleteHeroes(Collection<String> heroNames){
+        return deleteHeroes(heroNames, sAdminUser, sAdminPassword);
+    }
+}
@@ -0,0 +1,238 @@
+package utils;
+
+import objects.BulkApiResult;
+import objects.BulkApiResult.ItemResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Class that deletes users and heroes created by tests in the background
+ * @description - test only submits deletion ticket in cleanUp() and goes to the next test,
+ * tickets are deleted in batches (BulkRestApiUtils) on background thread. Heroes from the batch
+ * are deleted before users. If deletion fails ticket is tried again after cleanupRetryDelay seconds,
+ * at most cleanupMaxAttempts times. Suite listener (CleanupSuiteListener) calls drain() when suite is
+ * finished, so every ticket is either deleted or reported before the suite ends.
+ * When API calls are replayed from cassettes tickets are not submitted, because there is nothing to delete
+ */
+public class CleanupUtils extends LoggerUtils {
+
+    private static final int iBatchSize = PropertiesUtils.getCleanupBatchSize();
+    private static final int iMaxAttempts = PropertiesUtils.getCleanupMaxAttempts();
+    private static final long lRetryDelay = PropertiesUtils.getCleanupRetryDelay();
+    private static final long lDrainTimeout = PropertiesUtils.getCleanupDrainTimeout();
+    // how often background thread checks for new tickets
+    private static final long lBatchIntervalMillis = 200;
+
+    private static final BlockingQueue<CleanupTicket> tickets = new LinkedBlockingQueue<>();
+    private static final List<CleanupTicket> failedTickets = Collections.synchronizedList(new ArrayList<>());
+    // tickets that are submitted and not yet deleted or failed (including the ones waiting for retry)
+    private static final Object lock = new Object();
+    private static int iOutstanding = 0;
+    private static int iDeleted = 0;
+
+    private static final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cleanup-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        reaper.scheduleWithFixedDelay(CleanupUtils::deleteBatch, lBatchIntervalMillis, lBatchIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private enum TicketType {
+        HERO, USER
+    }
+
+    /**
+     * Class that stores what has to be deleted and how many times it was tried
+     */
+    private static class CleanupTicket {
+        private final TicketType type;
+        private final String sName;
+        private int iAttempts = 0;
+        private String sError;
+
+        private CleanupTicket(TicketType type, String sName) {
+            this.type = type;
+            this.sName = sName;
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + sName + " (attempts: " + iAttempts + ", error: " + sError + ")";
+        }
+    }
+
+    private static void submit(CleanupTicket ticket){
+        // replayed users and heroes are never created on the backend (ApiCassetteUtils)
+        if (ApiCassetteUtils.isReplaying()){
+            return;
+        }
+        synchronized (lock){
+            iOutstanding++;
+        }
+        tickets.add(ticket);
+    }
+
+    /**
+     * Method that submits user for deletion, user is deleted in the background
+     *
+     * @param sUsername {String} - username of user that we want to DELETE
+     */
+    public static void deleteUser(String sUsername){
+        log.debug("Cleanup ticket: user " + sUsername);
+        submit(new CleanupTicket(TicketType.USER, sUsername));
+    }
+
+    /**
+     * Method that submits hero for deletion, hero is deleted in the background
+     *
+     * @param sHeroName {String} - heroName of Hero that we want to DELETE
+     */
+    public static void deleteHero(String sHeroName){
+        log.debug("Cleanup ticket: hero " + sHeroName);
+        submit(new CleanupTicket(TicketType.HERO, sHeroName));
+    }
+
+    /**
+     * Method that takes up to cleanupBatchSize tickets and deletes them, heroes first and then users
+     */
+    private static void deleteBatch(){
+        List<CleanupTicket> batch = new ArrayList<>();
+        tickets.drainTo(batch, iBatchSize);
+        if (batch.isEmpty()){
+            return;
+        }
+        List<CleanupTicket> heroes = new ArrayList<>();
+        List<CleanupTicket> users = new ArrayList<>();
+        for (CleanupTicket ticket : batch){
+            (ticket.type == TicketType.HERO ? heroes : users).add(ticket);
+        }
+        try {
+            deleteTickets(heroes, BulkRestApiUtils::deleteHeroes);
+            deleteTickets(users, BulkRestApiUtils::deleteUsers);
+        } catch (Throwable e){
+            // reaper thread must not die, otherwise no ticket would be deleted anymore
+            log.error("Cleanup batch failed! Message: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Method that deletes tickets of one type with bulk API call, if the whole call fails
+     * (e.g. exception in BulkRestApiUtils) every ticket is retried or failed the same way as when its item fails
+     */
+    private static void deleteTickets(List<CleanupTicket> batch, Function<List<String>, BulkApiResult> bulkDelete){
+        if (batch.isEmpty()){
+            return;
+        }
+        BulkApiResult result;
+        try {
+            result = bulkDelete.apply(getNames(batch));
+        } catch (Throwable e){
+            log.error(String.format("Cleanup batch of %d tickets failed! Message: %s", batch.size(), e.getMessage()));
+            for (CleanupTicket ticket : batch){
+                ticket.iAttempts++;
+                retryOrFail(ticket, e.toString());
+            }
+            return;
+        }
+        processResult(batch, result);
+    }
+
+    private static List<String> getNames(List<CleanupTicket> tickets){
+        List<String> names = new ArrayList<>();
+        for (CleanupTicket ticket : tickets){
+            names.add(ticket.sName);
+        }
+        return names;
+    }
+
+    /**
+     * Method that marks tickets as deleted or schedules them again if deletion failed,
+     * results are in the same order as tickets
+     */
+    private static void processResult(List<CleanupTicket> batch, BulkApiResult result){
+        List<ItemResult> results = result.getResults();
+        for (int i = 0; i < batch.size(); i++){
+            CleanupTicket ticket = batch.get(i);
+            ItemResult itemResult = results.get(i);
+            ticket.iAttempts++;
+            if (itemResult.isSuccess()){
+                finish(true);
+            } else {
+                retryOrFail(ticket, itemResult.getError());
+            }
+        }
+    }
+
+    /**
+     * Method that schedules ticket again after cleanupRetryDelay seconds, or marks it as failed
+     * if it has no attempts left
+     */
+    private static void retryOrFail(CleanupTicket ticket, String sError){
+        ticket.sError = sError;
+        if (ticket.iAttempts < iMaxAttempts){
+            log.debug(String.format("Cleanup of %s %s failed, retrying in %d s", ticket.type, ticket.sName, lRetryDelay));
+            reaper.schedule(() -> tickets.add(ticket), lRetryDelay, TimeUnit.SECONDS);
+        } else {
+            failedTickets.add(ticket);
+            finish(false);
+        }
+    }
+
+    private static void finish(boolean bDeleted){
+        synchronized (lock){
+            iOutstanding--;
+            if (bDeleted){
+                iDeleted++;
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Method that waits until all submitted tickets are deleted (or failed after all attempts)
+     * and reports tickets that failed, it is called when suite is finished
+     *
+     * @return {boolean} - true if everything is deleted
+     */
+    public static boolean drain(){
+        long lDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(lDrainTimeout);
+        int iNotDrained;
+        int iTotalDeleted;
+        synchronized (lock){
+            while (iOutstanding > 0 && lDeadline - System.nanoTime() > 0){
+                try {
+                    lock.wait(TimeUnit.NANOSECONDS.toMillis(lDeadline - System.nanoTime()) + 1);
+                } catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            iNotDrained = iOutstanding;
+            iTotalDeleted = iDeleted;
+            iDeleted = 0;
+        }
+        List<CleanupTicket> failed;
+        synchronized (failedTickets){
+            failed = new ArrayList<>(failedTickets);
+            failedTickets.clear();
+        }
+        for (CleanupTicket ticket : failed){
+            log.error("[CLEANUP] NOT deleted: " + ticket);
+        }
+        if (iNotDrained > 0){
+            log.error(String.format("[CLEANUP] %d tickets are still not deleted after %d s", iNotDrained, lDrainTimeout));
+        }
+        log.info(String.format("[CLEANUP] Deleted: %d, failed: %d, not drained: %d", iTotalDeleted, failed.size(), iNotDrained));
+        return failed.isEmpty() && iNotDrained == 0;
+    }
+}
@@ -0,0 +1,388 @@
+package utils;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Class for pool of database connections that is shared by all queries in DatabaseUtils
+ * @description - opening of MySQL connection (TCP, TLS and authentication) takes much longer than
+ * simple query, so connections are not closed after the query, but returned to the pool and
+ * reused by the next query. Connection that is handed out is a proxy and close() returns it to the pool,
+ * so QueryRunner(DataSource) can be used as usual. Pool:
+ * - has at most dbPoolMaxSize connections, if all are in use query waits dbConnectionTimeout seconds for one
+ * - validates connection that was idle for more than 500 ms (Connection.isValid() with dbValidationTimeout)
+ * - closes connection that is older than dbMaxLifetime seconds (before server or firewall closes it)
+ * - logs warning with stack trace of the code that borrowed connection if it is not returned
+ *   in dbLeakDetectionThreshold seconds (0 = no leak detection)
+ * Connections are opened with server-side prepared statements that are cached per connection
+ * (dbPrepStmtCacheSize), so the same query is parsed by MySQL only once per connection.
+ * All settings can be different for every environment e.g. testDbPoolMaxSize overrides dbPoolMaxSize.
+ * When suite is finished idle connections are closed (evictAll()), but pool stays open with leak detection,
+ * because DatabaseUtils uses the same pool for all suites in the JVM. close() is final, pool can't be used after it
+ */
+public class DatabaseConnectionPool extends LoggerUtils implements DataSource {
+
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    // pools that are created and not closed, so their idle connections can be closed when suite is finished
+    private static final Set<DatabaseConnectionPool> openPools = ConcurrentHashMap.newKeySet();
+
+    private final String sUrl;
+    private final Properties connectionProperties = new Properties();
+    private final int iMaxPoolSize;
+    private final long lConnectionTimeoutMillis;
+    private final int iValidationTimeout;
+    private final long lMaxLifetimeMillis;
+    private final long lLeakDetectionThresholdMillis;
+
+    private final Semaphore permits;
+    // idle connections, the last returned is used first, so rarely used connections can expire
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService leakDetector;
+    private volatile boolean bClosed;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    /**
+     * Class for physical connection in the pool
+     */
+    private static class PooledConnection {
+        private final Connection connection;
+        private final long lCreated = System.currentTimeMillis();
+        private volatile long lLastUsed = lCreated;
+        private volatile long lBorrowed;
+        private volatile Exception borrowedAt;
+        private volatile boolean bLeakReported;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * Constructor for the pool with settings from the property file, connections are opened when they are needed
+     *
+     * @param sUrl {String} - JDBC URL e.g. jdbc:mysql://localhost:3306/samsara
+     * @param sUsername {String} - database username
+     * @param sPassword {String} - database password
+     */
+    public DatabaseConnectionPool(String sUrl, String sUsername, String sPassword) {
+        this(sUrl, sUsername, sPassword, PropertiesUtils.getDbPoolMaxSize(),
+                TimeUnit.SECONDS.toMillis(PropertiesUtils.getDbConnectionTimeout()), PropertiesUtils.getDbValidationTimeout(),
+                TimeUnit.SECONDS.toMillis(PropertiesUtils.getDbMaxLifetime()),
+                TimeUnit.SECONDS.toMillis(PropertiesUtils.getDbLeakDetectionThreshold()));
+    }
+
+    /**
+     * Constructor for the pool with given settings, connections are opened when they are needed
+     *
+     * @param sUrl {String} - JDBC URL e.g. jdbc:mysql://localhost:3306/samsara
+     * @param sUsername {String} - database username
+     * @param sPassword {String} - database password
+     * @param iMaxPoolSize {int} - maximum number of connections
+     * @param lConnectionTimeoutMillis {long} - how long query waits for connection if all are in use
+     * @param iValidationTimeout {int} - timeout of Connection.isValid() in seconds
+     * @param lMaxLifetimeMillis {long} - connection older than this is closed (0 = no limit)
+     * @param lLeakDetectionThresholdMillis {long} - connection borrowed for longer is reported as leak (0 = no leak detection)
+     */
+    public DatabaseConnectionPool(String sUrl, String sUsername, String sPassword, int iMaxPoolSize, long lConnectionTimeoutMillis,
+                                  int iValidationTimeout, long lMaxLifetimeMillis, long lLeakDetectionThresholdMillis) {
+        this.sUrl = sUrl;
+        this.iMaxPoolSize = iMaxPoolSize;
+        this.lConnectionTimeoutMillis = lConnectionTimeoutMillis;
+        this.iValidationTimeout = iValidationTimeout;
+        this.lMaxLifetimeMillis = lMaxLifetimeMillis;
+        this.lLeakDetectionThresholdMillis = lLeakDetectionThresholdMillis;
+        this.permits = new Semaphore(iMaxPoolSize, true);
+        connectionProperties.setProperty("user", sUsername);
+        connectionProperties.setProperty("password", sPassword);
+        // MySQL Connector/J: server-side prepared statements cached per connection
+        connectionProperties.setProperty("useServerPrepStmts", "true");
+        connectionProperties.setProperty("cachePrepStmts", "true");
+        connectionProperties.setProperty("prepStmtCacheSize", String.valueOf(PropertiesUtils.getDbPrepStmtCacheSize()));
+        connectionProperties.setProperty("prepStmtCacheSqlLimit", "2048");
+        // statements with fetch size (streams in DatabaseUtils) read rows with server-side cursor
+        connectionProperties.setProperty("useCursorFetch", "true");
+        if (lLeakDetectionThresholdMillis > 0){
+            leakDetector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "db-pool-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            leakDetector.scheduleAtFixedRate(this::detectLeaks, lLeakDetectionThresholdMillis,
+                    lLeakDetectionThresholdMillis / 2 + 1, TimeUnit.MILLISECONDS);
+        }
+        log.debug(String.format("[DB POOL] %s max size: %d, connection timeout: %d ms, max lifetime: %d ms, leak detection: %d ms",
+                sUrl, iMaxPoolSize, lConnectionTimeoutMillis, lMaxLifetimeMillis, lLeakDetectionThresholdMillis));
+        openPools.add(this);
+    }
+
+    /**
+     * Method that returns idle connection from the pool or opens new one if there is no idle connection
+     *
+     * @return {Connection} - connection that is returned to the pool when it is closed
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (bClosed){
+            throw new SQLException("Pool is closed!");
+        }
+        try {
+            if (!permits.tryAcquire(lConnectionTimeoutMillis, TimeUnit.MILLISECONDS)){
+                throw new SQLTransientConnectionException(String.format("No database connection is available in %d ms (%d in use)!",
+                        lConnectionTimeoutMillis, borrowed.size()));
+            }
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Waiting for database connection is interrupted!", e);
+        }
+        try {
+            PooledConnection pooledConnection = takeIdle();
+            if (pooledConnection == null){
+                pooledConnection = new PooledConnection(DriverManager.getConnection(sUrl, connectionProperties));
+                created.increment();
+            }
+            borrows.increment();
+            pooledConnection.lBorrowed = System.currentTimeMillis();
+            pooledConnection.borrowedAt = lLeakDetectionThresholdMillis > 0 ? new Exception("Connection is borrowed here") : null;
+            pooledConnection.bLeakReported = false;
+            borrowed.add(pooledConnection);
+            return createProxy(pooledConnection);
+        } catch (SQLException | RuntimeException e){
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Method that returns valid idle connection that is not expired, invalid and expired connections are closed
+     */
+    private PooledConnection takeIdle(){
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idle.pollFirst()) != null){
+            long lNow = System.currentTimeMillis();
+            if (isExpired(pooledConnection, lNow)){
+                expired.increment();
+                closeQuietly(pooledConnection);
+                continue;
+            }
+            if (lNow - pooledConnection.lLastUsed > VALIDATION_BYPASS_MILLIS && !isValid(pooledConnection)){
+                validationFailures.increment();
+                closeQuietly(pooledConnection);
+                continue;
+            }
+            return pooledConnection;
+        }
+        return null;
+    }
+
+    private boolean isExpired(PooledConnection pooledConnection, long lNow){
+        return lMaxLifetimeMillis > 0 && lNow - pooledConnection.lCreated > lMaxLifetimeMillis;
+    }
+
+    private boolean isValid(PooledConnection pooledConnection){
+        try {
+            return pooledConnection.connection.isValid(iValidationTimeout);
+        } catch (SQLException e){
+            return false;
+        }
+    }
+
+    /**
+     * Method that returns connection to the pool, connection that is broken or expired is closed
+     */
+    private void release(PooledConnection pooledConnection){
+        borrowed.remove(pooledConnection);
+        try {
+            Connection connection = pooledConnection.connection;
+            if (bClosed || connection.isClosed() || isExpired(pooledConnection, System.currentTimeMillis())){
+                closeQuietly(pooledConnection);
+                return;
+            }
+            // the next query must not see the transaction of the previous one
+            if (!connection.getAutoCommit()){
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            pooledConnection.lLastUsed = System.currentTimeMillis();
+            idle.offerFirst(pooledConnection);
+        } catch (SQLException e){
+            log.debug("[DB POOL] Connection can't be returned to the pool, it is closed. Message: " + e.getMessage());
+            closeQuietly(pooledConnection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Method that creates connection proxy which returns the connection to the pool when it is closed
+     * and can't be used after that
+     */
+    private Connection createProxy(PooledConnection pooledConnection){
+        AtomicBoolean closed = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch (method.getName()){
+                case "close":
+                    if (closed.compareAndSet(false, true)){
+                        release(pooledConnection);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || pooledConnection.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled " + pooledConnection.connection;
+                default:
+                    if (closed.get()){
+                        throw new SQLException("Connection is already returned to the pool!");
+                    }
+                    try {
+                        return method.invoke(pooledConnection.connection, args);
+                    } catch (InvocationTargetException e){
+                        throw e.getCause();
+                    }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    /**
+     * Method that logs connections which are borrowed for longer than leak detection threshold
+     */
+    private void detectLeaks(){
+        long lNow = System.currentTimeMillis();
+        for (PooledConnection pooledConnection : borrowed){
+            if (!pooledConnection.bLeakReported && lNow - pooledConnection.lBorrowed > lLeakDetectionThresholdMillis){
+                pooledConnection.bLeakReported = true;
+                leaks.increment();
+                log.warn(String.format("[DB POOL] Connection is not returned to the pool for %d ms, possible leak!",
+                        lNow - pooledConnection.lBorrowed), pooledConnection.borrowedAt);
+            }
+        }
+    }
+
+    private static void closeQuietly(PooledConnection pooledConnection){
+        try {
+            pooledConnection.connection.close();
+        } catch (SQLException e){
+            // connection is already broken
+        }
+    }
+
+    /**
+     * Method that closes all idle connections, pool can still be used and it opens new connections when they are needed
+     */
+    public void evictIdle(){
+        PooledConnection pooledConnection;
+        while ((pooledConnection = idle.pollFirst()) != null){
+            closeQuietly(pooledConnection);
+        }
+    }
+
+    /**
+     * Method that closes the pool: idle connections are closed and leak detection is stopped, borrowed connections
+     * are closed when they are returned. Pool can't be used after that
+     */
+    public void close(){
+        bClosed = true;
+        openPools.remove(this);
+        if (leakDetector != null){
+            leakDetector.shutdownNow();
+        }
+        evictIdle();
+        log.info("[DB POOL] closed, " + getStatistics());
+    }
+
+    /**
+     * Method that closes idle connections of all open pools and logs their statistics, it is called when suite is finished.
+     * Pools stay open with leak detection, so next suite in the same JVM (e.g. FaultProxyHarnessUtils) uses them as well.
+     * If no query was executed there is no pool, so nothing is done and database is not touched
+     */
+    public static void evictAll(){
+        for (DatabaseConnectionPool pool : openPools){
+            pool.evictIdle();
+            log.info("[DB POOL] idle connections closed, " + pool.getStatistics());
+        }
+    }
+
+    /**
+     * Method that returns statistics of the pool since it is created
+     *
+     * @return {String} - e.g. "created: 2, borrowed: 120, idle: 2, in use: 0, validation failures: 0, expired: 0, leaks: 0"
+     */
+    public String getStatistics(){
+        return String.format("created: %d, borrowed: %d, idle: %d, in use: %d, validation failures: %d, expired: %d, leaks: %d",
+                created.sum(), borrows.sum(), idle.size(), borrowed.size(), validationFailures.sum(), expired.sum(), leaks.sum());
+    }
+
+    // Pool always uses credentials from the constructor, DataSource methods for other credentials
+    // and logging are not supported
+
+    @Override
+    public Connection getConnection(String sUsername, String sPassword) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pool uses only credentials from the property file!");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)){
+            return iface.cast(this);
+        }
+        throw new SQLException("Pool is not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
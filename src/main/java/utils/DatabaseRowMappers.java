@@ -0,0 +1,214 @@
+package utils;
+
+import objects.DatabaseHero;
+import objects.DatabaseUser;
+import org.apache.commons.dbutils.BeanProcessor;
+import org.apache.commons.dbutils.ResultSetHandler;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class that stores row mappers which map rows of the result set into database objects (DatabaseUser, DatabaseHero)
+ * @description - BeanHandler and BeanListHandler find setters with reflection (BeanProcessor) and call them
+ * with reflection for every column of every row. Mappers that are registered here are written by hand:
+ * indexes of the columns are found only once for the result set (column label is compared with property name
+ * ignoring case, same as BeanProcessor), and then every row is read by column index and set with plain setter call.
+ * Mappers for DatabaseUser and DatabaseHero are registered when this class is loaded, other types can be registered
+ * with register(). Type without mapper, or every type if dbRowMapperEnabled is false, is mapped with BeanProcessor
+ */
+public class DatabaseRowMappers extends LoggerUtils {
+
+    private static final boolean bRowMapperEnabled = PropertiesUtils.getDbRowMapperEnabled();
+    private static final BeanProcessor beanProcessor = new BeanProcessor();
+    private static final Map<Class<?>, RowMapperFactory<?>> factories = new ConcurrentHashMap<>();
+
+    static {
+        register(DatabaseUser.class, DatabaseRowMappers::createDatabaseUserMapper);
+        register(DatabaseHero.class, DatabaseRowMappers::createDatabaseHeroMapper);
+    }
+
+    /**
+     * Mapper of one row into object, result set is already on the row
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Factory that creates row mapper for columns of the result set
+     */
+    @FunctionalInterface
+    public interface RowMapperFactory<T> {
+        RowMapper<T> create(ResultSetMetaData metaData) throws SQLException;
+    }
+
+    /**
+     * Method that registers row mapper factory for the type, it replaces already registered factory
+     *
+     * @param type {Class<T>} - type of the object e.g. DatabaseUser.class
+     * @param factory {RowMapperFactory<T>} - creates mapper for columns of the result set
+     */
+    public static <T> void register(Class<T> type, RowMapperFactory<T> factory){
+        factories.put(type, factory);
+    }
+
+    /**
+     * Method that creates row mapper for the type and columns of the result set
+     *
+     * @param type {Class<T>} - type of the object e.g. DatabaseUser.class
+     * @param metaData {ResultSetMetaData} - columns of the result set
+     *
+     * @return {RowMapper<T>} - registered mapper or BeanProcessor if there is no registered mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> createMapper(Class<T> type, ResultSetMetaData metaData) throws SQLException {
+        RowMapperFactory<T> factory = (RowMapperFactory<T>) factories.get(type);
+        if (!bRowMapperEnabled || factory == null){
+            return resultSet -> beanProcessor.toBean(resultSet, type);
+        }
+        return factory.create(metaData);
+    }
+
+    /**
+     * Method that returns handler which maps the first row into object, like BeanHandler
+     *
+     * @param type {Class<T>} - type of the object e.g. DatabaseUser.class
+     *
+     * @return {ResultSetHandler<T>} - handler that returns the object or null if there are no rows
+     */
+    public static <T> ResultSetHandler<T> getHandler(Class<T> type){
+        return resultSet -> resultSet.next() ? createMapper(type, resultSet.getMetaData()).map(resultSet) : null;
+    }
+
+    /**
+     * Method that returns handler which maps all rows into list of objects, like BeanListHandler
+     *
+     * @param type {Class<T>} - type of the objects e.g. DatabaseHero.class
+     *
+     * @return {ResultSetHandler<List<T>>} - handler that returns list of objects
+     */
+    public static <T> ResultSetHandler<List<T>> getListHandler(Class<T> type){
+        return resultSet -> {
+            List<T> result = new ArrayList<>();
+            if (!resultSet.next()){
+                return result;
+            }
+            RowMapper<T> mapper = createMapper(type, resultSet.getMetaData());
+            do {
+                result.add(mapper.map(resultSet));
+            } while (resultSet.next());
+            return result;
+        };
+    }
+
+    //-------------------------------------------
+    //----------Registered mappers --------------
+    //-------------------------------------------
+
+    private static RowMapper<DatabaseUser> createDatabaseUserMapper(ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> columns = getColumnIndexes(metaData);
+        int iUserID = getColumnIndex(columns, "userID");
+        int iUsername = getColumnIndex(columns, "username");
+        int iPassword = getColumnIndex(columns, "password");
+        int iEmail = getColumnIndex(columns, "email");
+        int iFirstName = getColumnIndex(columns, "firstName");
+        int iLastName = getColumnIndex(columns, "lastName");
+        int iEnabled = getColumnIndex(columns, "enabled");
+        int iSecretQuestion = getColumnIndex(columns, "secretQuestion");
+        int iSecretAnswer = getColumnIndex(columns, "secretAnswer");
+        int iAbout = getColumnIndex(columns, "about");
+        int iCreated = getColumnIndex(columns, "created");
+        return resultSet -> {
+            DatabaseUser databaseUser = new DatabaseUser();
+            databaseUser.setUserID(getString(resultSet, iUserID));
+            databaseUser.setUsername(getString(resultSet, iUsername));
+            databaseUser.setPassword(getString(resultSet, iPassword));
+            databaseUser.setEmail(getString(resultSet, iEmail));
+            databaseUser.setFirstName(getString(resultSet, iFirstName));
+            databaseUser.setLastName(getString(resultSet, iLastName));
+            databaseUser.setEnabled(getBoolean(resultSet, iEnabled));
+            databaseUser.setSecretQuestion(getString(resultSet, iSecretQuestion));
+            databaseUser.setSecretAnswer(getString(resultSet, iSecretAnswer));
+            databaseUser.setAbout(getString(resultSet, iAbout));
+            databaseUser.setCreated(getTimestamp(resultSet, iCreated));
+            return databaseUser;
+        };
+    }
+
+    private static RowMapper<DatabaseHero> createDatabaseHeroMapper(ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> columns = getColumnIndexes(metaData);
+        int iHeroID = getColumnIndex(columns, "hero_id");
+        int iName = getColumnIndex(columns, "name");
+        int iType = getColumnIndex(columns, "type");
+        int iLevel = getColumnIndex(columns, "level");
+        int iCreated = getColumnIndex(columns, "created");
+        int iUserID = getColumnIndex(columns, "fk_user_id");
+        return resultSet -> {
+            DatabaseHero databaseHero = new DatabaseHero();
+            databaseHero.setHero_id(getString(resultSet, iHeroID));
+            databaseHero.setName(getString(resultSet, iName));
+            databaseHero.setType(getString(resultSet, iType));
+            databaseHero.setLevel(getInteger(resultSet, iLevel));
+            databaseHero.setCreated(getTimestamp(resultSet, iCreated));
+            databaseHero.setFk_user_id(getString(resultSet, iUserID));
+            return databaseHero;
+        };
+    }
+
+    //-------------------------------------------
+    //----------Columns -------------------------
+    //-------------------------------------------
+
+    /**
+     * Method that returns indexes of the columns by lower case column label, if the same label
+     * is more than once (e.g. created of user and hero) the first column is used
+     */
+    private static Map<String, Integer> getColumnIndexes(ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++){
+            String sLabel = metaData.getColumnLabel(i);
+            if (sLabel == null || sLabel.isEmpty()){
+                sLabel = metaData.getColumnName(i);
+            }
+            columns.putIfAbsent(sLabel.toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    // 0 means that there is no column for the property and the property stays null
+    private static int getColumnIndex(Map<String, Integer> columns, String sProperty){
+        return columns.getOrDefault(sProperty.toLowerCase(Locale.ROOT), 0);
+    }
+
+    private static String getString(ResultSet resultSet, int iColumn) throws SQLException {
+        return iColumn == 0 ? null : resultSet.getString(iColumn);
+    }
+
+    private static Integer getInteger(ResultSet resultSet, int iColumn) throws SQLException {
+        if (iColumn == 0){
+            return null;
+        }
+        int iValue = resultSet.getInt(iColumn);
+        return resultSet.wasNull() ? null : iValue;
+    }
+
+    private static Boolean getBoolean(ResultSet resultSet, int iColumn) throws SQLException {
+        if (iColumn == 0){
+            return null;
+        }
+        boolean bValue = resultSet.getBoolean(iColumn);
+        return resultSet.wasNull() ? null : bValue;
+    }
+
+    private static java.util.Date getTimestamp(ResultSet resultSet, int iColumn) throws SQLException {
+        return iColumn == 0 ? null : resultSet.getTimestamp(iColumn);
+    }
+}
@@ -7,17 +7,29 @@ import objects.User;
 import org.apache.commons.dbutils.DbUtils;
 import org.apache.commons.dbutils.QueryRunner;
 import org.apache.commons.dbutils.ResultSetHandler;
-import org.apache.commons.dbutils.handlers.BeanHandler;
-import org.apache.commons.dbutils.handlers.BeanListHandler;
 import org.apache.commons.dbutils.handlers.ColumnListHandler;
 import org.apache.commons.dbutils.handlers.ScalarHandler;
 import org.testng.Assert;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Handles all things related to database e.g. queries, connection ...
@@ -28,6 +40,13 @@ public class DatabaseUtils extends LoggerUtils{
     public static final String sRootUsername = PropertiesUtils.getRootUsername();
     public static final String sRootPassword = PropertiesUtils.getRootPassword();
 
+    // all queries use connections from the same pool, QueryRunner takes connection from the pool
+    // and returns it (closes the proxy) when query is finished
+    private static final DatabaseConnectionPool dataSource = new DatabaseConnectionPool(sDataSourceUrl, sRootUsername, sRootPassword);
+    private static final QueryRunner queryRunner = new QueryRunner(dataSource);
+    private static final int iFetchSize = PropertiesUtils.getDbFetchSize();
+    private static final int iInChunkSize = PropertiesUtils.getDbInChunkSize();
+
     // In case we need this if communication with database
     // is not established just with jar
     // public static final String sDatabaseDriver = PropertiesUtils.getDatabaseDriver();
@@ -61,15 +80,18 @@ public class DatabaseUtils extends LoggerUtils{
      * ResultSetHandler<List<DatabaseUser>> listHandler = new BeanListHandler<>(DatabaseUser.class);
      * It can be created a list of complex data that is e.g. <DatabaseUser>
      * or a list of heroes that belong to one user
+     *
+     * BeanHandler and BeanListHandler map columns with reflection, so for DatabaseUser and DatabaseHero
+     * we use handlers with row mappers written by hand (DatabaseRowMappers.getHandler() and getListHandler())
      */
 
     /*
      * userID is in database defined as VARCHAR which is String, and we get
      * User ID of some known user SELECT user_id FROM users WHERE username = 'filet'
-     * Connection is established via Connection manager and query return the type of data
+     * Connection is taken from the pool (DatabaseConnectionPool) by QueryRunner and query return the type of data
      * depending on which handler we use. Scalar in our case returns String.
-     * If something went wrong we need to terminate connection (what if there is 50 opened connection)
-     * in finally.
+     * QueryRunner returns connection to the pool even if something went wrong (what if there is 50 opened connection),
+     * so it is not closed in finally.
      * Question mark indicate parameters and how many question marks we need that many parameters
      * The parameters are replaced according to the order
      *
@@ -96,32 +118,17 @@ public class DatabaseUtils extends LoggerUtils{
     public static String getUserID(String sUsername){
         log.trace("getUserID " + sUsername);
         String sqlQuery = "SELECT user_id FROM users WHERE username = ?";
-        Connection connection = null;
-        QueryRunner run = new QueryRunner();
         ScalarHandler<String> handler = new ScalarHandler<>();
-        //In case we need this if communication with database
-        // is not established just with jar
-        // Class.forName(sDatabaseDriver); first solution
-        // DbUtils.loadDriver(sDatabaseDriver); second solution
         String result = null;
 
+        long lStart = System.nanoTime();
         try {
-            connection = DriverManager.getConnection(sDataSourceUrl,sRootUsername,sRootPassword);
-            result = run.query(connection,sqlQuery,handler,sUsername);
+            result = queryRunner.query(sqlQuery,handler,sUsername);
+            LatencyUtils.record("DB getUserID()", "OK", lStart);
 
         } catch (SQLException e) {
+            LatencyUtils.record("DB getUserID()", "ERROR", lStart);
             Assert.fail(String.format("Exception in method getUserID() with %s username while trying to connect to database. Message: %s!",sUsername,e.getMessage()));
-        } finally {
-            // if connection still existing and is not closed, close te connection
-            try{
-                if (connection!=null){
-                    if(!connection.isClosed()){
-                        DbUtils.close(connection);
-                    }
-                }
-            } catch (SQLException e){
-                Assert.fail(String.format("Exception in method getUserID() with %s username while trying to close connection to database. Message: %s!",sUsername,e.getMessage()));
-            }
         }
         return result;
     }
@@ -139,28 +146,17 @@ public class DatabaseUtils extends LoggerUtils{
     public static String getUsername(String sUserID){
         log.trace("getUsername " + sUserID);
         String sqlQuery = "SELECT username FROM users WHERE user_id = ?";
-        Connection connection = null;
-        QueryRunner run = new QueryRunner();
         ScalarHandler<String> handler = new ScalarHandler<>();
         String result = null;
 
+        long lStart = System.nanoTime();
         try {
-            connection = DriverManager.getConnection(sDataSourceUrl,sRootUsername,sRootPassword);
-            result = run.query(connection,sqlQuery,handler,sUserID);
+            result = queryRunner.query(sqlQuery,handler,sUserID);
+            LatencyUtils.record("DB getUsername()", "OK", lStart);
 
         } catch (SQLException e) {
+            LatencyUtils.record("DB getUsername()", "ERROR", lStart);
             Assert.fail(String.format("Exception in method getUsername with %s username while trying to connect to database. Message: %s!",sUserID,e.getMessage()));
-        } finally {
-            // if connection still existing and is not closed, close te connection
-            try{
-                if (connection!=null){
-                    if(!connection.isClosed()){
-                        DbUtils.close(connection);
-                    }
-                }
-            } catch (SQLException e){
-                Assert.fail(String.format("Exception in method getUsername with %s username while trying to close connection to database. Message: %s!",sUserID,e.getMessage()));
-            }
         }
         return result;
     }
@@ -176,28 +172,17 @@ public class DatabaseUtils extends LoggerUtils{
     public static List<String> getAllUsernames(){
         log.trace("getAllUsernames() ");
         String sqlQuery = "SELECT username FROM users";
-        Connection connection = null;
-        QueryRunner run = new QueryRunner();
         ColumnListHandler<String> handler = new ColumnListHandler<>();
         List <String> result = null;
 
+        long lStart = System.nanoTime();
         try {
-            connection = DriverManager.getConnection(sDataSourceUrl,sRootUsername,sRootPassword);
-            result = run.query(connection,sqlQuery,handler);
+            result = queryRunner.query(sqlQuery,handler);
+            LatencyUtils.record("DB getAllUsernames()", "OK", lStart);
 
         } catch (SQLException e) {
+            LatencyUtils.record("DB getAllUsernames()", "ERROR", lStart);
             Assert.fail(String.format("Exception in method getAllUsernames() while trying to connect to database. Message: %s!",e.getMessage()));
-        } finally {
-            // if connection still existing and is not closed, close te connection
-            try{
-                if (connection!=null){
-                    if(!connection.isClosed()){
-                        DbUtils.close(connection);
-                    }
-                }
-            } catch (SQLException e){
-                Assert.fail(String.format("Exception in method getAllUsernames() while trying to close connection to database. Message: %s!",e.getMessage()));
-            }
         }
         return result;
     }
@@ -216,67 +201,227 @@ public class DatabaseUtils extends LoggerUtils{
     public static DatabaseUser getDatabaseUser(String sUsername){
         log.trace("getDatabaseUser " + sUsername);
         String sqlQuery = "SELECT * FROM users WHERE username = ?";
-        Connection connection = null;
-        QueryRunner run = new QueryRunner();
-        ResultSetHandler<DatabaseUser> handler = new BeanHandler<>(DatabaseUser.class);
+        ResultSetHandler<DatabaseUser> handler = DatabaseRowMappers.getHandler(DatabaseUser.class);
         DatabaseUser result = null;
 
+        long lStart = System.nanoTime();
         try {
-            connection = DriverManager.getConnection(sDataSourceUrl,sRootUsername,sRootPassword);
-            result = run.query(connection,sqlQuery,handler,sUsername);
+            result = queryRunner.query(sqlQuery,handler,sUsername);
+            LatencyUtils.record("DB getDatabaseUser()", "OK", lStart);
 
         } catch (SQLException e) {
+            LatencyUtils.record("DB getDatabaseUser()", "ERROR", lStart);
             Assert.fail(String.format("Exception in method getDatabaseUser with %s username while trying to connect to database. Message: %s!",sUsername,e.getMessage()));
-        } finally {
-            // if connection still existing and is not closed, close te connection
-            try{
-                if (connection!=null){
-                    if(!connection.isClosed()){
-                        DbUtils.close(connection);
+        }
+        return result;
+    }
+
+    /*
+     * User with heroes (aggregate) is loaded with one query: users LEFT JOIN heroes returns one row for
+     * every hero of the user (or one row without hero if user has no heroes), and user columns repeat in
+     * every row. Rows are grouped by username in one pass, so there is no query for heroes of every user and no
+     * query for username of every hero (owner of the hero is the user from the same row).
+     * Columns of heroes have aliases, because users and heroes have columns with the same name (e.g. created),
+     * and user columns are mapped into DatabaseUser with the same row mapper as in getDatabaseUser()
+     */
+    private static final String USER_AGGREGATE_QUERY = "SELECT u.*, h.hero_id AS hero_id, h.name AS hero_name, h.type AS hero_type, "
+            + "h.level AS hero_level, h.created AS hero_created, h.fk_user_id AS hero_fk_user_id "
+            + "FROM users u LEFT JOIN heroes h ON h.fk_user_id = u.user_id WHERE u.username ";
+
+    /**
+     * Class that maps rows of USER_AGGREGATE_QUERY into users with their heroes
+     */
+    private static class UserAggregateHandler implements ResultSetHandler<Map<String, User>> {
+        @Override
+        public Map<String, User> handle(ResultSet resultSet) throws SQLException {
+            Map<String, DatabaseUser> databaseUsers = new LinkedHashMap<>();
+            Map<String, List<DatabaseHero>> databaseHeroes = new HashMap<>();
+            DatabaseRowMappers.RowMapper<DatabaseUser> userMapper = null;
+            while (resultSet.next()){
+                String sUsername = resultSet.getString("username");
+                if (!databaseUsers.containsKey(sUsername)){
+                    if (userMapper == null){
+                        userMapper = DatabaseRowMappers.createMapper(DatabaseUser.class, resultSet.getMetaData());
                     }
+                    databaseUsers.put(sUsername, userMapper.map(resultSet));
+                    databaseHeroes.put(sUsername, new ArrayList<>());
+                }
+                if (resultSet.getObject("hero_id") != null){
+                    DatabaseHero databaseHero = new DatabaseHero();
+                    databaseHero.setHero_id(resultSet.getString("hero_id"));
+                    databaseHero.setName(resultSet.getString("hero_name"));
+                    databaseHero.setType(resultSet.getString("hero_type"));
+                    databaseHero.setLevel(resultSet.getInt("hero_level"));
+                    databaseHero.setCreated(resultSet.getTimestamp("hero_created"));
+                    databaseHero.setFk_user_id(resultSet.getString("hero_fk_user_id"));
+                    databaseHeroes.get(sUsername).add(databaseHero);
                 }
-            } catch (SQLException e){
-                Assert.fail(String.format("Exception in method getDatabaseUser with %s username while trying to close connection to database. Message: %s!",sUsername,e.getMessage()));
             }
+            Map<String, User> users = new LinkedHashMap<>();
+            for (Map.Entry<String, DatabaseUser> entry : databaseUsers.entrySet()){
+                users.put(entry.getKey(), assembleUser(entry.getValue(), databaseHeroes.get(entry.getKey())));
+            }
+            return users;
         }
-        return result;
     }
 
     /**
-     * Method that assemble user based on data that gets from databaseUser
-     * and return an instance of the User's class
+     * Method that returns user with heroes from the database
+     * @description - user and heroes are loaded with one query (users LEFT JOIN heroes)
+     * query - SELECT u.*, h.* FROM users u LEFT JOIN heroes h ON h.fk_user_id = u.user_id WHERE u.username = ?
      *
      * @param sUsername {String} - user's username
      *
-     * @return {User} - an instance of User
+     * @return {User} - an instance of User, null if user doesn't exist
      */
     public static User getUser(String sUsername){
         log.trace("getUser " + sUsername);
-        DatabaseUser databaseUser = getDatabaseUser(sUsername);
-        return assembleUser(databaseUser);
+        String sqlQuery = USER_AGGREGATE_QUERY + "= ?";
+        Map<String, User> result = null;
+
+        long lStart = System.nanoTime();
+        try {
+            result = queryRunner.query(sqlQuery,new UserAggregateHandler(),sUsername);
+            LatencyUtils.record("DB getUser()", "OK", lStart);
+
+        } catch (SQLException e) {
+            LatencyUtils.record("DB getUser()", "ERROR", lStart);
+            Assert.fail(String.format("Exception in method getUser with %s username while trying to connect to database. Message: %s!",sUsername,e.getMessage()));
+        }
+        // MySQL compares usernames case-insensitively, so username in the database can differ in case
+        return result.isEmpty() ? null : result.values().iterator().next();
+    }
+
+    /**
+     * Method that returns many users with their heroes from the database
+     * @description - users and their heroes are loaded with one query (users LEFT JOIN heroes)
+     * for every dbInChunkSize usernames
+     * query - SELECT u.*, h.* FROM users u LEFT JOIN heroes h ON h.fk_user_id = u.user_id WHERE u.username IN (?, ?, ...)
+     *
+     * @param usernames {Collection<String>} - users' usernames
+     *
+     * @return {Map<String, User>} - users by username, users that don't exist are not in the map
+     */
+    public static Map<String, User> getUsers(Collection<String> usernames){
+        log.trace("getUsers() " + usernames.size() + " users");
+        return queryInChunks("getUsers()", USER_AGGREGATE_QUERY + "IN ", usernames, new UserAggregateHandler());
+    }
+
+    /**
+     * Method that returns many users from user's table
+     * @description - users are loaded with one query for every dbInChunkSize usernames
+     * query - SELECT * FROM users WHERE username IN (?, ?, ...)
+     *
+     * @param usernames {Collection<String>} - users' usernames
+     *
+     * @return {Map<String, DatabaseUser>} - users by username, users that don't exist are not in the map
+     */
+    public static Map<String, DatabaseUser> getDatabaseUsers(Collection<String> usernames){
+        log.trace("getDatabaseUsers() " + usernames.size() + " users");
+        return queryInChunks("getDatabaseUsers()", "SELECT * FROM users WHERE username IN ", usernames,
+                getMapHandler(DatabaseUser.class, DatabaseUser::getUsername));
+    }
+
+    /**
+     * Method that returns many heroes from hero's table
+     * @description - heroes are loaded with one query for every dbInChunkSize hero names
+     * query - SELECT * FROM heroes WHERE name IN (?, ?, ...)
+     *
+     * @param heroNames {Collection<String>} - heroes' names
+     *
+     * @return {Map<String, DatabaseHero>} - heroes by name, heroes that don't exist are not in the map
+     */
+    public static Map<String, DatabaseHero> getDatabaseHeroes(Collection<String> heroNames){
+        log.trace("getDatabaseHeroes() " + heroNames.size() + " heroes");
+        return queryInChunks("getDatabaseHeroes()", "SELECT * FROM heroes WHERE name IN ", heroNames,
+                getMapHandler(DatabaseHero.class, DatabaseHero::getName));
+    }
+
+    /**
+     * Method that returns handler which maps all rows into objects by their key
+     *
+     * @param type {Class<T>} - type of the objects e.g. DatabaseUser.class
+     * @param key {Function<T, String>} - returns key of the object e.g. DatabaseUser::getUsername
+     *
+     * @return {ResultSetHandler<Map<String, T>>} - handler that returns objects by key
+     */
+    private static <T> ResultSetHandler<Map<String, T>> getMapHandler(Class<T> type, Function<T, String> key){
+        ResultSetHandler<List<T>> listHandler = DatabaseRowMappers.getListHandler(type);
+        return resultSet -> {
+            Map<String, T> result = new LinkedHashMap<>();
+            for (T object : listHandler.handle(resultSet)){
+                result.put(key.apply(object), object);
+            }
+            return result;
+        };
+    }
+
+    /*
+     * Lookups of many keys (usernames, hero names) don't run one query for every key, but one query with
+     * IN (?, ?, ...) for every dbInChunkSize keys, so the number of round trips and borrowed connections doesn't
+     * grow with every key. Chunk is limited because very long IN list makes the query large and MySQL slower to plan.
+     * Number of placeholders is rounded up to a power of two (the last key is repeated), so there are only a few
+     * different queries and they stay in the prepared statement cache of the connection (dbPrepStmtCacheSize).
+     * Keys in the result are values from the database, MySQL compares strings case-insensitively,
+     * so key in the result can differ in case from the key that is asked for
+     */
+
+    /**
+     * Method that executes query with IN list for every chunk of keys and merges the results
+     *
+     * @param sMethod {String} - name of the method for log and LatencyUtils e.g. "getDatabaseUsers()"
+     * @param sqlQuery {String} - query that ends with "IN " e.g. SELECT * FROM users WHERE username IN
+     * @param keys {Collection<String>} - keys for IN list, duplicates are asked for only once
+     * @param handler {ResultSetHandler<Map<String, T>>} - maps rows of one chunk into objects by key
+     *
+     * @return {Map<String, T>} - objects by key, keys that are not in the database are not in the map
+     */
+    private static <T> Map<String, T> queryInChunks(String sMethod, String sqlQuery, Collection<String> keys, ResultSetHandler<Map<String, T>> handler){
+        List<String> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+        Map<String, T> result = new LinkedHashMap<>();
+        for (int iFrom = 0; iFrom < distinctKeys.size(); iFrom += iInChunkSize){
+            List<String> chunk = new ArrayList<>(distinctKeys.subList(iFrom, Math.min(iFrom + iInChunkSize, distinctKeys.size())));
+            int iPlaceholders = Math.min(iInChunkSize, Integer.highestOneBit(chunk.size() - 1) << 1);
+            while (chunk.size() < iPlaceholders){
+                chunk.add(chunk.get(chunk.size() - 1));
+            }
+            String sChunkQuery = sqlQuery + "(" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+
+            long lStart = System.nanoTime();
+            try {
+                result.putAll(queryRunner.query(sChunkQuery,handler,chunk.toArray()));
+                LatencyUtils.record("DB " + sMethod, "OK", lStart);
+
+            } catch (SQLException e) {
+                LatencyUtils.record("DB " + sMethod, "ERROR", lStart);
+                Assert.fail(String.format("Exception in method %s with %d keys while trying to connect to database. Message: %s!",sMethod,chunk.size(),e.getMessage()));
+            }
+        }
+        return result;
     }
 
     /**
      * Method that create an instance of the Hero class based on database hero
      *
      * @param databaseHero {DatabaseHero} - DatabaseHero instance
+     * @param sUsername {String} - username of the hero's owner
      *
      * @return {Hero} - an instance of Hero
      */
-    private static Hero assembleHero(DatabaseHero databaseHero){
-        String sUsername = getUsername(databaseHero.getFK_user_id());
+    private static Hero assembleHero(DatabaseHero databaseHero, String sUsername){
         Hero hero = new Hero(databaseHero.getName(),databaseHero.getType(),databaseHero.getLevel(),sUsername,databaseHero.getCreated());
         return  hero;
     }
 
     /**
-     * Method that create an instance of the User class based on database User
+     * Method that create an instance of the User class based on database User and its heroes
      *
      * @param databaseUser {DatabaseUser} - DatabaseUser instance
+     * @param databaseHeroes {List<DatabaseHero>} - heroes of the user
      *
      * @return {User} - an instance of User
      */
-    private static User assembleUser(DatabaseUser databaseUser){
+    private static User assembleUser(DatabaseUser databaseUser, List<DatabaseHero> databaseHeroes){
         String sUsername= databaseUser.getUsername();
         String sPassword= databaseUser.getPassword();
         String sEmail= databaseUser.getEmail();
@@ -286,11 +431,10 @@ public class DatabaseUtils extends LoggerUtils{
         String sSecretQuestion= databaseUser.getSecretQuestion();
         String sSecretAnswer= databaseUser.getSecretAnswer();
         Date createdAt = databaseUser.getCreated();
-        List<DatabaseHero> databaseHeroes = getDatabaseHeroesForUser(databaseUser.getUserID());
         List<Hero> heroes = new ArrayList<>();
 
         for (DatabaseHero databaseHero : databaseHeroes){
-            heroes.add(assembleHero(databaseHero));
+            heroes.add(assembleHero(databaseHero, sUsername));
         }
         User user = new User(sUsername,sPassword,sEmail,sFirstName,sLastname,sAbout,sSecretQuestion,sSecretAnswer,createdAt,heroes);
         return user;
@@ -310,29 +454,129 @@ public class DatabaseUtils extends LoggerUtils{
     public static List<DatabaseHero> getDatabaseHeroesForUser(String sUserID){
         log.trace("getDatabaseHeroesForUser() " + sUserID );
         String sqlQuery = "SELECT * FROM heroes WHERE fk_user_id = ?";
-        Connection connection = null;
-        QueryRunner run = new QueryRunner();
-        ResultSetHandler<List<DatabaseHero>> handler = new BeanListHandler<>(DatabaseHero.class);
+        ResultSetHandler<List<DatabaseHero>> handler = DatabaseRowMappers.getListHandler(DatabaseHero.class);
         List<DatabaseHero> result = null;
 
+        long lStart = System.nanoTime();
         try {
-            connection = DriverManager.getConnection(sDataSourceUrl,sRootUsername,sRootPassword);
-            result = run.query(connection,sqlQuery,handler,sUserID);
+            result = queryRunner.query(sqlQuery,handler,sUserID);
+            LatencyUtils.record("DB getDatabaseHeroesForUser()", "OK", lStart);
 
         } catch (SQLException e) {
+            LatencyUtils.record("DB getDatabaseHeroesForUser()", "ERROR", lStart);
             Assert.fail(String.format("Exception in method getDatabaseHeroesForUser with %s username while trying to connect to database. Message: %s!",sUserID,e.getMessage()));
-        } finally {
-            // if connection still existing and is not closed, close te connection
-            try{
-                if (connection!=null){
-                    if(!connection.isClosed()){
-                        DbUtils.close(connection);
+        }
+        return result;
+    }
+
+    //-------------------------------------------
+    //----------Streaming -----------------------
+    //-------------------------------------------
+
+    /*
+     * Methods that read whole table (e.g. to check that user is not in the table anymore) don't collect rows into
+     * the list. They return Stream which reads rows from the forward-only cursor while stream is consumed: MySQL sends
+     * dbFetchSize rows at a time (useCursorFetch), so memory doesn't depend on the size of the table.
+     * Stream holds connection of the pool until it is closed, so it must be used in try-with-resources:
+     * try (Stream<String> usernames = DatabaseUtils.streamAllUsernames()) { ... }
+     * Connection is also released as soon as the last row is read
+     */
+
+    /**
+     * Method that returns all usernames from user's table as stream
+     * query - SELECT username FROM users
+     *
+     * @return {Stream<String>} - stream of usernames, it must be closed
+     */
+    public static Stream<String> streamAllUsernames(){
+        log.trace("streamAllUsernames()");
+        return stream("streamAllUsernames()", "SELECT username FROM users", metaData -> resultSet -> resultSet.getString(1));
+    }
+
+    /**
+     * Method that returns all users from user's table as stream
+     * query - SELECT * FROM users
+     *
+     * @return {Stream<DatabaseUser>} - stream of users, it must be closed
+     */
+    public static Stream<DatabaseUser> streamDatabaseUsers(){
+        log.trace("streamDatabaseUsers()");
+        return stream("streamDatabaseUsers()", "SELECT * FROM users",
+                metaData -> DatabaseRowMappers.createMapper(DatabaseUser.class, metaData));
+    }
+
+    /**
+     * Method that returns all heroes from hero's table as stream
+     * query - SELECT * FROM heroes
+     *
+     * @return {Stream<DatabaseHero>} - stream of heroes, it must be closed
+     */
+    public static Stream<DatabaseHero> streamDatabaseHeroes(){
+        log.trace("streamDatabaseHeroes()");
+        return stream("streamDatabaseHeroes()", "SELECT * FROM heroes",
+                metaData -> DatabaseRowMappers.createMapper(DatabaseHero.class, metaData));
+    }
+
+    /**
+     * Method that executes query with forward-only cursor and returns its rows as stream
+     * @description - connection, statement and result set are closed (connection is returned to the pool)
+     * when stream is closed or when the last row is read. Duration from the query until then is
+     * recorded in LatencyUtils
+     *
+     * @param sMethod {String} - name of the method for log and LatencyUtils e.g. "streamAllUsernames()"
+     * @param sqlQuery {String} - query
+     * @param mapperFactory {RowMapperFactory<T>} - creates mapper of one row for columns of the result set
+     *
+     * @return {Stream<T>} - stream of mapped rows
+     */
+    private static <T> Stream<T> stream(String sMethod, String sqlQuery, DatabaseRowMappers.RowMapperFactory<T> mapperFactory){
+        long lStart = System.nanoTime();
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        DatabaseRowMappers.RowMapper<T> mapper = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sqlQuery, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(iFetchSize);
+            resultSet = statement.executeQuery();
+            mapper = mapperFactory.create(resultSet.getMetaData());
+        } catch (SQLException e) {
+            DbUtils.closeQuietly(connection, statement, resultSet);
+            LatencyUtils.record("DB " + sMethod, "ERROR", lStart);
+            Assert.fail(String.format("Exception in method %s while trying to connect to database. Message: %s!",sMethod,e.getMessage()));
+        }
+        Connection streamConnection = connection;
+        PreparedStatement streamStatement = statement;
+        ResultSet streamResultSet = resultSet;
+        DatabaseRowMappers.RowMapper<T> streamMapper = mapper;
+        AtomicBoolean closed = new AtomicBoolean();
+        Runnable close = () -> {
+            if (closed.compareAndSet(false, true)){
+                DbUtils.closeQuietly(streamConnection, streamStatement, streamResultSet);
+                LatencyUtils.record("DB " + sMethod, "OK", lStart);
+            }
+        };
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (closed.get()){
+                    return false;
+                }
+                try {
+                    if (!streamResultSet.next()){
+                        close.run();
+                        return false;
                     }
+                    action.accept(streamMapper.map(streamResultSet));
+                    return true;
+                } catch (SQLException e) {
+                    close.run();
+                    Assert.fail(String.format("Exception in method %s while reading rows from database. Message: %s!",sMethod,e.getMessage()));
+                    return false;
                 }
-            } catch (SQLException e){
-                Assert.fail(String.format("Exception in method getDatabaseHeroesForUser with %s username while trying to close connection to database. Message: %s!",sUserID,e.getMessage()));
             }
-        }
-        return result;
+        };
+        return StreamSupport.stream(spliterator, false).onClose(close);
     }
 }
@@ -4,6 +4,7 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 /**
  * Class for logs managing
@@ -79,4 +80,16 @@ public class ExtentReportUtils extends LoggerUtils{
         extentReport.attachReporter(extentSparkReporter);
         return extentReport;
     }
+
+    /**
+     * Method that adds latency summary of API calls and database queries (LatencyUtils)
+     * to the system info of the Extent Report, it is called when suite is finished
+     *
+     * @param extentReport {ExtentReports} - an instance of the ExtentReports
+     */
+    public static void addLatencySummary(ExtentReports extentReport){
+        for (Map.Entry<String, String> entry : LatencyUtils.getSummary().entrySet()){
+            extentReport.setSystemInfo("Latency " + entry.getKey(), entry.getValue());
+        }
+    }
 }
@@ -0,0 +1,280 @@
+package utils;
+
+import org.testng.Assert;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class for local TCP proxy that is put between the framework and the application (or its database)
+ * and makes network slower and less reliable, so it can be measured how tests behave with higher latency
+ * @description - proxy listens on localhost port and forwards every connection to the upstream host and port.
+ * Every direction of the connection has its own delay line: chunk that is read is delivered half of the
+ * round trip time (RTT) later plus random jitter, chunks keep their order. Bandwidth cap (KB/s) makes
+ * delivery of every chunk as long as it would be on the slow link, and share of connections (reset rate)
+ * is reset (RST) after the first request is forwarded. Latency, jitter, bandwidth and reset rate can be
+ * changed while proxy is running and they are used for the chunks that are read after the change.
+ * Delay is per chunk (not per TCP packet), which is close enough for HTTP and JDBC where request and
+ * response are usually one or few chunks
+ */
+public class FaultInjectingProxy extends LoggerUtils {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int CONNECT_TIMEOUT = 10000;
+
+    private final int iListenPort;
+    private final String sUpstreamHost;
+    private final int iUpstreamPort;
+
+    private volatile int iRttMillis;
+    private volatile int iJitterMillis;
+    private volatile int iBandwidthKBps;
+    private volatile double dResetRate;
+
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder bytesUpstream = new LongAdder();
+    private final LongAdder bytesDownstream = new LongAdder();
+
+    /**
+     * Class for one chunk in the delay line, chunk without data means that the direction is closed
+     */
+    private static class Chunk {
+        private final byte[] data;
+        private final long lDeliverAt;
+
+        private Chunk(byte[] data, long lDeliverAt) {
+            this.data = data;
+            this.lDeliverAt = lDeliverAt;
+        }
+    }
+
+    /**
+     * Constructor for proxy, proxy is started with start()
+     *
+     * @param iListenPort {int} - local port of the proxy e.g. 8099
+     * @param sUpstreamHost {String} - host where connections are forwarded e.g. localhost
+     * @param iUpstreamPort {int} - port where connections are forwarded e.g. 8080
+     */
+    public FaultInjectingProxy(int iListenPort, String sUpstreamHost, int iUpstreamPort) {
+        this.iListenPort = iListenPort;
+        this.sUpstreamHost = sUpstreamHost;
+        this.iUpstreamPort = iUpstreamPort;
+    }
+
+    /**
+     * Method that starts accepting connections
+     */
+    public synchronized void start(){
+        if (serverSocket != null){
+            return;
+        }
+        try {
+            serverSocket = new ServerSocket(iListenPort, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e){
+            Assert.fail(String.format("Cannot start fault injecting proxy on port %d! Message: %s", iListenPort, e.getMessage()));
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fault-proxy");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ServerSocket listening = serverSocket;
+        executor.execute(() -> accept(listening));
+        log.info(String.format("[FAULT PROXY] localhost:%d -> %s:%d started", iListenPort, sUpstreamHost, iUpstreamPort));
+    }
+
+    /**
+     * Method that stops the proxy and closes all connections
+     */
+    public synchronized void stop(){
+        if (serverSocket == null){
+            return;
+        }
+        try {
+            serverSocket.close();
+        } catch (IOException e){
+            log.warn("[FAULT PROXY] Closing of the proxy failed! Message: " + e.getMessage());
+        }
+        executor.shutdownNow();
+        serverSocket = null;
+        log.info("[FAULT PROXY] stopped, " + getStatistics());
+    }
+
+    private void accept(ServerSocket listening){
+        while (!listening.isClosed()){
+            try {
+                Socket client = listening.accept();
+                executor.execute(() -> connect(client));
+            } catch (IOException e){
+                if (!listening.isClosed()){
+                    log.warn("[FAULT PROXY] Accepting of connection failed! Message: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that opens connection to the upstream and starts delay lines of both directions
+     */
+    private void connect(Socket client){
+        connections.increment();
+        Socket upstream = new Socket();
+        try {
+            client.setTcpNoDelay(true);
+            upstream.setTcpNoDelay(true);
+            upstream.connect(new InetSocketAddress(sUpstreamHost, iUpstreamPort), CONNECT_TIMEOUT);
+        } catch (IOException e){
+            log.warn(String.format("[FAULT PROXY] Cannot connect to %s:%d! Message: %s", sUpstreamHost, iUpstreamPort, e.getMessage()));
+            closeQuietly(client, false);
+            closeQuietly(upstream, false);
+            return;
+        }
+        boolean bReset = ThreadLocalRandom.current().nextDouble() < dResetRate;
+        pipe(client, upstream, bytesUpstream, bReset);
+        pipe(upstream, client, bytesDownstream, false);
+    }
+
+    /**
+     * Method that starts reader and writer of one direction, reader puts chunks with delivery time
+     * into the queue and writer delivers them when their time comes
+     */
+    private void pipe(Socket from, Socket to, LongAdder bytes, boolean bReset){
+        BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+        executor.execute(() -> {
+            long lLastDeliverAt = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream input = from.getInputStream()){
+                int iRead;
+                while ((iRead = input.read(buffer)) != -1){
+                    lLastDeliverAt = Math.max(lLastDeliverAt, System.nanoTime() + getOneWayDelayNanos());
+                    queue.put(new Chunk(Arrays.copyOf(buffer, iRead), lLastDeliverAt));
+                }
+            } catch (IOException | InterruptedException e){
+                // connection is closed or reset, writer closes the other side
+            }
+            queue.add(new Chunk(null, lLastDeliverAt));
+        });
+        executor.execute(() -> {
+            try {
+                OutputStream output = to.getOutputStream();
+                while (true){
+                    Chunk chunk = queue.take();
+                    waitUntil(chunk.lDeliverAt);
+                    if (chunk.data == null){
+                        to.shutdownOutput();
+                        return;
+                    }
+                    if (iBandwidthKBps > 0){
+                        LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(chunk.data.length) / (iBandwidthKBps * 1024L));
+                    }
+                    output.write(chunk.data);
+                    output.flush();
+                    bytes.add(chunk.data.length);
+                    if (bReset){
+                        // request is already at the upstream, client gets RST instead of the response
+                        resets.increment();
+                        closeQuietly(from, true);
+                        closeQuietly(to, true);
+                        return;
+                    }
+                }
+            } catch (IOException | InterruptedException e){
+                closeQuietly(from, false);
+                closeQuietly(to, false);
+            }
+        });
+    }
+
+    private long getOneWayDelayNanos(){
+        long lDelayMillis = iRttMillis / 2;
+        if (iJitterMillis > 0){
+            lDelayMillis += ThreadLocalRandom.current().nextInt(iJitterMillis + 1);
+        }
+        return TimeUnit.MILLISECONDS.toNanos(lDelayMillis);
+    }
+
+    private static void waitUntil(long lDeliverAt) throws InterruptedException {
+        long lWait;
+        while ((lWait = lDeliverAt - System.nanoTime()) > 0){
+            LockSupport.parkNanos(lWait);
+            if (Thread.interrupted()){
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket, boolean bReset){
+        try {
+            if (bReset && !socket.isClosed()){
+                // linger 0 sends RST instead of FIN
+                socket.setSoLinger(true, 0);
+            }
+            socket.close();
+        } catch (IOException e){
+            // socket is already closed
+        }
+    }
+
+    /**
+     * Method that sets round trip time that is added to every connection (half in every direction)
+     *
+     * @param iRttMillis {int} - round trip time in ms
+     */
+    public void setRttMillis(int iRttMillis){
+        this.iRttMillis = iRttMillis;
+    }
+
+    /**
+     * Method that sets maximal random delay that is added to every chunk in every direction
+     *
+     * @param iJitterMillis {int} - jitter in ms
+     */
+    public void setJitterMillis(int iJitterMillis){
+        this.iJitterMillis = iJitterMillis;
+    }
+
+    /**
+     * Method that sets bandwidth cap of every direction of every connection
+     *
+     * @param iBandwidthKBps {int} - bandwidth in KB/s, 0 means no cap
+     */
+    public void setBandwidthKBps(int iBandwidthKBps){
+        this.iBandwidthKBps = iBandwidthKBps;
+    }
+
+    /**
+     * Method that sets share of new connections that are reset after the first request is forwarded
+     *
+     * @param dResetRate {double} - reset rate from 0 to 1 e.g. 0.01
+     */
+    public void setResetRate(double dResetRate){
+        this.dResetRate = dResetRate;
+    }
+
+    /**
+     * Method that returns statistics of the proxy since it is created
+     *
+     * @return {String} - e.g. "connections: 12, resets: 0, upstream: 15.2 KB, downstream: 48.0 KB"
+     */
+    public String getStatistics(){
+        return String.format("connections: %d, resets: %d, upstream: %.1f KB, downstream: %.1f KB", connections.sum(),
+                resets.sum(), bytesUpstream.sum() / 1024.0, bytesDownstream.sum() / 1024.0);
+    }
+}
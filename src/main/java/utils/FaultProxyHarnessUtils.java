@@ -0,0 +1,207 @@
+package utils;
+
+import org.testng.Assert;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class that runs a suite through the fault injecting proxy (FaultInjectingProxy) with higher and higher
+ * round trip time (faultProxyRttSteps) and reports how duration of the suite and its waits scale with RTT
+ * @description - base URL (faultProxyTarget=api) or data source URL (faultProxyTarget=database) of the
+ * faultProxyEnvironment is changed to the proxy port and proxy forwards to the original host and port.
+ * The URL is read only once by ApiClientUtils and DatabaseUtils, so the proxy stays on the same port and
+ * only its latency is changed between steps. For every step it is reported:
+ * - duration of the suite and how many times it is longer than with the first step
+ * - passed, failed and skipped tests and timeouts (UI waits from BasePageCLass with data.Time timeouts,
+ *   API/DB socket timeouts) among the failures
+ * - LatencyUtils summary of the step (API calls of RestApiUtils, DB queries and UI waits)
+ * and at the end how many seconds the suite gets longer for every 100 ms of RTT (least squares slope).
+ * If faultProxyWarmUp is true suite is executed once without latency before the steps and it is not reported.
+ * With "standin" environment stand-in server (StandInApiServer) is started on its original port before every step
+ */
+public class FaultProxyHarnessUtils extends LoggerUtils {
+
+    /**
+     * Class for the result of the suite with one RTT
+     */
+    private static class StepResult implements ITestListener {
+        private final int iRttMillis;
+        private final AtomicInteger passed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger uiTimeouts = new AtomicInteger();
+        private final AtomicInteger socketTimeouts = new AtomicInteger();
+        private double dSeconds;
+        private Map<String, String> latencySummary;
+
+        private StepResult(int iRttMillis) {
+            this.iRttMillis = iRttMillis;
+        }
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            passed.incrementAndGet();
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            failed.incrementAndGet();
+            countTimeout(result.getThrowable());
+            log.warn(String.format("[FAULT PROXY] RTT %d ms: %s.%s failed! Message: %s", iRttMillis, result.getTestClass().getName(),
+                    result.getName(), result.getThrowable() != null ? result.getThrowable() : "-"));
+        }
+
+        @Override
+        public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+            onTestFailure(result);
+        }
+
+        @Override
+        public void onTestFailedWithTimeout(ITestResult result) {
+            onTestFailure(result);
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            skipped.incrementAndGet();
+        }
+
+        private void countTimeout(Throwable throwable){
+            for (Throwable cause = throwable; cause != null; cause = cause.getCause()){
+                if (cause instanceof org.openqa.selenium.TimeoutException){
+                    uiTimeouts.incrementAndGet();
+                    return;
+                }
+                // RestApiUtils fails with AssertionError that has only message of the exception e.g. "Read timed out"
+                if (cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException
+                        || (cause instanceof AssertionError && String.valueOf(cause.getMessage()).contains("timed out"))){
+                    socketTimeouts.incrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method that runs the suite (faultProxySuite) once for every RTT (faultProxyRttSteps) and logs the report
+     *
+     * @return {boolean} - true if suite has no failed tests with any RTT
+     */
+    public static boolean run(){
+        String sEnvironment = PropertiesUtils.getFaultProxyEnvironment().toLowerCase();
+        String sTarget = PropertiesUtils.getFaultProxyTarget().toLowerCase();
+        int iProxyPort = PropertiesUtils.getFaultProxyPort();
+        System.setProperty("environment", sEnvironment);
+
+        String sUrlProperty;
+        if (sTarget.equals("api")){
+            // property of the stand-in server is standInBaseUrl (e.g. localBaseUrl for local)
+            sUrlProperty = (sEnvironment.equals("standin") ? "standIn" : sEnvironment) + "BaseUrl";
+        } else if (sTarget.equals("database")){
+            sUrlProperty = sEnvironment + "DataSourceUrl";
+        } else {
+            Assert.fail(String.format("Fault proxy target %s is not recognised! It should be api or database", sTarget));
+            return false;
+        }
+        String sOriginalUrl = sTarget.equals("api") ? PropertiesUtils.getBaseUrl() : PropertiesUtils.getDataSourceUrl();
+        // JDBC URL is not URI, but part after "jdbc:" is
+        URI uri = URI.create(sOriginalUrl.startsWith("jdbc:") ? sOriginalUrl.substring(5) : sOriginalUrl);
+        int iUpstreamPort = uri.getPort() != -1 ? uri.getPort() : (uri.getScheme().equals("https") ? 443 : 80);
+        String sProxyUrl = sOriginalUrl.replaceFirst(uri.getHost() + (uri.getPort() != -1 ? ":" + uri.getPort() : ""),
+                "localhost:" + iProxyPort);
+
+        FaultInjectingProxy proxy = new FaultInjectingProxy(iProxyPort, uri.getHost(), iUpstreamPort);
+        proxy.setJitterMillis(PropertiesUtils.getFaultProxyJitter());
+        proxy.setBandwidthKBps(PropertiesUtils.getFaultProxyBandwidth());
+        proxy.setResetRate(PropertiesUtils.getFaultProxyResetRate());
+        proxy.start();
+        System.setProperty(sUrlProperty, sProxyUrl);
+        log.info(String.format("[FAULT PROXY] %s %s %s is changed to %s", sEnvironment, sTarget, sOriginalUrl, sProxyUrl));
+
+        List<StepResult> results = new ArrayList<>();
+        try {
+            if (PropertiesUtils.getFaultProxyWarmUp()){
+                // the first run also loads classes and JIT compiles the framework, so it would make the baseline longer
+                StepResult warmUp = runStep(proxy, 0, sEnvironment, iUpstreamPort);
+                log.info(String.format("[FAULT PROXY] Warm-up run: %.1f s, it is not in the report", warmUp.dSeconds));
+            }
+            for (int iRttMillis : PropertiesUtils.getFaultProxyRttSteps()){
+                results.add(runStep(proxy, iRttMillis, sEnvironment, iUpstreamPort));
+            }
+        } finally {
+            proxy.stop();
+            System.clearProperty(sUrlProperty);
+            if (sEnvironment.equals("standin")){
+                StandInApiServer.stop();
+            }
+        }
+        logReport(results);
+        return results.stream().allMatch(result -> result.failed.get() == 0);
+    }
+
+    private static StepResult runStep(FaultInjectingProxy proxy, int iRttMillis, String sEnvironment, int iUpstreamPort){
+        log.info(String.format("[FAULT PROXY] Running %s with RTT %d ms", PropertiesUtils.getFaultProxySuite(), iRttMillis));
+        proxy.setRttMillis(iRttMillis);
+        // listeners of the suite can change or clear environment (e.g. StandInServerListener)
+        System.setProperty("environment", sEnvironment);
+        if (sEnvironment.equals("standin")){
+            // StandInServerListener would start server on the port from standInBaseUrl which is now port of the proxy
+            StandInApiServer.start(iUpstreamPort);
+        }
+        LatencyUtils.clear();
+        StepResult result = new StepResult(iRttMillis);
+        TestNG testNG = new TestNG();
+        testNG.setUseDefaultListeners(false);
+        testNG.setTestSuites(List.of(PropertiesUtils.getFaultProxySuite()));
+        testNG.addListener(result);
+        long lStart = System.nanoTime();
+        testNG.run();
+        result.dSeconds = (System.nanoTime() - lStart) / (double) TimeUnit.SECONDS.toNanos(1);
+        result.latencySummary = LatencyUtils.getSummary();
+        return result;
+    }
+
+    private static void logReport(List<StepResult> results){
+        if (results.isEmpty()){
+            return;
+        }
+        double dBaseline = results.get(0).dSeconds;
+        for (StepResult result : results){
+            log.info(String.format("[FAULT PROXY] RTT %4d ms: %.1f s (x%.2f), passed: %d, failed: %d, skipped: %d, UI timeouts: %d, socket timeouts: %d",
+                    result.iRttMillis, result.dSeconds, result.dSeconds / dBaseline, result.passed.get(), result.failed.get(),
+                    result.skipped.get(), result.uiTimeouts.get(), result.socketTimeouts.get()));
+            for (Map.Entry<String, String> entry : result.latencySummary.entrySet()){
+                log.info(String.format("[FAULT PROXY] RTT %4d ms: %s %s", result.iRttMillis, entry.getKey(), entry.getValue()));
+            }
+        }
+        if (results.size() > 1){
+            log.info(String.format("[FAULT PROXY] Suite is %.2f s longer for every 100 ms of RTT", getSlope(results) * 100));
+        }
+    }
+
+    /**
+     * Method that returns least squares slope of suite duration by RTT
+     *
+     * @return {double} - seconds per ms of RTT
+     */
+    private static double getSlope(List<StepResult> results){
+        double dMeanRtt = results.stream().mapToInt(result -> result.iRttMillis).average().orElse(0);
+        double dMeanSeconds = results.stream().mapToDouble(result -> result.dSeconds).average().orElse(0);
+        double dCovariance = 0;
+        double dVariance = 0;
+        for (StepResult result : results){
+            dCovariance += (result.iRttMillis - dMeanRtt) * (result.dSeconds - dMeanSeconds);
+            dVariance += (result.iRttMillis - dMeanRtt) * (result.iRttMillis - dMeanRtt);
+        }
+        return dVariance == 0 ? 0 : dCovariance / dVariance;
+    }
+}
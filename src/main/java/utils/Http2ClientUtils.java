@@ -0,0 +1,153 @@
+package utils;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Cookie;
+import io.restassured.http.Cookies;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Class that holds JDK HttpClient which sends API calls over HTTP/2, so many small concurrent calls
+ * (e.g. async calls from AsyncRestApiUtils) share one multiplexed connection instead of taking a pooled
+ * connection each
+ * @description - it is only the transport: ApiClientUtils uses it instead of RestAssured for threads that
+ * turned it on (ApiClientUtils.enableHttp2()), so auth (ApiAuthUtils), limiter, latency, single-flight, cache
+ * and cassettes are the same for both transports. Response is converted into RestAssured Response, so it is
+ * read and mapped the same way in RestApiUtils. Over http:// HttpClient asks server to upgrade to HTTP/2 (h2c),
+ * if server doesn't support it HTTP/1.1 is used. HttpClient doesn't decode compressed responses, so if
+ * apiCompressionEnabled is true gzip/deflate body is decoded here
+ */
+public class Http2ClientUtils extends LoggerUtils {
+
+    private static final String BASE_URL = PropertiesUtils.getBaseUrl();
+    private static final boolean bCompressionEnabled = PropertiesUtils.getApiCompressionEnabled();
+    private static final Duration requestTimeout = Duration.ofSeconds(PropertiesUtils.getApiSocketTimeout());
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(PropertiesUtils.getApiConnectionTimeout()))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    /**
+     * Method that sends API request over HTTP/2 and returns the response
+     *
+     * @param method {Method} - HTTP method e.g. GET, POST, DELETE
+     * @param sPath {String} - path of the API call e.g. /api/users/findByUsername/admin
+     * @param sBody {String} - body of the request in JSON format or null if there is no body
+     * @param authHeaders {Map<String, String>} - authentication headers (ApiAuthUtils.getAuthHeaders())
+     *
+     * @return {Response} - response of the API call with decoded body
+     */
+    public static Response send(Method method, String sPath, String sBody, Map<String, String> authHeaders){
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(BASE_URL + sPath))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .method(method.name(), sBody == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(sBody, StandardCharsets.UTF_8));
+        if (bCompressionEnabled){
+            request.header("Accept-Encoding", "gzip, deflate");
+        }
+        authHeaders.forEach(request::header);
+        try {
+            return createResponse(httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (IOException e){
+            throw new UncheckedIOException(String.format("%s %s failed over HTTP/2", method, sPath), e);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(String.format("%s %s was interrupted", method, sPath), e);
+        }
+    }
+
+    /**
+     * Method that converts HttpClient response into RestAssured Response, body is decoded, so
+     * Content-Encoding and Content-Length headers are not copied
+     */
+    private static Response createResponse(HttpResponse<byte[]> response){
+        List<Header> headers = new ArrayList<>();
+        List<Cookie> cookies = new ArrayList<>();
+        String sEncoding = "identity";
+        String sContentType = null;
+        for (Map.Entry<String, List<String>> entry : response.headers().map().entrySet()){
+            String sName = entry.getKey();
+            for (String sValue : entry.getValue()){
+                if (sName.equalsIgnoreCase("content-encoding")){
+                    sEncoding = sValue.trim().toLowerCase();
+                    continue;
+                }
+                if (sName.equalsIgnoreCase("content-length")){
+                    continue;
+                }
+                if (sName.equalsIgnoreCase("content-type")){
+                    sContentType = sValue;
+                }
+                if (sName.equalsIgnoreCase("set-cookie")){
+                    for (HttpCookie cookie : HttpCookie.parse(sValue)){
+                        cookies.add(new Cookie.Builder(cookie.getName(), cookie.getValue()).build());
+                    }
+                }
+                headers.add(new Header(sName, sValue));
+            }
+        }
+        String sVersion = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        log.trace(String.format("createResponse() %s %s %d, Content-Encoding: %s", response.request().method(),
+                sVersion, response.statusCode(), sEncoding));
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine(sVersion + " " + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setCookies(new Cookies(cookies))
+                .setBody(decode(response.body(), sEncoding));
+        if (sContentType != null){
+            builder.setContentType(sContentType);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Method that decodes gzip or deflate body, deflate should be zlib format but some servers
+     * send raw deflate data, so zlib header is checked first
+     */
+    private static byte[] decode(byte[] body, String sEncoding){
+        if (body.length == 0 || sEncoding.equals("identity")){
+            return body;
+        }
+        try (InputStream inputStream = createDecodingStream(new ByteArrayInputStream(body), body[0], sEncoding)){
+            return inputStream.readAllBytes();
+        } catch (IOException e){
+            throw new UncheckedIOException("Response with Content-Encoding " + sEncoding + " can't be decoded", e);
+        }
+    }
+
+    private static InputStream createDecodingStream(InputStream inputStream, byte firstByte, String sEncoding) throws IOException {
+        switch (sEncoding){
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(inputStream);
+            case "deflate":
+                return new InflaterInputStream(inputStream, new Inflater((firstByte & 0x0F) != 8));
+            default:
+                throw new IOException("Unsupported Content-Encoding " + sEncoding);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package utils;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.testng.Assert;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Class that validates API JSON payloads against JSON schemas (src/main/resources/schemas)
+ * @description - schemas are read and compiled only once when this class is loaded: every schema
+ * node becomes Node object with already parsed types, required fields, enum values and compiled
+ * regex patterns, so validation of one payload is only one walk through JSON tree without parsing
+ * schema or compiling patterns again. Supported keywords (draft-07 subset): type (also list of types),
+ * properties, required, additionalProperties (true/false), items, enum, minLength, maxLength,
+ * minimum, maximum, pattern and $ref to other schema file in the same folder (e.g. "hero.schema.json")
+ */
+public class JsonSchemaUtils extends LoggerUtils {
+
+    /**
+     * Schemas of API payloads
+     */
+    public enum Schema {
+        USER("user.schema.json"),
+        HERO("hero.schema.json"),
+        API_ERROR("apiError.schema.json");
+
+        private final String sFileName;
+
+        Schema(String sFileName){
+            this.sFileName = sFileName;
+        }
+
+        public String getFileName(){
+            return sFileName;
+        }
+    }
+
+    private static final String SCHEMAS_FOLDER = "schemas/";
+    private static final Map<Schema, Node> compiledSchemas = new EnumMap<>(Schema.class);
+
+    static {
+        for (Schema schema : Schema.values()){
+            compiledSchemas.put(schema, compile(loadSchema(schema.getFileName())));
+        }
+    }
+
+    /**
+     * Class for compiled schema node
+     */
+    private static class Node {
+        private Set<String> types;
+        private Map<String, Node> properties;
+        private Set<String> required;
+        private boolean bAdditionalProperties = true;
+        private Node items;
+        private List<JsonElement> enumValues;
+        private Integer iMinLength;
+        private Integer iMaxLength;
+        private BigDecimal minimum;
+        private BigDecimal maximum;
+        private Pattern pattern;
+        private Schema ref;
+    }
+
+    //-------------------------------------------
+    //----------Compilation ---------------------
+    //-------------------------------------------
+
+    private static JsonObject loadSchema(String sFileName){
+        InputStream inputStream = JsonSchemaUtils.class.getClassLoader().getResourceAsStream(SCHEMAS_FOLDER + sFileName);
+        if (inputStream == null){
+            Assert.fail(String.format("Cannot find JSON schema %s!", SCHEMAS_FOLDER + sFileName));
+        }
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)){
+            return JsonParser.parseReader(reader).getAsJsonObject();
+        } catch (IOException | RuntimeException e){
+            Assert.fail(String.format("Cannot load JSON schema %s! Message: %s", sFileName, e.getMessage()));
+        }
+        return null;
+    }
+
+    private static Schema findSchema(String sFileName){
+        for (Schema schema : Schema.values()){
+            if (schema.getFileName().equals(sFileName)){
+                return schema;
+            }
+        }
+        Assert.fail(String.format("JSON schema $ref %s is not recognised!", sFileName));
+        return null;
+    }
+
+    /**
+     * Method that compiles schema (JSON object) into Node
+     *
+     * @param jsonSchema {JsonObject} - schema or part of the schema
+     *
+     * @return {Node} - compiled schema
+     */
+    private static Node compile(JsonObject jsonSchema){
+        Node node = new Node();
+        if (jsonSchema.has("$ref")){
+            // $ref is resolved when payload is validated, so schemas can reference each other
+            node.ref = findSchema(jsonSchema.get("$ref").getAsString());
+            return node;
+        }
+        if (jsonSchema.has("type")){
+            node.types = new HashSet<>();
+            JsonElement type = jsonSchema.get("type");
+            if (type.isJsonArray()){
+                type.getAsJsonArray().forEach(element -> node.types.add(element.getAsString()));
+            } else {
+                node.types.add(type.getAsString());
+            }
+        }
+        if (jsonSchema.has("properties")){
+            node.properties = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> entry : jsonSchema.getAsJsonObject("properties").entrySet()){
+                node.properties.put(entry.getKey(), compile(entry.getValue().getAsJsonObject()));
+            }
+        }
+        if (jsonSchema.has("required")){
+            node.required = new HashSet<>();
+            jsonSchema.getAsJsonArray("required").forEach(element -> node.required.add(element.getAsString()));
+        }
+        if (jsonSchema.has("additionalProperties")){
+            node.bAdditionalProperties = jsonSchema.get("additionalProperties").getAsBoolean();
+        }
+        if (jsonSchema.has("items")){
+            node.items = compile(jsonSchema.getAsJsonObject("items"));
+        }
+        if (jsonSchema.has("enum")){
+            node.enumValues = new ArrayList<>();
+            jsonSchema.getAsJsonArray("enum").forEach(node.enumValues::add);
+        }
+        if (jsonSchema.has("minLength")){
+            node.iMinLength = jsonSchema.get("minLength").getAsInt();
+        }
+        if (jsonSchema.has("maxLength")){
+            node.iMaxLength = jsonSchema.get("maxLength").getAsInt();
+        }
+        if (jsonSchema.has("minimum")){
+            node.minimum = jsonSchema.get("minimum").getAsBigDecimal();
+        }
+        if (jsonSchema.has("maximum")){
+            node.maximum = jsonSchema.get("maximum").getAsBigDecimal();
+        }
+        if (jsonSchema.has("pattern")){
+            node.pattern = Pattern.compile(jsonSchema.get("pattern").getAsString());
+        }
+        return node;
+    }
+
+    //-------------------------------------------
+    //----------Validation ----------------------
+    //-------------------------------------------
+
+    /**
+     * Method that returns all schema violations of the JSON payload
+     *
+     * @param schema {Schema} - schema of the payload e.g. Schema.USER
+     * @param json {JsonElement} - parsed payload
+     *
+     * @return {List<String>} - violations with JSON path e.g. "$.heroes[0].level: 81 is greater than maximum 80",
+     * empty list if payload is valid
+     */
+    public static List<String> getViolations(Schema schema, JsonElement json){
+        List<String> violations = new ArrayList<>();
+        validate(compiledSchemas.get(schema), json, "$", violations);
+        return violations;
+    }
+
+    /**
+     * Method that checks if JSON payload is valid and fails if it is not
+     *
+     * @param schema {Schema} - schema of the payload e.g. Schema.USER
+     * @param json {JsonElement} - parsed payload
+     */
+    public static void validate(Schema schema, JsonElement json){
+        List<String> violations = getViolations(schema, json);
+        if (!violations.isEmpty()){
+            Assert.fail(String.format("%s payload doesn't match schema %s! Violations: %s", schema, schema.getFileName(), violations));
+        }
+    }
+
+    private static void validate(Node node, JsonElement json, String sPath, List<String> violations){
+        if (node.ref != null){
+            node = compiledSchemas.get(node.ref);
+        }
+        String sType = getType(json);
+        if (node.types != null && !node.types.contains(sType)
+                && !(sType.equals("integer") && node.types.contains("number"))){
+            violations.add(String.format("%s: %s is not of type %s", sPath, sType, node.types));
+            return;
+        }
+        if (node.enumValues != null && !node.enumValues.contains(json)){
+            violations.add(String.format("%s: %s is not one of %s", sPath, json, node.enumValues));
+        }
+        switch (sType){
+            case "object":
+                validateObject(node, json.getAsJsonObject(), sPath, violations);
+                break;
+            case "array":
+                if (node.items != null){
+                    JsonArray array = json.getAsJsonArray();
+                    for (int i = 0; i < array.size(); i++){
+                        validate(node.items, array.get(i), sPath + "[" + i + "]", violations);
+                    }
+                }
+                break;
+            case "string":
+                validateString(node, json.getAsString(), sPath, violations);
+                break;
+            case "integer":
+            case "number":
+                validateNumber(node, json.getAsBigDecimal(), sPath, violations);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void validateObject(Node node, JsonObject object, String sPath, List<String> violations){
+        if (node.required != null){
+            for (String sRequired : node.required){
+                if (!object.has(sRequired)){
+                    violations.add(String.format("%s: required property '%s' is missing", sPath, sRequired));
+                }
+            }
+        }
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()){
+            Node property = node.properties != null ? node.properties.get(entry.getKey()) : null;
+            if (property != null){
+                validate(property, entry.getValue(), sPath + "." + entry.getKey(), violations);
+            } else if (!node.bAdditionalProperties){
+                violations.add(String.format("%s: property '%s' is not allowed", sPath, entry.getKey()));
+            }
+        }
+    }
+
+    private static void validateString(Node node, String sValue, String sPath, List<String> violations){
+        if (node.iMinLength != null && sValue.length() < node.iMinLength){
+            violations.add(String.format("%s: '%s' is shorter than %d", sPath, sValue, node.iMinLength));
+        }
+        if (node.iMaxLength != null && sValue.length() > node.iMaxLength){
+            violations.add(String.format("%s: '%s' is longer than %d", sPath, sValue, node.iMaxLength));
+        }
+        if (node.pattern != null && !node.pattern.matcher(sValue).find()){
+            violations.add(String.format("%s: '%s' doesn't match pattern %s", sPath, sValue, node.pattern));
+        }
+    }
+
+    private static void validateNumber(Node node, BigDecimal value, String sPath, List<String> violations){
+        if (node.minimum != null && value.compareTo(node.minimum) < 0){
+            violations.add(String.format("%s: %s is less than minimum %s", sPath, value, node.minimum));
+        }
+        if (node.maximum != null && value.compareTo(node.maximum) > 0){
+            violations.add(String.format("%s: %s is greater than maximum %s", sPath, value, node.maximum));
+        }
+    }
+
+    /**
+     * Method that returns JSON schema type of the element, numbers without fraction are integers
+     */
+    private static String getType(JsonElement json){
+        if (json == null || json.isJsonNull()){
+            return "null";
+        }
+        if (json.isJsonObject()){
+            return "object";
+        }
+        if (json.isJsonArray()){
+            return "array";
+        }
+        JsonPrimitive primitive = json.getAsJsonPrimitive();
+        if (primitive.isBoolean()){
+            return "boolean";
+        }
+        if (primitive.isNumber()){
+            BigDecimal value = primitive.getAsBigDecimal();
+            return value.signum() == 0 || value.stripTrailingZeros().scale() <= 0 ? "integer" : "number";
+        }
+        return "string";
+    }
+}
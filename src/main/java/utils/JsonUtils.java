@@ -0,0 +1,194 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import objects.ApiError;
+import objects.Hero;
+import objects.User;
+import utils.JsonSchemaUtils.Schema;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class that converts API JSON bodies into User, Hero and ApiError objects and back
+ * @description - creating Gson (or GsonBuilder) is expensive, because every time it has to
+ * find out via reflection how each class is serialized. Gson is thread safe, so here it is
+ * created only once, and type adapters for our classes are created (compiled) only once
+ * when this class is loaded, and then shared by all API calls and all threads.
+ * Responses are read directly from the input stream, so there is no need to create
+ * String (or pretty String) from the body just to parse it again. Payload can be validated against
+ * precompiled JSON schema (JsonSchemaUtils) before it is mapped, then stream is parsed only once into
+ * JSON tree that is validated and mapped with the same type adapter
+ */
+public class JsonUtils extends LoggerUtils {
+
+    // simple Gson - User and ApiError have the same variable names as JSON response
+    private static final Gson gson = new Gson();
+    // Hero uses Expose annotation to decide which fields are deserialized from API response
+    private static final Gson exposeGson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
+
+    private static final TypeAdapter<User> userAdapter = gson.getAdapter(User.class);
+    private static final TypeAdapter<Hero> heroAdapter = exposeGson.getAdapter(Hero.class);
+    // Hero body for POST API call is serialized with simple Gson
+    private static final TypeAdapter<Hero> heroBodyAdapter = gson.getAdapter(Hero.class);
+    private static final TypeAdapter<ApiError> apiErrorAdapter = gson.getAdapter(ApiError.class);
+
+    /**
+     * Method that reads object from JSON using type adapter the same way as Gson.fromJson(),
+     * e.g. lenient and empty body returns null
+     *
+     * @param adapter {TypeAdapter} - precompiled type adapter
+     * @param reader {Reader} - JSON
+     *
+     * @return {T} - object or null if JSON is empty
+     */
+    private static <T> T read(TypeAdapter<T> adapter, Reader reader){
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.setLenient(true);
+        try {
+            jsonReader.peek();
+            return adapter.read(jsonReader);
+        } catch (EOFException e){
+            // empty body
+            return null;
+        } catch (IOException | IllegalStateException e){
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static <T> T read(TypeAdapter<T> adapter, InputStream inputStream){
+        return read(adapter, new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Method that reads JSON into tree, validates it against the schema and then
+     * maps it into object using type adapter (fails if payload doesn't match the schema)
+     *
+     * @param adapter {TypeAdapter} - precompiled type adapter
+     * @param reader {Reader} - JSON
+     * @param schema {Schema} - schema of the payload
+     *
+     * @return {T} - object
+     */
+    private static <T> T readValidated(TypeAdapter<T> adapter, Reader reader, Schema schema){
+        JsonReader jsonReader = new JsonReader(reader);
+        jsonReader.setLenient(true);
+        JsonElement json = JsonParser.parseReader(jsonReader);
+        JsonSchemaUtils.validate(schema, json);
+        return adapter.fromJsonTree(json);
+    }
+
+    private static <T> T read(TypeAdapter<T> adapter, InputStream inputStream, Schema schema, boolean bValidate){
+        Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+        return bValidate ? readValidated(adapter, reader, schema) : read(adapter, reader);
+    }
+
+    private static <T> T read(TypeAdapter<T> adapter, String sJson, Schema schema, boolean bValidate){
+        Reader reader = new StringReader(sJson);
+        return bValidate ? readValidated(adapter, reader, schema) : read(adapter, reader);
+    }
+
+    //-------------------------------------------
+    //----------Deserialization -----------------
+    //-------------------------------------------
+
+    public static User readUser(InputStream inputStream){
+        return read(userAdapter, inputStream);
+    }
+
+    public static User readUser(String sJson){
+        return read(userAdapter, new StringReader(sJson));
+    }
+
+    public static User readUser(InputStream inputStream, boolean bValidate){
+        return read(userAdapter, inputStream, Schema.USER, bValidate);
+    }
+
+    public static User readUser(String sJson, boolean bValidate){
+        return read(userAdapter, sJson, Schema.USER, bValidate);
+    }
+
+    public static Hero readHero(InputStream inputStream){
+        return read(heroAdapter, inputStream);
+    }
+
+    public static Hero readHero(String sJson){
+        return read(heroAdapter, new StringReader(sJson));
+    }
+
+    public static Hero readHero(InputStream inputStream, boolean bValidate){
+        return read(heroAdapter, inputStream, Schema.HERO, bValidate);
+    }
+
+    public static Hero readHero(String sJson, boolean bValidate){
+        return read(heroAdapter, sJson, Schema.HERO, bValidate);
+    }
+
+    public static ApiError readApiError(InputStream inputStream){
+        return read(apiErrorAdapter, inputStream);
+    }
+
+    public static ApiError readApiError(String sJson){
+        return read(apiErrorAdapter, new StringReader(sJson));
+    }
+
+    public static ApiError readApiError(InputStream inputStream, boolean bValidate){
+        return read(apiErrorAdapter, inputStream, Schema.API_ERROR, bValidate);
+    }
+
+    public static ApiError readApiError(String sJson, boolean bValidate){
+        return read(apiErrorAdapter, sJson, Schema.API_ERROR, bValidate);
+    }
+
+    //-------------------------------------------
+    //----------Serialization -------------------
+    //-------------------------------------------
+
+    /**
+     * Method that writes object into JSON using type adapter, writer is created by Gson,
+     * so JSON is the same as with Gson.toJson() (e.g. null fields are not written)
+     */
+    private static <T> String write(TypeAdapter<T> adapter, T value){
+        StringWriter stringWriter = new StringWriter();
+        try {
+            adapter.write(gson.newJsonWriter(stringWriter), value);
+        } catch (IOException e){
+            throw new JsonIOException(e);
+        }
+        return stringWriter.toString();
+    }
+
+    /**
+     * Method that converts User into JSON body for POST API call
+     *
+     * @param user {User} - User object
+     *
+     * @return {String} - User in JSON format
+     */
+    public static String writeUser(User user){
+        return write(userAdapter, user);
+    }
+
+    /**
+     * Method that converts Hero into JSON body for POST API call
+     *
+     * @param hero {Hero} - Hero object
+     *
+     * @return {String} - Hero in JSON format
+     */
+    public static String writeHero(Hero hero){
+        return write(heroBodyAdapter, hero);
+    }
+}
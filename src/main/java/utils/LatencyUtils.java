@@ -0,0 +1,165 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class that records how long API calls and database queries take, so we can see
+ * if slow test run is caused by the backend, fixtures or the browser
+ * @description - every API endpoint (e.g. "GET /api/users/findByUsername/") and database query
+ * (e.g. "DB getUserID()") together with status code (or OK/ERROR) has its own histogram.
+ * Histograms are lock-free (atomic counters), so recording doesn't slow down parallel tests.
+ * Durations are stored in microseconds in buckets that are at most 1/16 (~6%) wide, so percentiles
+ * are precise enough and histogram has fixed size no matter how many calls are recorded.
+ * Summary (count, p50, p95, p99, max) is logged when suite is finished and added to Extent report
+ */
+public class LatencyUtils extends LoggerUtils {
+
+    // durations below 16 microseconds have their own bucket, and every power of two above is
+    // split into 16 buckets
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    // histograms for "endpoint status"
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Class that counts durations of one endpoint with one status, it is also used on its own
+     * e.g. by LoadGeneratorUtils for durations of one reporting interval
+     */
+    static class LatencyHistogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final LongAccumulator maxMicros = new LongAccumulator(Long::max, 0);
+
+        void record(long lMicros){
+            buckets.incrementAndGet(getBucketIndex(lMicros));
+            count.increment();
+            totalMicros.add(lMicros);
+            maxMicros.accumulate(lMicros);
+        }
+
+        long getCount(){
+            return count.sum();
+        }
+
+        /**
+         * Method that returns count, p50, p95, p99, max and avg of recorded durations
+         *
+         * @return {String} - e.g. "count: 12, p50: 8.1 ms, p95: 15.3 ms, p99: 15.3 ms, max: 15.1 ms, avg: 9.0 ms"
+         */
+        String getSummary(){
+            long lCount = Math.max(count.sum(), 1);
+            return String.format("count: %d, p50: %s, p95: %s, p99: %s, max: %s, avg: %s", count.sum(),
+                    formatMillis(getPercentile(0.50)), formatMillis(getPercentile(0.95)),
+                    formatMillis(getPercentile(0.99)), formatMillis(maxMicros.get()),
+                    formatMillis(totalMicros.sum() / lCount));
+        }
+
+        /**
+         * Method that returns duration for the percentile, it is the upper bound of the bucket
+         * where the percentile is, so it is never lower than the real value
+         *
+         * @param dPercentile {double} - percentile e.g. 0.95
+         *
+         * @return {long} - duration in microseconds
+         */
+        private long getPercentile(double dPercentile){
+            long lTotal = 0;
+            long[] counts = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++){
+                counts[i] = buckets.get(i);
+                lTotal += counts[i];
+            }
+            long lRank = (long) Math.ceil(dPercentile * lTotal);
+            long lSeen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++){
+                lSeen += counts[i];
+                if (lSeen >= lRank && counts[i] > 0){
+                    return Math.min(getBucketUpperBound(i), maxMicros.get());
+                }
+            }
+            return maxMicros.get();
+        }
+    }
+
+    private static int getBucketIndex(long lMicros){
+        if (lMicros < SUB_BUCKET_COUNT){
+            return (int) Math.max(lMicros, 0);
+        }
+        int iExponent = 63 - Long.numberOfLeadingZeros(lMicros);
+        int iSubBucket = (int) (lMicros >>> (iExponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return (iExponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + iSubBucket;
+    }
+
+    private static long getBucketUpperBound(int iIndex){
+        if (iIndex < SUB_BUCKET_COUNT){
+            return iIndex;
+        }
+        int iExponent = iIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int iSubBucket = iIndex % SUB_BUCKET_COUNT;
+        long lWidth = 1L << (iExponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKET_COUNT + iSubBucket) * lWidth + lWidth - 1;
+    }
+
+    /**
+     * Method that records duration of API call or database query from start time until now
+     *
+     * @param sEndpoint {String} - endpoint e.g. "GET /api/users/findByUsername/" or "DB getUserID()"
+     * @param sStatus {String} - status code e.g. "200" or "OK"/"ERROR" for database
+     * @param lStartNanos {long} - System.nanoTime() when call was started
+     */
+    public static void record(String sEndpoint, String sStatus, long lStartNanos){
+        long lMicros = (System.nanoTime() - lStartNanos) / 1000;
+        histograms.computeIfAbsent(sEndpoint + " " + sStatus, k -> new LatencyHistogram()).record(lMicros);
+    }
+
+    public static void record(String sEndpoint, int iStatus, long lStartNanos){
+        record(sEndpoint, String.valueOf(iStatus), lStartNanos);
+    }
+
+    /**
+     * Method that returns summary for every endpoint and status sorted by name
+     *
+     * @return {Map<String, String>} - e.g. "GET /api/users/findByUsername/ 200" ->
+     * "count: 12, p50: 8.1 ms, p95: 15.3 ms, p99: 15.3 ms, max: 15.1 ms, avg: 9.0 ms"
+     */
+    public static Map<String, String> getSummary(){
+        Map<String, String> summary = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()){
+            LatencyHistogram histogram = entry.getValue();
+            if (histogram.getCount() == 0){
+                continue;
+            }
+            summary.put(entry.getKey(), histogram.getSummary());
+        }
+        return summary;
+    }
+
+    private static String formatMillis(long lMicros){
+        return String.format("%.1f ms", lMicros / 1000.0);
+    }
+
+    /**
+     * Method that logs summary for every endpoint, it is called when suite is finished
+     */
+    public static void logLatencySummary(){
+        for (Map.Entry<String, String> entry : getSummary().entrySet()){
+            log.info(String.format("[LATENCY] %s %s", entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Method that removes all recorded durations, it is called when suite is started
+     */
+    public static void clear(){
+        histograms.clear();
+    }
+}
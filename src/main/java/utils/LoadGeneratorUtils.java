@@ -0,0 +1,345 @@
+package utils;
+
+import objects.Hero;
+import objects.User;
+import org.testng.Assert;
+import utils.LatencyUtils.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class that generates load on the users and heroes API with the same API calls (RestApiUtils)
+ * that tests use, so backend load and soak checks don't need separate tool
+ * @description - load is a weighted mix of scenarios (loadScenarioMix e.g. "USER_LIFECYCLE:2,READ_USER:5,HERO_LIFECYCLE:3"):
+ * - USER_LIFECYCLE - POST user, POST loadHeroesPerUser heroes, GET user, DELETE heroes and user
+ * - READ_USER - GET user (one shared user created when load starts)
+ * - HERO_LIFECYCLE - POST hero of the shared user, GET hero, DELETE hero
+ * Load is executed for loadDuration seconds in one of two modes:
+ * - loadTargetRate > 0 - scenarios are started at the target rate (per second) no matter how fast backend answers,
+ *   at most loadConcurrency at the same time, scenario that can't be started is counted as missed. Duration is measured
+ *   from the time scenario should have been started, so slow backend is visible in percentiles and not hidden by lower rate
+ * - loadTargetRate = 0 - loadConcurrency workers execute scenarios one after another as fast as backend answers
+ * Every loadReportInterval seconds throughput, errors and percentiles of that interval are logged ("[LOAD]"),
+ * and at the end the same for every scenario. Durations of single API calls are recorded in LatencyUtils as usual.
+ * Users and heroes that are not deleted because scenario failed are submitted to CleanupUtils.
+ * Single-flight and cache are turned off for scenarios, so every API call of the load reaches backend
+ */
+public class LoadGeneratorUtils extends LoggerUtils {
+
+    private static final String LOAD_PREFIX = "ld";
+
+    /**
+     * Scenarios that can be used in the load mix
+     */
+    public enum Scenario {
+        USER_LIFECYCLE, READ_USER, HERO_LIFECYCLE
+    }
+
+    /**
+     * Class that stores durations and errors of one reporting interval or one scenario
+     */
+    private static class LoadStatistics {
+        private final long lStart = System.nanoTime();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder missed = new LongAdder();
+    }
+
+    private final Map<Scenario, Integer> scenarioMix;
+    private final Scenario[] weightedScenarios;
+    private final long lDurationNanos;
+    private final double dTargetRate;
+    private final int iConcurrency;
+    private final int iHeroesPerUser;
+
+    private final ExecutorService executor = AsyncRestApiUtils.getExecutor();
+    private final AtomicLong iterations = new AtomicLong();
+    private final AtomicReference<LoadStatistics> interval = new AtomicReference<>(new LoadStatistics());
+    private final Map<Scenario, LoadStatistics> scenarioStatistics = new EnumMap<>(Scenario.class);
+    private final LoadStatistics total = new LoadStatistics();
+    private User sharedUser;
+    private long lLoadStart;
+
+    private LoadGeneratorUtils(Map<Scenario, Integer> scenarioMix, long lDuration, double dTargetRate, int iConcurrency, int iHeroesPerUser) {
+        this.scenarioMix = scenarioMix;
+        this.lDurationNanos = TimeUnit.SECONDS.toNanos(lDuration);
+        this.dTargetRate = dTargetRate;
+        this.iConcurrency = iConcurrency;
+        this.iHeroesPerUser = iHeroesPerUser;
+        List<Scenario> weighted = new ArrayList<>();
+        for (Map.Entry<Scenario, Integer> entry : scenarioMix.entrySet()){
+            scenarioStatistics.put(entry.getKey(), new LoadStatistics());
+            for (int i = 0; i < entry.getValue(); i++){
+                weighted.add(entry.getKey());
+            }
+        }
+        if (weighted.isEmpty()){
+            Assert.fail("Load scenario mix doesn't have any scenario with weight above 0!");
+        }
+        this.weightedScenarios = weighted.toArray(new Scenario[0]);
+    }
+
+    /**
+     * Method that executes load with parameters from the property file and checks error rate
+     *
+     * @return {boolean} - true if errors and missed scenarios are at most loadMaxErrorRate of all scenarios
+     */
+    public static boolean run(){
+        return run(parseScenarioMix(PropertiesUtils.getLoadScenarioMix()), PropertiesUtils.getLoadDuration(),
+                PropertiesUtils.getLoadTargetRate(), PropertiesUtils.getLoadConcurrency());
+    }
+
+    /**
+     * Method that executes load and checks error rate
+     *
+     * @param scenarioMix {Map<Scenario, Integer>} - scenarios with their weights
+     * @param lDuration {long} - how long load is executed in seconds
+     * @param dTargetRate {double} - how many scenarios are started per second, 0 for as fast as possible
+     * @param iConcurrency {int} - max number of scenarios executed at the same time
+     *
+     * @return {boolean} - true if errors and missed scenarios are at most loadMaxErrorRate of all scenarios
+     */
+    public static boolean run(Map<Scenario, Integer> scenarioMix, long lDuration, double dTargetRate, int iConcurrency){
+        LoadGeneratorUtils load = new LoadGeneratorUtils(scenarioMix, lDuration, dTargetRate, iConcurrency, PropertiesUtils.getLoadHeroesPerUser());
+        return load.execute();
+    }
+
+    /**
+     * Method that converts scenario mix from the property file into map of scenarios and weights
+     *
+     * @param sScenarioMix {String} - e.g. "USER_LIFECYCLE:2,READ_USER:5,HERO_LIFECYCLE:3"
+     *
+     * @return {Map<Scenario, Integer>} - scenarios with their weights
+     */
+    public static Map<Scenario, Integer> parseScenarioMix(String sScenarioMix){
+        Map<Scenario, Integer> scenarioMix = new EnumMap<>(Scenario.class);
+        for (String sEntry : sScenarioMix.split(",")){
+            String[] parts = sEntry.trim().split(":");
+            try {
+                scenarioMix.put(Scenario.valueOf(parts[0].trim().toUpperCase()), parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1);
+            } catch (IllegalArgumentException e){
+                Assert.fail(String.format("Cannot parse load scenario '%s', expected one of %s with weight e.g. READ_USER:5",
+                        sEntry, Arrays.toString(Scenario.values())));
+            }
+        }
+        return scenarioMix;
+    }
+
+    private boolean execute(){
+        log.info(String.format("[LOAD] Starting load for %d s, mix: %s, %s, concurrency: %d", TimeUnit.NANOSECONDS.toSeconds(lDurationNanos),
+                scenarioMix, dTargetRate > 0 ? "target rate: " + dTargetRate + "/s" : "closed loop", iConcurrency));
+        if (scenarioMix.containsKey(Scenario.READ_USER) || scenarioMix.containsKey(Scenario.HERO_LIFECYCLE)){
+            sharedUser = User.createNewUniqueUser(LOAD_PREFIX + "shared");
+            RestApiUtils.postUser(sharedUser);
+        }
+        long lReportInterval = PropertiesUtils.getLoadReportInterval();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lLoadStart = System.nanoTime();
+        interval.set(new LoadStatistics());
+        reporter.scheduleAtFixedRate(this::reportInterval, lReportInterval, lReportInterval, TimeUnit.SECONDS);
+        Semaphore permits = new Semaphore(iConcurrency);
+        try {
+            if (dTargetRate > 0){
+                runAtTargetRate(permits);
+            } else {
+                runClosedLoop(permits);
+            }
+            // wait until all started scenarios are finished
+            permits.acquireUninterruptibly(iConcurrency);
+        } finally {
+            reporter.shutdownNow();
+            if (sharedUser != null){
+                CleanupUtils.deleteUser(sharedUser.getUsername());
+            }
+        }
+        // last interval is logged only if it is not too short for throughput to make sense
+        if (System.nanoTime() - interval.get().lStart >= TimeUnit.SECONDS.toNanos(1)){
+            reportInterval();
+        }
+        return reportTotal();
+    }
+
+    /**
+     * Method that starts scenarios at the target rate until duration is over
+     */
+    private void runAtTargetRate(Semaphore permits){
+        long lPeriod = (long) (TimeUnit.SECONDS.toNanos(1) / dTargetRate);
+        long lEnd = lLoadStart + lDurationNanos;
+        for (long lScheduled = lLoadStart; lScheduled < lEnd; lScheduled += lPeriod){
+            long lWait;
+            while ((lWait = lScheduled - System.nanoTime()) > 0){
+                LockSupport.parkNanos(lWait);
+            }
+            Scenario scenario = pickScenario();
+            if (!permits.tryAcquire()){
+                interval.get().missed.increment();
+                scenarioStatistics.get(scenario).missed.increment();
+                total.missed.increment();
+                continue;
+            }
+            long lStart = lScheduled;
+            executor.execute(() -> {
+                try {
+                    runScenario(scenario, lStart);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Method that starts loadConcurrency workers which execute scenarios one after another until duration is over
+     */
+    private void runClosedLoop(Semaphore permits){
+        long lEnd = lLoadStart + lDurationNanos;
+        for (int i = 0; i < iConcurrency; i++){
+            permits.acquireUninterruptibly();
+            executor.execute(() -> {
+                try {
+                    while (System.nanoTime() - lEnd < 0){
+                        runScenario(pickScenario(), System.nanoTime());
+                    }
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    private Scenario pickScenario(){
+        return weightedScenarios[ThreadLocalRandom.current().nextInt(weightedScenarios.length)];
+    }
+
+    /**
+     * Method that executes scenario and records its duration (from lStart) or error
+     */
+    private void runScenario(Scenario scenario, long lStart){
+        boolean bSuccess = true;
+        ApiClientUtils.disableResponseSharing();
+        try {
+            switch (scenario){
+                case USER_LIFECYCLE:
+                    runUserLifecycle();
+                    break;
+                case READ_USER:
+                    RestApiUtils.getUser(sharedUser.getUsername());
+                    break;
+                case HERO_LIFECYCLE:
+                    runHeroLifecycle();
+                    break;
+            }
+        } catch (AssertionError | Exception e){
+            bSuccess = false;
+            log.warn(String.format("Load scenario %s failed! Message: %s", scenario, e.getMessage()));
+        } finally {
+            ApiClientUtils.resetResponseSharing();
+        }
+        long lMicros = (System.nanoTime() - lStart) / 1000;
+        for (LoadStatistics statistics : new LoadStatistics[]{interval.get(), scenarioStatistics.get(scenario), total}){
+            if (bSuccess){
+                statistics.histogram.record(lMicros);
+            } else {
+                statistics.errors.increment();
+            }
+        }
+    }
+
+    private void runUserLifecycle(){
+        String sPrefix = LOAD_PREFIX + iterations.incrementAndGet();
+        User user = User.createNewUniqueUser(sPrefix);
+        List<Hero> heroes = Hero.createNewUniqueHeroes(user, sPrefix, iHeroesPerUser);
+        boolean bUserPosted = false;
+        List<Hero> postedHeroes = new ArrayList<>();
+        try {
+            RestApiUtils.postUser(user);
+            bUserPosted = true;
+            for (Hero hero : heroes){
+                RestApiUtils.postHero(hero);
+                postedHeroes.add(hero);
+            }
+            RestApiUtils.getUser(user.getUsername());
+            while (!postedHeroes.isEmpty()){
+                RestApiUtils.deleteHero(postedHeroes.get(0).getHeroName());
+                postedHeroes.remove(0);
+            }
+            RestApiUtils.deleteUser(user.getUsername());
+            bUserPosted = false;
+        } finally {
+            for (Hero hero : postedHeroes){
+                CleanupUtils.deleteHero(hero.getHeroName());
+            }
+            if (bUserPosted){
+                CleanupUtils.deleteUser(user.getUsername());
+            }
+        }
+    }
+
+    private void runHeroLifecycle(){
+        Hero hero = Hero.createNewUniqueHeroes(sharedUser, LOAD_PREFIX + iterations.incrementAndGet(), 1).get(0);
+        RestApiUtils.postHero(hero);
+        try {
+            RestApiUtils.getHero(hero.getHeroName());
+        } finally {
+            try {
+                RestApiUtils.deleteHero(hero.getHeroName());
+            } catch (AssertionError | Exception e){
+                CleanupUtils.deleteHero(hero.getHeroName());
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Method that logs statistics of the interval that just finished and starts new one
+     */
+    private void reportInterval(){
+        LoadStatistics finished = interval.getAndSet(new LoadStatistics());
+        double dSeconds = (System.nanoTime() - finished.lStart) / 1e9;
+        log.info(String.format("[LOAD] %.0f-%.0f s %s", (finished.lStart - lLoadStart) / 1e9, (System.nanoTime() - lLoadStart) / 1e9,
+                formatStatistics(finished, dSeconds)));
+    }
+
+    /**
+     * Method that logs statistics of the whole load and of every scenario
+     *
+     * @return {boolean} - true if error rate is at most loadMaxErrorRate
+     */
+    private boolean reportTotal(){
+        double dSeconds = lDurationNanos / 1e9;
+        for (Map.Entry<Scenario, LoadStatistics> entry : scenarioStatistics.entrySet()){
+            log.info(String.format("[LOAD] %s %s", entry.getKey(), formatStatistics(entry.getValue(), dSeconds)));
+        }
+        log.info("[LOAD] TOTAL " + formatStatistics(total, dSeconds));
+        long lFailed = total.errors.sum() + total.missed.sum();
+        long lAll = total.histogram.getCount() + lFailed;
+        double dErrorRate = lAll == 0 ? 0 : (double) lFailed / lAll;
+        double dMaxErrorRate = PropertiesUtils.getLoadMaxErrorRate();
+        if (dErrorRate > dMaxErrorRate){
+            log.error(String.format("[LOAD] Error rate %.2f%% is above %.2f%%", dErrorRate * 100, dMaxErrorRate * 100));
+        }
+        return dErrorRate <= dMaxErrorRate;
+    }
+
+    private static String formatStatistics(LoadStatistics statistics, double dSeconds){
+        return String.format("throughput: %.1f/s, errors: %d, missed: %d, %s", statistics.histogram.getCount() / Math.max(dSeconds, 0.001),
+                statistics.errors.sum(), statistics.missed.sum(), statistics.histogram.getSummary());
+    }
+}
@@ -4,6 +4,8 @@ import org.testng.Assert;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -51,6 +53,8 @@ public class PropertiesUtils extends LoggerUtils{
     /**
      * Method that takes the name of a specific property defined in the property file and
      * returns a value of that property defined in the property file
+     * @description - property can be overridden with system property with the same name
+     * e.g. -Denvironment=standin or System.setProperty() in suite listener
      *
      * @param sProperty {String} - the name of the property defined in the property file
      *
@@ -59,11 +63,26 @@ public class PropertiesUtils extends LoggerUtils{
     private static String getProperty(String sProperty){
 
         log.trace(String.format("getProperty: %s",sProperty));
-        String sResult = properties.getProperty(sProperty);
+        String sResult = System.getProperty(sProperty, properties.getProperty(sProperty));
         Assert.assertNotNull(sResult, String.format("Cannot find property %s in %s file",sProperty,sPropertiesPath));
         return sResult;
     }
 
+    /**
+     * Method that returns the value of the property for the current environment
+     * @description - property with environment prefix (e.g. testDbPoolMaxSize) overrides
+     * the property without it (dbPoolMaxSize), so settings can be different for every environment
+     *
+     * @param sProperty {String} - the name of the property without environment e.g. dbPoolMaxSize
+     *
+     * @return {String} - value of the property for the current environment
+     */
+    private static String getEnvironmentProperty(String sProperty){
+        String sEnvironmentProperty = getEnvironment().toLowerCase() + sProperty.substring(0, 1).toUpperCase() + sProperty.substring(1);
+        String sResult = System.getProperty(sEnvironmentProperty, properties.getProperty(sEnvironmentProperty));
+        return sResult != null ? sResult : getProperty(sProperty);
+    }
+
     /**
      * Method that returns the value of the property environment defined in the property file
      *
@@ -104,7 +123,17 @@ public class PropertiesUtils extends LoggerUtils{
     }
 
     /**
-     * Method that gets the base URL based on the test environment (local, test or prod)
+     * Method that returns the value of the property standInBaseUrl defined in the property file
+     * @description - URL of in-process stand-in server for users and heroes API (StandInApiServer)
+     *
+     * @return {String} - value of the property standInBaseUrl from the property file
+     */
+    public static String getStandInBaseUrl(){
+        return getProperty("standInBaseUrl");
+    }
+
+    /**
+     * Method that gets the base URL based on the test environment (local, test, prod or standin)
      * defined in the property file
      *
      * @return {String} - URL to an application on local the machine, test environment or production
@@ -125,6 +154,10 @@ public class PropertiesUtils extends LoggerUtils{
                 sBaseUrl = getProdBaseUrl();
                 break;
             }
+            case "standin":{
+                sBaseUrl = getStandInBaseUrl();
+                break;
+            }
             default:{
                 Assert.fail(String.format("Cannot get BaseUrl! Environment %s is not recognised ", sEnvironment));
             }
@@ -403,4 +436,579 @@ public class PropertiesUtils extends LoggerUtils{
         return getProperty("databaseDriver");
     }
 
+    /**
+     * Method that returns the value of the property apiMaxTotalConnections which
+     * is the maximum number of connections in the pool shared by all API calls
+     *
+     * @return {int} - maximum number of pooled API connections
+     */
+    public static int getApiMaxTotalConnections(){
+        return Integer.parseInt(getProperty("apiMaxTotalConnections"));
+    }
+
+    /**
+     * Method that returns the value of the property apiMaxConnectionsPerRoute which
+     * is the maximum number of pooled connections to the same host
+     *
+     * @return {int} - maximum number of pooled API connections per route
+     */
+    public static int getApiMaxConnectionsPerRoute(){
+        return Integer.parseInt(getProperty("apiMaxConnectionsPerRoute"));
+    }
+
+    /**
+     * Method that returns the value of the property apiConnectionTimeToLive which
+     * is how long (in seconds) pooled connection can be kept alive and reused
+     *
+     * @return {long} - time to live of pooled API connection in seconds
+     */
+    public static long getApiConnectionTimeToLive(){
+        return Long.parseLong(getProperty("apiConnectionTimeToLive"));
+    }
+
+    /**
+     * Method that returns the value of the property apiConnectionTimeout which
+     * is how long (in seconds) we wait for connection to the server to be established
+     *
+     * @return {int} - API connection timeout in seconds
+     */
+    public static int getApiConnectionTimeout(){
+        return Integer.parseInt(getProperty("apiConnectionTimeout"));
+    }
+
+    /**
+     * Method that returns the value of the property apiSocketTimeout which
+     * is how long (in seconds) we wait for the response data
+     *
+     * @return {int} - API socket timeout in seconds
+     */
+    public static int getApiSocketTimeout(){
+        return Integer.parseInt(getProperty("apiSocketTimeout"));
+    }
+
+    /**
+     * Method that returns the value of the property adminAuthMode which is how API calls
+     * made with admin credentials are authenticated (challenge, preemptive or session)
+     *
+     * @return {String} - auth mode for the admin user
+     */
+    public static String getAdminAuthMode(){
+        return getProperty("adminAuthMode");
+    }
+
+    /**
+     * Method that returns the value of the property endUserAuthMode which is how API calls
+     * made with end user credentials are authenticated (challenge, preemptive or session)
+     *
+     * @return {String} - auth mode for the end user
+     */
+    public static String getEndUserAuthMode(){
+        return getProperty("endUserAuthMode");
+    }
+
+    /**
+     * Method that returns the value of the property defaultAuthMode which is how API calls
+     * made with all other credentials are authenticated (challenge, preemptive or session)
+     *
+     * @return {String} - default auth mode
+     */
+    public static String getDefaultAuthMode(){
+        return getProperty("defaultAuthMode");
+    }
+
+    /**
+     * Method that returns the value of the property sessionCookieName which is the name
+     * of the cookie where application stores session e.g. JSESSIONID
+     *
+     * @return {String} - session cookie name
+     */
+    public static String getSessionCookieName(){
+        return getProperty("sessionCookieName");
+    }
+
+    /**
+     * Method that returns the value of the property apiVerificationLevel which is how much
+     * POST, DELETE and GET API methods verify besides the main call (strict, status_only or trust)
+     *
+     * @return {String} - default API verification level
+     */
+    public static String getApiVerificationLevel(){
+        return getProperty("apiVerificationLevel");
+    }
+
+    /**
+     * Method that returns the value of the property bulkApiConcurrency which is how many
+     * API calls bulk methods (e.g. postUsers, deleteUsers) send at the same time
+     *
+     * @return {int} - number of concurrent API calls in bulk methods
+     */
+    public static int getBulkApiConcurrency(){
+        return Integer.parseInt(getProperty("bulkApiConcurrency"));
+    }
+
+    /**
+     * Method that returns the value of the property apiCacheEnabled which is whether
+     * GET user and GET hero responses are cached
+     *
+     * @return {boolean} - true if responses are cached
+     */
+    public static boolean getApiCacheEnabled(){
+        return Boolean.parseBoolean(getProperty("apiCacheEnabled"));
+    }
+
+    /**
+     * Method that returns the value of the property apiCacheTimeToLive which is
+     * for how many seconds cached GET user and GET hero responses are used
+     *
+     * @return {long} - time to live of cached responses in seconds
+     */
+    public static long getApiCacheTimeToLive(){
+        return Long.parseLong(getProperty("apiCacheTimeToLive"));
+    }
+
+    /**
+     * Method that returns the value of the property apiCacheMaxSize which is how many
+     * GET user (and the same number of GET hero) responses can be cached
+     *
+     * @return {int} - max number of cached responses
+     */
+    public static int getApiCacheMaxSize(){
+        return Integer.parseInt(getProperty("apiCacheMaxSize"));
+    }
+
+    /**
+     * Method that returns the value of the property fixtureUserPoolProfile which is
+     * the default profile (username prefix) of users in the user pool
+     *
+     * @return {String} - default profile of pooled users
+     */
+    public static String getFixtureUserPoolProfile(){
+        return getProperty("fixtureUserPoolProfile");
+    }
+
+    /**
+     * Method that returns the value of the property fixtureUserPoolSize which is how many
+     * users of the default profile are created in the user pool when suite starts
+     *
+     * @return {int} - number of pooled users created at suite start
+     */
+    public static int getFixtureUserPoolSize(){
+        return Integer.parseInt(getProperty("fixtureUserPoolSize"));
+    }
+
+    /**
+     * Method that returns the value of the property cleanupBatchSize which is how many
+     * users and heroes created by tests are deleted together in the background
+     *
+     * @return {int} - cleanup batch size
+     */
+    public static int getCleanupBatchSize(){
+        return Integer.parseInt(getProperty("cleanupBatchSize"));
+    }
+
+    /**
+     * Method that returns the value of the property cleanupMaxAttempts which is how many
+     * times background cleanup tries to delete user or hero before it is reported as failed
+     *
+     * @return {int} - max number of attempts
+     */
+    public static int getCleanupMaxAttempts(){
+        return Integer.parseInt(getProperty("cleanupMaxAttempts"));
+    }
+
+    /**
+     * Method that returns the value of the property cleanupRetryDelay which is how many
+     * seconds background cleanup waits before it tries to delete user or hero again
+     *
+     * @return {long} - retry delay in seconds
+     */
+    public static long getCleanupRetryDelay(){
+        return Long.parseLong(getProperty("cleanupRetryDelay"));
+    }
+
+    /**
+     * Method that returns the value of the property cleanupDrainTimeout which is how many
+     * seconds suite waits at the end for background cleanup to delete everything
+     *
+     * @return {long} - drain timeout in seconds
+     */
+    public static long getCleanupDrainTimeout(){
+        return Long.parseLong(getProperty("cleanupDrainTimeout"));
+    }
+
+    /**
+     * Method that returns the value of the property apiLimiterEnabled which is true if number
+     * of API calls in flight is limited by adaptive limiter
+     *
+     * @return {boolean} - true if API limiter is enabled
+     */
+    public static boolean getApiLimiterEnabled(){
+        return Boolean.parseBoolean(getProperty("apiLimiterEnabled"));
+    }
+
+    /**
+     * Method that returns the value of the property apiLimiterInitialLimit which is how many
+     * API calls can be in flight at the same time when suite starts
+     *
+     * @return {int} - initial limit
+     */
+    public static int getApiLimiterInitialLimit(){
+        return Integer.parseInt(getProperty("apiLimiterInitialLimit"));
+    }
+
+    /**
+     * Method that returns the value of the property apiLimiterMaxLimit which is the highest
+     * number of API calls in flight that limiter can allow
+     *
+     * @return {int} - max limit
+     */
+    public static int getApiLimiterMaxLimit(){
+        return Integer.parseInt(getProperty("apiLimiterMaxLimit"));
+    }
+
+    /**
+     * Method that returns the value of the property apiLimiterLatencyThreshold which is how many
+     * milliseconds API call can take before limiter decreases the limit
+     *
+     * @return {long} - latency threshold in milliseconds
+     */
+    public static long getApiLimiterLatencyThreshold(){
+        return Long.parseLong(getProperty("apiLimiterLatencyThreshold"));
+    }
+
+    /**
+     * Method that returns the value of the property apiCompressionEnabled which is true if
+     * API client asks for gzip/deflate compressed responses
+     *
+     * @return {boolean} - true if API response compression is enabled
+     */
+    public static boolean getApiCompressionEnabled(){
+        return Boolean.parseBoolean(getProperty("apiCompressionEnabled"));
+    }
+
+    /**
+     * Method that returns the value of the property apiAsyncHttpVersion which is HTTP version
+     * of async API calls (HTTP_1_1 or HTTP_2)
+     *
+     * @return {String} - HTTP version
+     */
+    public static String getApiAsyncHttpVersion(){
+        return getProperty("apiAsyncHttpVersion");
+    }
+
+    /**
+     * Method that returns the value of the property loadScenarioMix which is weighted mix
+     * of scenarios executed in load mode e.g. "USER_LIFECYCLE:2,READ_USER:5"
+     *
+     * @return {String} - load scenario mix
+     */
+    public static String getLoadScenarioMix(){
+        return getProperty("loadScenarioMix");
+    }
+
+    /**
+     * Method that returns the value of the property loadDuration which is how many
+     * seconds load is executed
+     *
+     * @return {long} - load duration in seconds
+     */
+    public static long getLoadDuration(){
+        return Long.parseLong(getProperty("loadDuration"));
+    }
+
+    /**
+     * Method that returns the value of the property loadTargetRate which is how many
+     * scenarios are started per second in load mode (0 means as fast as possible)
+     *
+     * @return {double} - target rate per second
+     */
+    public static double getLoadTargetRate(){
+        return Double.parseDouble(getProperty("loadTargetRate"));
+    }
+
+    /**
+     * Method that returns the value of the property loadConcurrency which is max number
+     * of scenarios executed at the same time in load mode
+     *
+     * @return {int} - load concurrency
+     */
+    public static int getLoadConcurrency(){
+        return Integer.parseInt(getProperty("loadConcurrency"));
+    }
+
+    /**
+     * Method that returns the value of the property loadReportInterval which is how often
+     * (in seconds) throughput and percentiles are logged in load mode
+     *
+     * @return {long} - report interval in seconds
+     */
+    public static long getLoadReportInterval(){
+        return Long.parseLong(getProperty("loadReportInterval"));
+    }
+
+    /**
+     * Method that returns the value of the property loadHeroesPerUser which is how many
+     * heroes are created for every user in USER_LIFECYCLE load scenario
+     *
+     * @return {int} - heroes per user
+     */
+    public static int getLoadHeroesPerUser(){
+        return Integer.parseInt(getProperty("loadHeroesPerUser"));
+    }
+
+    /**
+     * Method that returns the value of the property loadMaxErrorRate which is the highest
+     * share of failed and missed scenarios (e.g. 0.01 = 1%) for load to pass
+     *
+     * @return {double} - max error rate
+     */
+    public static double getLoadMaxErrorRate(){
+        return Double.parseDouble(getProperty("loadMaxErrorRate"));
+    }
+
+    /**
+     * Method that returns the value of the property apiCassetteMode which is if API calls
+     * of the test are recorded or replayed (off, record or replay)
+     *
+     * @return {String} - cassette mode
+     */
+    public static String getApiCassetteMode(){
+        return getProperty("apiCassetteMode");
+    }
+
+    /**
+     * Method that returns the value of the property apiCassetteDirectory which is directory
+     * where recorded API calls (cassettes) are stored
+     *
+     * @return {String} - cassette directory
+     */
+    public static String getApiCassetteDirectory(){
+        return getProperty("apiCassetteDirectory");
+    }
+
+    /**
+     * Method that returns the value of the property apiSchemaValidation which is
+     * flag if User, Hero and ApiError payloads are validated against JSON schema
+     * (with STRICT verification level they are always validated)
+     *
+     * @return {boolean} - true if payloads are validated
+     */
+    public static boolean getApiSchemaValidation(){
+        return Boolean.parseBoolean(getProperty("apiSchemaValidation"));
+    }
+
+    /**
+     * Method that returns the value of the property apiSingleFlightEnabled which is
+     * flag if identical GET API calls that are in flight at the same time share one call
+     *
+     * @return {boolean} - true if identical GET API calls are coalesced
+     */
+    public static boolean getApiSingleFlightEnabled(){
+        return Boolean.parseBoolean(getProperty("apiSingleFlightEnabled"));
+    }
+
+    /**
+     * Method that returns the value of the property faultProxySuite which is
+     * path to the suite that is executed through the fault injecting proxy
+     *
+     * @return {String} - path to the suite xml
+     */
+    public static String getFaultProxySuite(){
+        return getProperty("faultProxySuite");
+    }
+
+    /**
+     * Method that returns the value of the property faultProxyEnvironment which is
+     * environment (local, test, prod or standin) of the suite executed through the fault injecting proxy
+     *
+     * @return {String} - environment
+     */
+    public static String getFaultProxyEnvironment(){
+        return getProperty("faultProxyEnvironment");
+    }
+
+    /**
+     * Method that returns the value of the property faultProxyTarget which is
+     * connection that goes through the fault injecting proxy: api or database
+     *
+     * @return {String} - target of the proxy
+     */
+    public static String getFaultProxyTarget(){
+        return getProperty("faultProxyTarget");
+    }
+
+    /**
+     * Method that returns the value of the property faultProxyPort which is
+     * local port of the fault injecting proxy
+     *
+     * @return {int} - port of the proxy
+     */
+    public static int getFaultProxyPort(){
+        return Integer.parseInt(getProperty("faultProxyPort"));
+    }
+
+    /**
+     * Method that returns the value of the property faultProxyRttSteps which is
+     * list of round trip times (in ms) the suite is executed with
+     *
+     * @return {List<Integer>} - round trip times e.g. [0, 50, 100, 200]
+     */
+    public static List<Integer> getFaultProxyRttSteps(){
+        List<Integer> steps = new ArrayList<>();
+        for (String sStep : getProperty("faultProxyRttSteps").split(",")){
+            steps.add(Integer.parseInt(sStep.trim()));
+        }
+        return steps;
+    }
+
+    /**
+     * Method that returns the value of the property faultProxyWarmUp which is
+     * flag if suite is executed once without latency before the RTT steps (it is not reported)
+     *
+     * @return {boolean} - true if there is warm-up run
+     */
+    public static boolean getFaultProxyWarmUp(){
+        return Boolean.parseBoolean(getProperty("faultProxyWarmUp"));
+    }
+
+    /**
+     * Method that returns the value of the property faultProxyJitter which is
+     * maximal random delay (in ms) the proxy adds in every direction
+     *
+     * @return {int} - jitter in ms
+     */
+    public static int getFaultProxyJitter(){
+        return Integer.parseInt(getProperty("faultProxyJitter"));
+    }
+
+    /**
+     * Method that returns the value of the property faultProxyBandwidth which is
+     * bandwidth cap (in KB/s) of every connection through the proxy, 0 means no cap
+     *
+     * @return {int} - bandwidth in KB/s
+     */
+    public static int getFaultProxyBandwidth(){
+        return Integer.parseInt(getProperty("faultProxyBandwidth"));
+    }
+
+    /**
+     * Method that returns the value of the property faultProxyResetRate which is
+     * share of connections through the proxy that are reset
+     *
+     * @return {double} - reset rate from 0 to 1
+     */
+    public static double getFaultProxyResetRate(){
+        return Double.parseDouble(getProperty("faultProxyResetRate"));
+    }
+
+    /**
+     * Method that returns the value of the property dbPoolMaxSize (for the current environment) which is
+     * maximal number of database connections in the pool
+     *
+     * @return {int} - maximal pool size
+     */
+    public static int getDbPoolMaxSize(){
+        return Integer.parseInt(getEnvironmentProperty("dbPoolMaxSize"));
+    }
+
+    /**
+     * Method that returns the value of the property dbConnectionTimeout (for the current environment) which is
+     * how many seconds query waits for database connection when all connections of the pool are in use
+     *
+     * @return {int} - connection timeout in seconds
+     */
+    public static int getDbConnectionTimeout(){
+        return Integer.parseInt(getEnvironmentProperty("dbConnectionTimeout"));
+    }
+
+    /**
+     * Method that returns the value of the property dbValidationTimeout (for the current environment) which is
+     * how many seconds validation of idle database connection can take
+     *
+     * @return {int} - validation timeout in seconds
+     */
+    public static int getDbValidationTimeout(){
+        return Integer.parseInt(getEnvironmentProperty("dbValidationTimeout"));
+    }
+
+    /**
+     * Method that returns the value of the property dbMaxLifetime (for the current environment) which is
+     * how many seconds database connection can be used before it is closed
+     *
+     * @return {int} - max lifetime in seconds
+     */
+    public static int getDbMaxLifetime(){
+        return Integer.parseInt(getEnvironmentProperty("dbMaxLifetime"));
+    }
+
+    /**
+     * Method that returns the value of the property dbLeakDetectionThreshold (for the current environment) which is
+     * after how many seconds borrowed database connection is reported as leak (0 = no leak detection)
+     *
+     * @return {int} - leak detection threshold in seconds
+     */
+    public static int getDbLeakDetectionThreshold(){
+        return Integer.parseInt(getEnvironmentProperty("dbLeakDetectionThreshold"));
+    }
+
+    /**
+     * Method that returns the value of the property dbPrepStmtCacheSize (for the current environment) which is
+     * how many server-side prepared statements are cached per database connection
+     *
+     * @return {int} - prepared statement cache size
+     */
+    public static int getDbPrepStmtCacheSize(){
+        return Integer.parseInt(getEnvironmentProperty("dbPrepStmtCacheSize"));
+    }
+
+    /**
+     * Method that returns the value of the property dbRowMapperEnabled which is
+     * flag if DatabaseUser and DatabaseHero are mapped with row mappers written by hand (DatabaseRowMappers)
+     * instead of BeanProcessor that uses reflection
+     *
+     * @return {boolean} - true if row mappers are used
+     */
+    public static boolean getDbRowMapperEnabled(){
+        return Boolean.parseBoolean(getProperty("dbRowMapperEnabled"));
+    }
+
+    /**
+     * Method that returns the value of the property dbRowMapperBenchmarkRows which is
+     * number of rows in the result set of row mapper benchmark
+     *
+     * @return {int} - number of rows
+     */
+    public static int getDbRowMapperBenchmarkRows(){
+        return Integer.parseInt(getProperty("dbRowMapperBenchmarkRows"));
+    }
+
+    /**
+     * Method that returns the value of the property dbRowMapperBenchmarkIterations which is
+     * how many times every handler maps the result set in row mapper benchmark (after the same number of warm-up iterations)
+     *
+     * @return {int} - number of iterations
+     */
+    public static int getDbRowMapperBenchmarkIterations(){
+        return Integer.parseInt(getProperty("dbRowMapperBenchmarkIterations"));
+    }
+
+    /**
+     * Method that returns the value of the property dbFetchSize (for the current environment) which is
+     * how many rows are read from the database at a time when table is read as stream
+     *
+     * @return {int} - fetch size
+     */
+    public static int getDbFetchSize(){
+        return Integer.parseInt(getEnvironmentProperty("dbFetchSize"));
+    }
+
+    /**
+     * Method that returns the value of the property dbInChunkSize (for the current environment) which is
+     * maximal number of keys in one IN (...) query when many users or heroes are loaded at once
+     *
+     * @return {int} - chunk size
+     */
+    public static int getDbInChunkSize(){
+        return Integer.parseInt(getEnvironmentProperty("dbInChunkSize"));
+    }
 }
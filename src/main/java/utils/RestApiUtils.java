@@ -1,22 +1,136 @@
 package utils;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import data.APICalls;
-import io.restassured.RestAssured;
-import io.restassured.http.ContentType;
+import io.restassured.http.Method;
 import io.restassured.response.Response;
 import objects.ApiError;
 import objects.Hero;
 import objects.User;
 import org.testng.Assert;
+import java.io.IOException;
+import java.io.InputStream;
 
 public class RestApiUtils extends LoggerUtils {
 
-     private static final String BASE_URL = PropertiesUtils.getBaseUrl();
      private static final String sAdminUser = PropertiesUtils.getAdminUserName();
      private static final String sAdminPassword = PropertiesUtils.getAdminPassword();
 
+     /*
+      * How much POST, DELETE and GET methods verify besides the main API call
+      * STRICT - checks if user/hero exists before the call and logs if it exists after the call,
+      * so one operation costs up to three API calls, and User, Hero and ApiError payloads are validated
+      * against JSON schema (used by tests in tests.api package)
+      * STATUS_ONLY - only the main API call is sent and its status code is checked
+      * TRUST - only the main API call is sent and wrong status code is just logged as warning
+      */
+     public enum VerificationLevel {
+          STRICT, STATUS_ONLY, TRUST
+     }
+
+     private static final VerificationLevel defaultVerificationLevel = parseVerificationLevel(PropertiesUtils.getApiVerificationLevel());
+     // because of the parallelization every test (thread) can override verification level
+     private static final ThreadLocal<VerificationLevel> verificationLevel = new ThreadLocal<>();
+     private static final boolean bSchemaValidation = PropertiesUtils.getApiSchemaValidation();
+
+     //-------------------------------------------
+     //----------Verification level --------------
+     //-------------------------------------------
+
+     /**
+      * Method that converts verification level from the property file into VerificationLevel
+      *
+      * @param sVerificationLevel {String} - verification level e.g. strict, status_only, trust
+      *
+      * @return {VerificationLevel} - verification level
+      */
+     private static VerificationLevel parseVerificationLevel(String sVerificationLevel){
+          try {
+               return VerificationLevel.valueOf(sVerificationLevel.trim().toUpperCase());
+          } catch (IllegalArgumentException e){
+               Assert.fail(String.format("Verification level %s is not recognised!", sVerificationLevel));
+          }
+          return null;
+     }
+
+     /**
+      * Method that returns verification level for the current test (thread),
+      * if test didn't set it then the default one from the property file is returned
+      *
+      * @return {VerificationLevel} - verification level
+      */
+     public static VerificationLevel getVerificationLevel(){
+          VerificationLevel level = verificationLevel.get();
+          return level != null ? level : defaultVerificationLevel;
+     }
+
+     /**
+      * Method that sets verification level for the current test (thread)
+      *
+      * @param level {VerificationLevel} - verification level
+      */
+     public static void setVerificationLevel(VerificationLevel level){
+          verificationLevel.set(level);
+     }
+
+     /**
+      * Method that removes verification level set for the current test (thread),
+      * so default one from the property file will be used
+      */
+     public static void resetVerificationLevel(){
+          verificationLevel.remove();
+     }
+
+     private static boolean isStrictVerification(){
+          return getVerificationLevel() == VerificationLevel.STRICT;
+     }
+
+     /**
+      * Method that checks if User, Hero and ApiError payloads are validated against JSON schema
+      * (JsonSchemaUtils) before they are mapped, it is always done with STRICT verification level
+      *
+      * @return {boolean} - true if payloads are validated
+      */
+     private static boolean isSchemaValidation(){
+          return bSchemaValidation || isStrictVerification();
+     }
+
+     /**
+      * Method that checks status code of the main API call, if verification level is TRUST
+      * wrong status code is only logged, otherwise test is failed
+      *
+      * @param status {int} - status code of the response
+      * @param iExpectedStatus {int} - expected status code
+      * @param sApiMethod {String} - method and entity e.g. "postUser() dedoje"
+      * @param sResponseBody {String} - response body
+      */
+     private static void verifyResponseStatus(int status, int iExpectedStatus, String sApiMethod, String sResponseBody){
+          if (status == iExpectedStatus){
+               return;
+          }
+          String sMessage = "Wrong Response Status code in " + sApiMethod + " Response body: " + sResponseBody;
+          if (getVerificationLevel() == VerificationLevel.TRUST){
+               log.warn(sMessage);
+          } else {
+               Assert.assertEquals(status, iExpectedStatus, sMessage);
+          }
+     }
+
+     /**
+      * Method that checks status code of the main API call, response body is read
+      * only if status code is wrong (for the message), so successful responses can be
+      * deserialized directly from the input stream
+      *
+      * @param response {Response} - response of the main API call
+      * @param iExpectedStatus {int} - expected status code
+      * @param sApiMethod {String} - method and entity e.g. "postUser() dedoje"
+      */
+     private static void verifyResponseStatus(Response response, int iExpectedStatus, String sApiMethod){
+          int status = response.getStatusCode();
+          if (status != iExpectedStatus){
+               verifyResponseStatus(status, iExpectedStatus, sApiMethod, response.getBody().asString());
+          }
+     }
+
      //-------------------------------------------
      //----------Check if User EXIST -------------
      //-------------------------------------------
@@ -28,18 +142,16 @@ public class RestApiUtils extends LoggerUtils {
       * and returns Response
       * @description - this method use basic authentication because
       * test application supporting this kind of authentication.
-      * After that, goes header and body which are the main part of API call
-      * header - Content type that we are sending and then accept -> what
-      * we are receiving, after that goes when -> our GET API call checkIfUserExist,
+      * Headers (Content type that we are sending and accept -> what we are receiving)
+      * and base URL are the same for all calls, so they come from the common request
+      * specification in ApiClientUtils, after that goes when -> our GET API call checkIfUserExist,
       * we are receiving response if something goes wrong we catch exception and test is failed
       */
      private static Response checkIfUserExistApiCall(String sUsername, String sAuthUser, String sAuthPass){
-          String sApiCall = BASE_URL + APICalls.createCheckIfUserExistApiCall(sUsername);
+          String sApiCall = APICalls.createCheckIfUserExistApiCall(sUsername);
           Response response = null;
           try {
-               response = RestAssured.given().auth().basic(sAuthUser,sAuthPass)
-                          .headers("Content-Type", ContentType.JSON,"Accept",ContentType.JSON)
-                          .when().get(sApiCall);
+               response = ApiClientUtils.sendRequest(Method.GET, APICalls.CHECK_IF_USER_EXISTS, sApiCall, null, sAuthUser, sAuthPass);
           } catch (Exception e){
                Assert.fail(String.format("Exception in checkIfUserExistApiCall (username: %s), Api Call: %s", sUsername,e.getMessage()));
           }
@@ -106,12 +218,10 @@ public class RestApiUtils extends LoggerUtils {
       * we are receiving response if something goes wrong we catch exception and test is failed
       */
      private static Response getUserApiCall(String sUsername, String sAuthUser, String sAuthPass){
-          String sApiCall = BASE_URL + APICalls.createGetUserApiCall(sUsername);
+          String sApiCall = APICalls.createGetUserApiCall(sUsername);
           Response response = null;
           try {
-               response = RestAssured.given().auth().basic(sAuthUser,sAuthPass)
-                       .headers("Content-Type", ContentType.JSON,"Accept",ContentType.JSON)
-                       .when().get(sApiCall);
+               response = ApiClientUtils.sendRequest(Method.GET, APICalls.GET_USER, sApiCall, null, sAuthUser, sAuthPass);
           } catch (Exception e){
                Assert.fail(String.format("Exception in getUserApiCall (username: %s), Api Call: %s", sUsername,e.getMessage()));
           }
@@ -119,7 +229,7 @@ public class RestApiUtils extends LoggerUtils {
      }
 
      /**
-      * Method that first checks if user exist, transform response body into pretty String
+      * Method that first checks if user exist (only with STRICT verification level), transform response body into pretty String
       * (response body in JSON format), get status code and check if it is 200 and returns
       * that response
       * @description - this method is useful for deserialization of JSON response into User
@@ -136,13 +246,20 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static String getUserJSONFormat(String sUsername, String sAuthUser, String sAuthPass){
           log.trace("getUserJSONFormat() "+ sUsername);
-          Assert.assertTrue(checkIfUserExist(sUsername,sAuthUser,sAuthPass),"User " + sUsername + " DOESN'T exist!");
+          return getUserResponse(sUsername,sAuthUser,sAuthPass).getBody().asPrettyString();
+     }
+
+     /**
+      * Method that first checks if user exist (only with STRICT verification level), GET user,
+      * check if status code is 200 and returns response with body that is not read yet
+      */
+     private static Response getUserResponse(String sUsername, String sAuthUser, String sAuthPass){
+          if(isStrictVerification()){
+               Assert.assertTrue(checkIfUserExist(sUsername,sAuthUser,sAuthPass),"User " + sUsername + " DOESN'T exist!");
+          }
           Response response = getUserApiCall(sUsername,sAuthUser,sAuthPass);
-          int status = response.getStatusCode();
-          String sResponseBody = response.getBody().asPrettyString();
-          Assert.assertEquals(status,200, "Wrong Response Status code in getUserJSONFormat() " + sUsername
-                  + " Response body: " + sResponseBody);
-          return sResponseBody;
+          verifyResponseStatus(response,200, "getUser() " + sUsername);
+          return response;
      }
 
      /**
@@ -163,6 +280,8 @@ public class RestApiUtils extends LoggerUtils {
       * the same variable names and types as they are in response we get from API call (JSON)
       * Gson "looks" at class that is provided and response in JSON and then matches them
       * by type and name e.g -> "username": "dedoje" =>  private String username;
+      * Response body is deserialized directly from the stream with precompiled adapter (JsonUtils),
+      * or from cached response if cache is enabled (ApiCacheUtils)
       *
       * @param sUsername {String} - username of user that we want to get
       * @param sAuthUser {String} - username
@@ -173,9 +292,19 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static User getUser(String sUsername, String sAuthUser, String sAuthPass){
           log.debug("getUser() "+ sUsername);
-          String JSON = getUserJSONFormat(sUsername,sAuthUser,sAuthPass);
-          Gson gson = new Gson();
-          return gson.fromJson(JSON, User.class);
+          if(ApiCacheUtils.isEnabled()){
+               String sJson = ApiCacheUtils.getUser(sUsername, sAuthUser, sAuthPass,
+                       () -> getUserResponse(sUsername,sAuthUser,sAuthPass).getBody().asString());
+               return JsonUtils.readUser(sJson, isSchemaValidation());
+          }
+          Response response = getUserResponse(sUsername,sAuthUser,sAuthPass);
+          // stream is closed, so connection is returned to the pool
+          try (InputStream body = response.getBody().asInputStream()){
+               return JsonUtils.readUser(body, isSchemaValidation());
+          } catch (IOException e){
+               Assert.fail(String.format("Exception in getUser(), Message: %s", e.getMessage()));
+          }
+          return null;
      }
 
      /**
@@ -218,9 +347,8 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static ApiError getUserError(String sUsername, String sAuthUser, String sAuthPass){
           log.debug("getUserError() "+ sUsername);
-          String JSON = getUserErrorJSONFormat(sUsername,sAuthUser,sAuthPass);
-          Gson gson = new Gson();
-          return gson.fromJson(JSON, ApiError.class);
+          Response response = getUserApiCall(sUsername,sAuthUser,sAuthPass);
+          return JsonUtils.readApiError(response.getBody().asString(), isSchemaValidation());
      }
 
       /**
@@ -250,15 +378,11 @@ public class RestApiUtils extends LoggerUtils {
       * we are receiving response. If something goes wrong we catch exception and test will fail
       */
      private static Response postUserApiCall(User user, String sAuthUser, String sAuthPass){
-          String sApiCall = BASE_URL + APICalls.createPostUserApiCall();
+          String sApiCall = APICalls.createPostUserApiCall();
           Response response = null;
           try {
-               Gson gson = new Gson();
-               String json = gson.toJson(user, User.class);
-               response = RestAssured.given().auth().basic(sAuthUser,sAuthPass)
-                       .headers("Content-Type", ContentType.JSON,"Accept",ContentType.JSON)
-                       .body(json)
-                       .when().post(sApiCall);
+               String json = JsonUtils.writeUser(user);
+               response = ApiClientUtils.sendRequest(Method.POST, APICalls.POST_USER, sApiCall, json, sAuthUser, sAuthPass);
           } catch (Exception e){
                Assert.fail(String.format("Exception in postUserApiCall (username: %s), Api Call: %s", user.getUsername(),e.getMessage()));
           }
@@ -267,6 +391,7 @@ public class RestApiUtils extends LoggerUtils {
 
      /**
       * Method that POST user in database and check if that user exist
+      * (existence is checked before and after POST only with STRICT verification level)
       *
       * @param user {User} - User object
       * @param sAuthUser {String} - username
@@ -275,13 +400,16 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static void postUser(User user, String sAuthUser,String sAuthPass){
           log.debug("postUser() "+ user.getUsername());
-          Assert.assertFalse(checkIfUserExist(user.getUsername(),sAuthUser,sAuthPass),"User " + user.getUsername() + " already exist!");
+          if(isStrictVerification()){
+               Assert.assertFalse(checkIfUserExist(user.getUsername(),sAuthUser,sAuthPass),"User " + user.getUsername() + " already exist!");
+          }
           Response response = postUserApiCall(user,sAuthUser,sAuthPass);
-          int status = response.getStatusCode();
-          String sResponseBody = response.getBody().asString();
-          Assert.assertEquals(status,200, "Wrong Response Status code in postUser() " + user.getUsername()
-                  + " Response body: " + sResponseBody);
-          log.debug("User CREATED: " + checkIfUserExist(user.getUsername(),sAuthUser,sAuthPass));
+          ApiCacheUtils.invalidateUser(user.getUsername());
+          verifyResponseStatus(response,200, "postUser() " + user.getUsername());
+          ApiClientUtils.releaseConnection(response);
+          if(isStrictVerification()){
+               log.debug("User CREATED: " + checkIfUserExist(user.getUsername(),sAuthUser,sAuthPass));
+          }
      }
 
      /**
@@ -323,9 +451,8 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static ApiError postUserError(User user, String sAuthUser, String sAuthPass){
           log.debug("postUserError() "+ user.getUsername());
-          String JSON = postUserErrorJSONFormat(user,sAuthUser,sAuthPass);
-          Gson gson = new Gson();
-          return gson.fromJson(JSON, ApiError.class);
+          Response response = postUserApiCall(user,sAuthUser,sAuthPass);
+          return JsonUtils.readApiError(response.getBody().asString(), isSchemaValidation());
      }
 
      /**
@@ -338,6 +465,27 @@ public class RestApiUtils extends LoggerUtils {
           return postUserError(user, sAdminUser,sAdminPassword);
      }
 
+     /**
+      * Method that POST user body as it is (e.g. JSON with wrong types that can't be created from User object)
+      * and convert error from POST API call to an ApiError instance
+      *
+      * @param sJson {String} - body of POST API call
+      * @param sAuthUser {String} - username to authenticate
+      * @param sAuthPass {String} - password to authenticate
+      *
+      * @return {ApiError} - POST User API Error as a ApiError instance
+      */
+     public static ApiError postUserJSONError(String sJson, String sAuthUser, String sAuthPass){
+          log.debug("postUserJSONError() "+ sJson);
+          Response response = null;
+          try {
+               response = ApiClientUtils.sendRequest(Method.POST, APICalls.POST_USER, APICalls.createPostUserApiCall(), sJson, sAuthUser, sAuthPass);
+          } catch (Exception e){
+               Assert.fail(String.format("Exception in postUserJSONError, Api Call: %s", e.getMessage()));
+          }
+          return JsonUtils.readApiError(response.getBody().asString(), isSchemaValidation());
+     }
+
 
      //-------------------------------------------
      //----------DELETE  User---------------------
@@ -351,12 +499,10 @@ public class RestApiUtils extends LoggerUtils {
       * username of specific user, username and password and returns Response
       */
      private static Response deleteUserApiCall(String sUsername, String sAuthUser, String sAuthPass){
-          String sApiCall = BASE_URL + APICalls.createDeleteUserApiCall(sUsername);
+          String sApiCall = APICalls.createDeleteUserApiCall(sUsername);
           Response response = null;
           try {
-               response = RestAssured.given().auth().basic(sAuthUser,sAuthPass)
-                       .headers("Content-Type", ContentType.JSON,"Accept",ContentType.JSON)
-                       .when().delete(sApiCall);
+               response = ApiClientUtils.sendRequest(Method.DELETE, APICalls.DELETE_USER, sApiCall, null, sAuthUser, sAuthPass);
           } catch (Exception e){
                Assert.fail(String.format("Exception in deleteUserApiCall (username: %s), Api Call: %s", sUsername,e.getMessage()));
           }
@@ -365,6 +511,7 @@ public class RestApiUtils extends LoggerUtils {
 
      /**
       * Method that DELETE user from database and check if that user still exist
+      * (existence is checked before and after DELETE only with STRICT verification level)
       *
       * @param sUsername {String} - username of user that we want to DELETE
       * @param sAuthUser {String} - username
@@ -373,13 +520,16 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static void deleteUser(String sUsername, String sAuthUser,String sAuthPass){
           log.debug("deleteUser() "+ sUsername);
-          Assert.assertTrue(checkIfUserExist(sUsername,sAuthUser,sAuthPass),"User " + sUsername + " DOESN'T exist!");
+          if(isStrictVerification()){
+               Assert.assertTrue(checkIfUserExist(sUsername,sAuthUser,sAuthPass),"User " + sUsername + " DOESN'T exist!");
+          }
           Response response = deleteUserApiCall(sUsername,sAuthUser,sAuthPass);
-          int status = response.getStatusCode();
-          String sResponseBody = response.getBody().asString();
-          Assert.assertEquals(status,200, "Wrong Response Status code in deleteUser() " + sUsername
-                  + " Response body: " + sResponseBody);
-          log.debug("User DELETED: " + !checkIfUserExist(sUsername,sAuthUser,sAuthPass));
+          ApiCacheUtils.invalidateUser(sUsername);
+          verifyResponseStatus(response,200, "deleteUser() " + sUsername);
+          ApiClientUtils.releaseConnection(response);
+          if(isStrictVerification()){
+               log.debug("User DELETED: " + !checkIfUserExist(sUsername,sAuthUser,sAuthPass));
+          }
      }
 
      /**
@@ -408,12 +558,10 @@ public class RestApiUtils extends LoggerUtils {
       * and returns Response
       */
      private static Response checkIfHeroExistApiCall(String sHeroName, String sAuthName, String sAuthPass){
-          String sApiCall = BASE_URL + APICalls.createCheckIfHeroExistApiCall(sHeroName);
+          String sApiCall = APICalls.createCheckIfHeroExistApiCall(sHeroName);
           Response response = null;
           try {
-               response = RestAssured.given().auth().basic(sAuthName,sAuthPass)
-                       .headers("Content-Type", ContentType.JSON,"Accept",ContentType.JSON)
-                       .when().get(sApiCall);
+               response = ApiClientUtils.sendRequest(Method.GET, APICalls.CHECK_IF_HERO_EXISTS, sApiCall, null, sAuthName, sAuthPass);
           } catch (Exception e){
                Assert.fail(String.format("Exception in checkIfHeroExistApiCall (HeroName: %s), Api Call: %s", sHeroName,e.getMessage()));
           }
@@ -474,12 +622,10 @@ public class RestApiUtils extends LoggerUtils {
       * and returns Response
       */
      private static Response getHeroApiCall(String sHeroName, String sAuthName, String sAuthPass){
-          String sApiCall = BASE_URL + APICalls.createGeHeroApiCall(sHeroName);
+          String sApiCall = APICalls.createGeHeroApiCall(sHeroName);
           Response response = null;
           try {
-               response = RestAssured.given().auth().basic(sAuthName,sAuthPass)
-                       .headers("Content-Type", ContentType.JSON,"Accept",ContentType.JSON)
-                       .when().get(sApiCall);
+               response = ApiClientUtils.sendRequest(Method.GET, APICalls.GET_HERO, sApiCall, null, sAuthName, sAuthPass);
           } catch (Exception e){
                Assert.fail(String.format("Exception in getHeroApiCall (heroName: %s), Api Call: %s", sHeroName,e.getMessage()));
           }
@@ -487,7 +633,7 @@ public class RestApiUtils extends LoggerUtils {
      }
 
      /**
-      * Method that first checks if hero exist, transform response body into pretty String
+      * Method that first checks if hero exist (only with STRICT verification level), transform response body into pretty String
       * (response body in JSON format), get status code and check if it is 200 and returns
       * that response
       *
@@ -499,13 +645,20 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static String getHeroJSONFormat(String sHeroName, String sAuthName, String sAuthPass){
           log.trace("getHeroJSONFormat() "+ sHeroName);
-          Assert.assertTrue(checkIfHeroExist(sHeroName,sAuthName,sAuthPass),"hero " + sHeroName + " DOESN'T exist!");
+          return getHeroResponse(sHeroName,sAuthName,sAuthPass).getBody().asPrettyString();
+     }
+
+     /**
+      * Method that first checks if hero exist (only with STRICT verification level), GET hero,
+      * check if status code is 200 and returns response with body that is not read yet
+      */
+     private static Response getHeroResponse(String sHeroName, String sAuthName, String sAuthPass){
+          if(isStrictVerification()){
+               Assert.assertTrue(checkIfHeroExist(sHeroName,sAuthName,sAuthPass),"hero " + sHeroName + " DOESN'T exist!");
+          }
           Response response = getHeroApiCall(sHeroName,sAuthName,sAuthPass);
-          int status = response.getStatusCode();
-          String sResponseBody = response.getBody().asPrettyString();
-          Assert.assertEquals(status,200, "Wrong Response Status code in getHeroJSONFormat() " + sHeroName
-                  + " Response body: " + sResponseBody);
-          return sResponseBody;
+          verifyResponseStatus(response,200, "getHero() " + sHeroName);
+          return response;
      }
 
      /**
@@ -531,14 +684,22 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static Hero getHero(String sHeroName, String sAuthName, String sAuthPass){
           log.debug("getHero() "+ sHeroName);
-          String JSON = getHeroJSONFormat(sHeroName,sAuthName,sAuthPass);
-          // We can use simple instance of Gson instead of GsonBuilder nut we can't use
-          // e.g. Exposed annotation and other methods if we don't want variables to
-          // be serialized or deserialized
-          // Gson gson = new Gson();
-          // return gson.fromJson(JSON, hero.class)
-          Gson gson = new GsonBuilder().setPrettyPrinting().excludeFieldsWithoutExposeAnnotation().create();
-          return gson.fromJson(JSON, Hero.class);
+          if(ApiCacheUtils.isEnabled()){
+               String sJson = ApiCacheUtils.getHero(sHeroName, sAuthName, sAuthPass,
+                       () -> getHeroResponse(sHeroName,sAuthName,sAuthPass).getBody().asString());
+               return JsonUtils.readHero(sJson, isSchemaValidation());
+          }
+          Response response = getHeroResponse(sHeroName,sAuthName,sAuthPass);
+          // We can't use simple instance of Gson here because of Expose annotation
+          // (variables that we don't want to be deserialized), so JsonUtils uses
+          // adapter created by GsonBuilder with excludeFieldsWithoutExposeAnnotation()
+          // stream is closed, so connection is returned to the pool
+          try (InputStream body = response.getBody().asInputStream()){
+               return JsonUtils.readHero(body, isSchemaValidation());
+          } catch (IOException e){
+               Assert.fail(String.format("Exception in getHero(), Message: %s", e.getMessage()));
+          }
+          return null;
      }
 
      /**
@@ -578,15 +739,11 @@ public class RestApiUtils extends LoggerUtils {
       *
       */
      private static Response postHeroApiCall(Hero hero, String sAuthUser, String sAuthPass){
-          String sApiCall = BASE_URL + APICalls.createPostHeroApiCall();
+          String sApiCall = APICalls.createPostHeroApiCall();
           Response response = null;
           try {
-               Gson gson = new Gson();
-               String json = gson.toJson(hero, Hero.class);
-               response = RestAssured.given().auth().basic(sAuthUser,sAuthPass)
-                       .headers("Content-Type", ContentType.JSON,"Accept",ContentType.JSON)
-                       .body(json)
-                       .when().redirects().follow(false).post(sApiCall);
+               String json = JsonUtils.writeHero(hero);
+               response = ApiClientUtils.sendRequest(Method.POST, APICalls.POST_HERO, sApiCall, json, sAuthUser, sAuthPass);
           } catch (Exception e){
                Assert.fail(String.format("Exception in postHeroApiCall (username: %s), Api Call: %s", hero.getHeroName(),e.getMessage()));
           }
@@ -595,6 +752,7 @@ public class RestApiUtils extends LoggerUtils {
 
      /**
       * Method that POST Hero in database and check if that Hero exist
+      * (existence is checked before and after POST only with STRICT verification level)
       *
       * @param hero {Hero} - Hero object
       * @param sAuthUser {String} - username
@@ -603,13 +761,16 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static void postHero(Hero hero, String sAuthUser,String sAuthPass){
           log.debug("postHero() " + hero.getHeroName());
-          Assert.assertFalse(checkIfHeroExist(hero.getHeroName(),sAuthUser,sAuthPass),"Hero " + hero.getHeroName() + " already exist!");
+          if(isStrictVerification()){
+               Assert.assertFalse(checkIfHeroExist(hero.getHeroName(),sAuthUser,sAuthPass),"Hero " + hero.getHeroName() + " already exist!");
+          }
           Response response = postHeroApiCall(hero,sAuthUser,sAuthPass);
-          int status = response.getStatusCode();
-          String sResponseBody = response.getBody().asString();
-          Assert.assertEquals(status,200, "Wrong Response Status code in postHero() " + hero.getHeroName()
-                  + " Response body: " + sResponseBody);
-          log.debug("Hero CREATED: " + checkIfHeroExist(hero.getHeroName(),sAuthUser,sAuthPass));
+          ApiCacheUtils.invalidateHero(hero.getHeroName(), hero.getUsername());
+          verifyResponseStatus(response,200, "postHero() " + hero.getHeroName());
+          ApiClientUtils.releaseConnection(response);
+          if(isStrictVerification()){
+               log.debug("Hero CREATED: " + checkIfHeroExist(hero.getHeroName(),sAuthUser,sAuthPass));
+          }
      }
 
      /**
@@ -622,6 +783,53 @@ public class RestApiUtils extends LoggerUtils {
           postHero(hero,sAdminUser,sAdminPassword);
      }
 
+     /**
+      * Method that gets POST Hero error from POST API call and convert it to an
+      * ApiError instance
+      *
+      * @param hero {Hero} - Hero to POST
+      * @param sAuthUser {String} - username to authenticate
+      * @param sAuthPass {String} - password to authenticate
+      *
+      * @return {ApiError} - POST Hero API Error as a ApiError instance
+      */
+     public static ApiError postHeroError(Hero hero, String sAuthUser, String sAuthPass){
+          log.debug("postHeroError() "+ hero.getHeroName());
+          Response response = postHeroApiCall(hero,sAuthUser,sAuthPass);
+          return JsonUtils.readApiError(response.getBody().asString(), isSchemaValidation());
+     }
+
+     /**
+      * Method that gets POST Hero error from POST API call and convert it to an
+      * ApiError instance using admin to authenticate
+      *
+      * @return {ApiError} - POST Hero API Error as a ApiError instance
+      */
+     public static ApiError postHeroError(Hero hero){
+          return postHeroError(hero, sAdminUser,sAdminPassword);
+     }
+
+     /**
+      * Method that POST hero body as it is (e.g. JSON with wrong types that can't be created from Hero object)
+      * and convert error from POST API call to an ApiError instance
+      *
+      * @param sJson {String} - body of POST API call
+      * @param sAuthUser {String} - username to authenticate
+      * @param sAuthPass {String} - password to authenticate
+      *
+      * @return {ApiError} - POST Hero API Error as a ApiError instance
+      */
+     public static ApiError postHeroJSONError(String sJson, String sAuthUser, String sAuthPass){
+          log.debug("postHeroJSONError() "+ sJson);
+          Response response = null;
+          try {
+               response = ApiClientUtils.sendRequest(Method.POST, APICalls.POST_HERO, APICalls.createPostHeroApiCall(), sJson, sAuthUser, sAuthPass);
+          } catch (Exception e){
+               Assert.fail(String.format("Exception in postHeroJSONError, Api Call: %s", e.getMessage()));
+          }
+          return JsonUtils.readApiError(response.getBody().asString(), isSchemaValidation());
+     }
+
 
      //-------------------------------------------
      //----------DELETE  Hero---------------------
@@ -635,12 +843,10 @@ public class RestApiUtils extends LoggerUtils {
       * heroName, username and password and returns Response
       */
      private static Response deleteHeroApiCall(String sHeroName, String sAuthUser, String sAuthPass){
-          String sApiCall = BASE_URL + APICalls.createDeleteHeroApiCall(sHeroName);
+          String sApiCall = APICalls.createDeleteHeroApiCall(sHeroName);
           Response response = null;
           try {
-               response = RestAssured.given().auth().basic(sAuthUser,sAuthPass)
-                       .headers("Content-Type", ContentType.JSON,"Accept",ContentType.JSON)
-                       .when().delete(sApiCall);
+               response = ApiClientUtils.sendRequest(Method.DELETE, APICalls.DELETE_HERO, sApiCall, null, sAuthUser, sAuthPass);
           } catch (Exception e){
                Assert.fail(String.format("Exception in deleteHeroApiCall (heroName: %s), Api Call: %s", sHeroName,e.getMessage()));
           }
@@ -649,6 +855,7 @@ public class RestApiUtils extends LoggerUtils {
 
      /**
       * Method that DELETE Hero from database and check if that Hero still exist
+      * (existence is checked before and after DELETE only with STRICT verification level)
       *
       * @param sHeroName {String} - heroName of Hero that we want to DELETE
       * @param sAuthUser {String} - username
@@ -657,13 +864,17 @@ public class RestApiUtils extends LoggerUtils {
       */
      public static void deleteHero(String sHeroName, String sAuthUser,String sAuthPass){
           log.debug("deleteHero() "+ sHeroName);
-          Assert.assertTrue(checkIfHeroExist(sHeroName,sAuthUser,sAuthPass),"Hero " + sHeroName + " DOESN'T exist!");
+          if(isStrictVerification()){
+               Assert.assertTrue(checkIfHeroExist(sHeroName,sAuthUser,sAuthPass),"Hero " + sHeroName + " DOESN'T exist!");
+          }
           Response response = deleteHeroApiCall(sHeroName,sAuthUser,sAuthPass);
-          int status = response.getStatusCode();
-          String sResponseBody = response.getBody().asString();
-          Assert.assertEquals(status,200, "Wrong Response Status code in deleteHero() " + sHeroName
-                  + " Response body: " + sResponseBody);
-          log.debug("Hero DELETED: " + !checkIfHeroExist(sHeroName,sAuthUser,sAuthPass));
+          // owner of the hero is not known here, so all cached users are removed
+          ApiCacheUtils.invalidateHero(sHeroName, null);
+          verifyResponseStatus(response,200, "deleteHero() " + sHeroName);
+          ApiClientUtils.releaseConnection(response);
+          if(isStrictVerification()){
+               log.debug("Hero DELETED: " + !checkIfHeroExist(sHeroName,sAuthUser,sAuthPass));
+          }
      }
 
      /**
@@ -0,0 +1,176 @@
+package utils;
+
+import objects.DatabaseHero;
+import objects.DatabaseUser;
+import org.apache.commons.dbutils.ResultSetHandler;
+import org.apache.commons.dbutils.handlers.BeanListHandler;
+import org.testng.Assert;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class that compares row mappers (DatabaseRowMappers) with BeanListHandler on large result sets
+ * @description - result set with dbRowMapperBenchmarkRows users (or heroes) is created in memory (CachedRowSet),
+ * so only mapping is measured and not database or network. Every handler maps it the same number of times
+ * for warm-up and then dbRowMapperBenchmarkIterations times that are measured. For every handler average time
+ * and memory allocated by one mapping (garbage) are logged ("[ROW MAPPER]"), and it is checked that both
+ * handlers return the same objects
+ */
+public class RowMapperBenchmarkUtils extends LoggerUtils {
+
+    private static final String[] USER_COLUMNS = {"userID", "username", "password", "email", "firstName", "lastName",
+            "enabled", "secretQuestion", "secretAnswer", "about", "created"};
+    private static final String[] HERO_COLUMNS = {"hero_id", "name", "type", "level", "created", "fk_user_id"};
+
+    /**
+     * Class for result of one handler
+     */
+    private static class Measurement {
+        private double dMillis;
+        private double dAllocatedMB;
+        private List<?> result;
+    }
+
+    /**
+     * Method that runs benchmark for DatabaseUser and DatabaseHero and logs the results
+     *
+     * @return {boolean} - true if row mappers and BeanListHandler return the same objects
+     */
+    public static boolean run(){
+        int iRows = PropertiesUtils.getDbRowMapperBenchmarkRows();
+        int iIterations = PropertiesUtils.getDbRowMapperBenchmarkIterations();
+        if (!PropertiesUtils.getDbRowMapperEnabled()){
+            log.warn("[ROW MAPPER] dbRowMapperEnabled is false, so both handlers use BeanProcessor");
+        }
+        boolean bUsersSame = compare(DatabaseUser.class, createUsers(iRows), iIterations);
+        boolean bHeroesSame = compare(DatabaseHero.class, createHeroes(iRows), iIterations);
+        return bUsersSame && bHeroesSame;
+    }
+
+    private static <T> boolean compare(Class<T> type, CachedRowSet resultSet, int iIterations){
+        Measurement bean = measure(new BeanListHandler<>(type), resultSet, iIterations);
+        Measurement mapper = measure(DatabaseRowMappers.getListHandler(type), resultSet, iIterations);
+        log.info(String.format("[ROW MAPPER] %s %d rows: BeanListHandler %.1f ms, %.1f MB; row mapper %.1f ms, %.1f MB (%.1fx faster)",
+                type.getSimpleName(), resultSet.size(), bean.dMillis, bean.dAllocatedMB, mapper.dMillis, mapper.dAllocatedMB,
+                bean.dMillis / mapper.dMillis));
+        boolean bSame = bean.result.size() == mapper.result.size();
+        for (int i = 0; bSame && i < bean.result.size(); i++){
+            bSame = bean.result.get(i).toString().equals(mapper.result.get(i).toString());
+        }
+        if (!bSame){
+            log.error(String.format("[ROW MAPPER] %s: row mapper and BeanListHandler return different objects!", type.getSimpleName()));
+        }
+        return bSame;
+    }
+
+    /**
+     * Method that maps the result set with handler and returns average time and allocated memory of one mapping
+     */
+    private static Measurement measure(ResultSetHandler<? extends List<?>> handler, CachedRowSet resultSet, int iIterations){
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocationBean = threadBean instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) threadBean : null;
+        long lThreadId = Thread.currentThread().getId();
+        Measurement measurement = new Measurement();
+        try {
+            for (int i = 0; i < iIterations; i++){
+                resultSet.beforeFirst();
+                measurement.result = handler.handle(resultSet);
+            }
+            long lAllocated = allocationBean != null ? allocationBean.getThreadAllocatedBytes(lThreadId) : 0;
+            long lStart = System.nanoTime();
+            for (int i = 0; i < iIterations; i++){
+                resultSet.beforeFirst();
+                measurement.result = handler.handle(resultSet);
+            }
+            measurement.dMillis = (System.nanoTime() - lStart) / 1e6 / iIterations;
+            if (allocationBean != null){
+                measurement.dAllocatedMB = (allocationBean.getThreadAllocatedBytes(lThreadId) - lAllocated) / 1048576.0 / iIterations;
+            }
+        } catch (SQLException e){
+            Assert.fail("Exception in row mapper benchmark! Message: " + e.getMessage());
+        }
+        return measurement;
+    }
+
+    //-------------------------------------------
+    //----------Result sets ---------------------
+    //-------------------------------------------
+
+    private static CachedRowSet createResultSet(String[] columns, int[] types) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(columns.length);
+        for (int i = 0; i < columns.length; i++){
+            metaData.setColumnName(i + 1, columns[i]);
+            metaData.setColumnLabel(i + 1, columns[i]);
+            metaData.setColumnType(i + 1, types[i]);
+        }
+        CachedRowSet resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        return resultSet;
+    }
+
+    private static CachedRowSet createUsers(int iRows){
+        int[] types = new int[USER_COLUMNS.length];
+        Arrays.fill(types, Types.VARCHAR);
+        types[6] = Types.BOOLEAN;
+        types[10] = Types.TIMESTAMP;
+        try {
+            CachedRowSet resultSet = createResultSet(USER_COLUMNS, types);
+            Timestamp created = new Timestamp(System.currentTimeMillis());
+            for (int i = 0; i < iRows; i++){
+                resultSet.moveToInsertRow();
+                resultSet.updateString(1, String.valueOf(i));
+                resultSet.updateString(2, "user" + i);
+                resultSet.updateString(3, "Password" + i);
+                resultSet.updateString(4, "user" + i + "@mail.com");
+                resultSet.updateString(5, "First" + i);
+                resultSet.updateString(6, "Last" + i);
+                resultSet.updateBoolean(7, i % 2 == 0);
+                resultSet.updateString(8, "Question" + i);
+                resultSet.updateString(9, "Answer" + i);
+                resultSet.updateString(10, "About user " + i);
+                resultSet.updateTimestamp(11, created);
+                resultSet.insertRow();
+                resultSet.moveToCurrentRow();
+            }
+            return resultSet;
+        } catch (SQLException e){
+            Assert.fail("Cannot create result set of users for row mapper benchmark! Message: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private static CachedRowSet createHeroes(int iRows){
+        int[] types = {Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.TIMESTAMP, Types.VARCHAR};
+        String[] heroClasses = {HeroClass.WARRIOR, HeroClass.GUARDIAN, HeroClass.REVENANT, HeroClass.ENGINEER, HeroClass.THIEF,
+                HeroClass.RANGER, HeroClass.ELEMENTALIST, HeroClass.NECROMANCER, HeroClass.MESMER};
+        try {
+            CachedRowSet resultSet = createResultSet(HERO_COLUMNS, types);
+            Timestamp created = new Timestamp(System.currentTimeMillis());
+            for (int i = 0; i < iRows; i++){
+                resultSet.moveToInsertRow();
+                resultSet.updateString(1, String.valueOf(i));
+                resultSet.updateString(2, "Hero" + i);
+                resultSet.updateString(3, heroClasses[i % heroClasses.length]);
+                resultSet.updateInt(4, i % 81);
+                resultSet.updateTimestamp(5, created);
+                resultSet.updateString(6, String.valueOf(i / 3));
+                resultSet.insertRow();
+                resultSet.moveToCurrentRow();
+            }
+            return resultSet;
+        } catch (SQLException e){
+            Assert.fail("Cannot create result set of heroes for row mapper benchmark! Message: " + e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,379 @@
+package utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data.APICalls;
+import data.CommonStrings;
+import objects.Hero;
+import objects.User;
+import org.testng.Assert;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process stand-in for users and heroes API of the Samsara application
+ * @description - it implements API calls from APICalls (exists, findByUsername/findByName, add,
+ * deleteByUsername/deleteByName) with users and heroes stored in memory, so API tests can be executed
+ * without application and database, and overhead of RestApiUtils can be measured without backend.
+ * Behaviour is the same as of the application:
+ * - basic authentication (or session cookie that is returned after successful authentication),
+ *   wrong credentials -> 401, only admin can use API, other users (end user and users created via API) -> 403
+ * - usernames are stored in lower case, POST user without email or with existing username -> 500
+ * - POST hero without name, type or level, with level out of range (hero.schema.json), with existing name
+ *   or with owner that doesn't exist -> 500
+ * - errors are returned in the same JSON format that ApiError parses (timestamp, status, error, exception, message, path)
+ * - response is gzip compressed if request accepts it (Accept-Encoding: gzip)
+ * Server is started with start() and it is used when environment is "standin" (StandInServerListener)
+ */
+public class StandInApiServer extends LoggerUtils {
+
+    private static final String sAdminUser = PropertiesUtils.getAdminUserName();
+    private static final String sAdminPassword = PropertiesUtils.getAdminPassword();
+    private static final String sEndUser = PropertiesUtils.getEndUserUsername();
+    private static final String sEndUserPassword = PropertiesUtils.getEndUserPassword();
+    private static final String sSessionCookieName = PropertiesUtils.getSessionCookieName();
+    private static final String ILLEGAL_ARGUMENT_EXCEPTION = "java.lang.IllegalArgumentException";
+    private static final int MIN_HERO_LEVEL = 0;
+    private static final int MAX_HERO_LEVEL = 80;
+
+    private static final Gson gson = new Gson();
+    // users and heroes by lower case username and hero name
+    private static final Map<String, User> users = new ConcurrentHashMap<>();
+    private static final Map<String, Hero> heroes = new ConcurrentHashMap<>();
+    // session id -> username
+    private static final Map<String, String> sessions = new ConcurrentHashMap<>();
+    // username -> session id, so every user has at most one session
+    private static final Map<String, String> userSessions = new ConcurrentHashMap<>();
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    /**
+     * Class for API error that is returned when something is wrong
+     */
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final int iStatus;
+        private final String sError;
+        private final String sException;
+
+        private ApiException(int iStatus, String sError, String sException, String sMessage) {
+            super(sMessage);
+            this.iStatus = iStatus;
+            this.sError = sError;
+            this.sException = sException;
+        }
+    }
+
+    /**
+     * Method that starts stand-in server on the port from standInBaseUrl property,
+     * if server is already started nothing happens
+     */
+    public static synchronized void start(){
+        start(URI.create(PropertiesUtils.getStandInBaseUrl()).getPort());
+    }
+
+    /**
+     * Method that starts stand-in server on the port, if server is already started nothing happens
+     *
+     * @param iPort {int} - port e.g. 8089
+     */
+    public static synchronized void start(int iPort){
+        if (server != null){
+            return;
+        }
+        reset();
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", iPort), 0);
+        } catch (IOException e){
+            Assert.fail(String.format("Cannot start stand-in API server on port %d! Message: %s", iPort, e.getMessage()));
+        }
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/api/", StandInApiServer::handle);
+        server.start();
+        log.info("Stand-in API server started on port " + iPort);
+    }
+
+    /**
+     * Method that stops stand-in server
+     */
+    public static synchronized void stop(){
+        if (server == null){
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        log.info("Stand-in API server stopped");
+    }
+
+    /**
+     * Method that removes all users, heroes and sessions, only admin and end user stay
+     */
+    public static void reset(){
+        users.clear();
+        heroes.clear();
+        sessions.clear();
+        userSessions.clear();
+        addAccount(sAdminUser, sAdminPassword);
+        addAccount(sEndUser, sEndUserPassword);
+    }
+
+    private static void addAccount(String sUsername, String sPassword){
+        users.put(sUsername.toLowerCase(), new User(sUsername, sPassword, null, null, null, null, null, null,
+                DateTimeUtils.getCurrentDateTime(), new ArrayList<>()));
+    }
+
+    //-------------------------------------------
+    //----------Requests ------------------------
+    //-------------------------------------------
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String sPath = exchange.getRequestURI().getPath();
+        String sMethod = exchange.getRequestMethod();
+        try {
+            authenticate(exchange);
+            String sBody = readBody(exchange.getRequestBody());
+            if (sMethod.equals("GET") && sPath.startsWith(APICalls.CHECK_IF_USER_EXISTS)){
+                send(exchange, 200, String.valueOf(users.containsKey(getName(sPath, APICalls.CHECK_IF_USER_EXISTS))));
+            } else if (sMethod.equals("GET") && sPath.startsWith(APICalls.GET_USER)){
+                send(exchange, 200, getUserJson(getName(sPath, APICalls.GET_USER)));
+            } else if (sMethod.equals("POST") && sPath.equals(APICalls.POST_USER)){
+                send(exchange, 200, gson.toJson(postUser(JsonUtils.readUser(sBody))));
+            } else if (sMethod.equals("DELETE") && sPath.startsWith(APICalls.DELETE_USER)){
+                deleteUser(getName(sPath, APICalls.DELETE_USER));
+                send(exchange, 200, "");
+            } else if (sMethod.equals("GET") && sPath.startsWith(APICalls.CHECK_IF_HERO_EXISTS)){
+                send(exchange, 200, String.valueOf(heroes.containsKey(getName(sPath, APICalls.CHECK_IF_HERO_EXISTS))));
+            } else if (sMethod.equals("GET") && sPath.startsWith(APICalls.GET_HERO)){
+                send(exchange, 200, gson.toJson(getHero(getName(sPath, APICalls.GET_HERO))));
+            } else if (sMethod.equals("POST") && sPath.equals(APICalls.POST_HERO)){
+                send(exchange, 200, gson.toJson(postHero(JsonUtils.readHero(sBody))));
+            } else if (sMethod.equals("DELETE") && sPath.startsWith(APICalls.DELETE_HERO)){
+                deleteHero(getName(sPath, APICalls.DELETE_HERO));
+                send(exchange, 200, "");
+            } else {
+                throw new ApiException(404, "Not Found", null, "No message available");
+            }
+        } catch (ApiException e){
+            sendError(exchange, e, sPath);
+        } catch (RuntimeException e){
+            sendError(exchange, new ApiException(500, CommonStrings.getApiErrorInternalServerError(),
+                    e.getClass().getName(), e.getMessage()), sPath);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Method that checks session cookie or basic authentication and if credentials are correct
+     * and user is not admin returns 403. After successful basic authentication session cookie is returned,
+     * the user's existing session is reused so sessions don't pile up during long runs
+     */
+    private static void authenticate(HttpExchange exchange){
+        String sUsername = getSessionUser(exchange.getRequestHeaders().getFirst("Cookie"));
+        if (sUsername == null){
+            sUsername = getBasicAuthUser(exchange.getRequestHeaders().getFirst("Authorization"));
+            if (sUsername == null){
+                exchange.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"Realm\"");
+                throw new ApiException(401, "Unauthorized", null, "Bad credentials");
+            }
+            String sSessionId = userSessions.computeIfAbsent(sUsername, sUser -> {
+                String sNewSessionId = UUID.randomUUID().toString();
+                sessions.put(sNewSessionId, sUser);
+                return sNewSessionId;
+            });
+            exchange.getResponseHeaders().add("Set-Cookie", sSessionCookieName + "=" + sSessionId + "; Path=/; HttpOnly");
+        }
+        if (!sUsername.equals(sAdminUser.toLowerCase())){
+            throw new ApiException(403, CommonStrings.getApiErrorForbidden(), null, CommonStrings.getApiMessageAccessDenied());
+        }
+    }
+
+    private static String getSessionUser(String sCookies){
+        if (sCookies == null){
+            return null;
+        }
+        for (String sCookie : sCookies.split(";")){
+            String[] pair = sCookie.trim().split("=", 2);
+            if (pair.length == 2 && pair[0].equals(sSessionCookieName)){
+                return sessions.get(pair[1]);
+            }
+        }
+        return null;
+    }
+
+    private static String getBasicAuthUser(String sAuthorization){
+        if (sAuthorization == null || !sAuthorization.startsWith("Basic ")){
+            return null;
+        }
+        String[] credentials = new String(Base64.getDecoder().decode(sAuthorization.substring(6)), StandardCharsets.UTF_8).split(":", 2);
+        User user = users.get(credentials[0].toLowerCase());
+        if (user == null || credentials.length < 2 || !credentials[1].equals(user.getPassword())){
+            return null;
+        }
+        return user.getUsername().toLowerCase();
+    }
+
+    private static String getName(String sPath, String sApiCall){
+        return sPath.substring(sApiCall.length()).toLowerCase();
+    }
+
+    private static String readBody(InputStream inputStream) throws IOException {
+        return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int iStatus, String sBody) throws IOException {
+        byte[] body = sBody.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        String sAcceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (body.length > 0 && sAcceptEncoding != null && sAcceptEncoding.contains("gzip")){
+            body = gzip(body);
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(iStatus, body.length == 0 ? -1 : body.length);
+        if (body.length > 0){
+            try (OutputStream outputStream = exchange.getResponseBody()){
+                outputStream.write(body);
+            }
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)){
+            gzipOutputStream.write(body);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static void sendError(HttpExchange exchange, ApiException e, String sPath) throws IOException {
+        JsonObject error = new JsonObject();
+        error.addProperty("timestamp", System.currentTimeMillis());
+        error.addProperty("status", e.iStatus);
+        error.addProperty("error", e.sError);
+        if (e.sException != null){
+            error.addProperty("exception", e.sException);
+        }
+        error.addProperty("message", e.getMessage());
+        error.addProperty("path", sPath);
+        send(exchange, e.iStatus, error.toString());
+    }
+
+    //-------------------------------------------
+    //----------Users and Heroes ----------------
+    //-------------------------------------------
+
+    private static User getUser(String sUsername){
+        User user = users.get(sUsername);
+        if (user == null){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    "User with username " + sUsername + " doesn't exist");
+        }
+        return user;
+    }
+
+    /**
+     * Method that returns user with current list of heroes in JSON format,
+     * stored user is shared by all requests, so it is locked while heroes are set and serialized
+     */
+    private static String getUserJson(String sUsername){
+        User user = getUser(sUsername);
+        List<Hero> userHeroes = new ArrayList<>();
+        for (Hero hero : heroes.values()){
+            if (sUsername.equalsIgnoreCase(hero.getUsername())){
+                userHeroes.add(hero);
+            }
+        }
+        synchronized (user){
+            user.setHeroes(userHeroes);
+            return gson.toJson(user);
+        }
+    }
+
+    private static User postUser(User user){
+        if (user.getEmail() == null || user.getEmail().isEmpty()){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    CommonStrings.getApiMessageEmailNotSpecified());
+        }
+        user.setUsername(user.getUsername().toLowerCase());
+        user.setCreatedAt(DateTimeUtils.getCurrentDateTime());
+        user.setHeroes(new ArrayList<>());
+        if (users.putIfAbsent(user.getUsername(), user) != null){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    CommonStrings.getApiMessageAlreadyExistingUser(user.getUsername()));
+        }
+        return user;
+    }
+
+    private static void deleteUser(String sUsername){
+        getUser(sUsername);
+        heroes.values().removeIf(hero -> sUsername.equalsIgnoreCase(hero.getUsername()));
+        users.remove(sUsername);
+        String sSessionId = userSessions.remove(sUsername);
+        if (sSessionId != null){
+            sessions.remove(sSessionId);
+        }
+    }
+
+    private static Hero getHero(String sHeroName){
+        Hero hero = heroes.get(sHeroName);
+        if (hero == null){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    "Hero with name " + sHeroName + " doesn't exist");
+        }
+        return hero;
+    }
+
+    private static Hero postHero(Hero hero){
+        if (hero.getHeroName() == null || hero.getHeroName().isEmpty()){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    "Hero name is not specified!");
+        }
+        if (hero.getHeroClass() == null || hero.getHeroClass().isEmpty()){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    "Hero type is not specified!");
+        }
+        if (hero.getHeroLevel() == null){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    "Hero level is not specified!");
+        }
+        if (hero.getHeroLevel() < MIN_HERO_LEVEL || hero.getHeroLevel() > MAX_HERO_LEVEL){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    String.format("Hero level must be between %d and %d!", MIN_HERO_LEVEL, MAX_HERO_LEVEL));
+        }
+        if (hero.getUsername() == null){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    "Hero owner is not specified!");
+        }
+        getUser(hero.getUsername().toLowerCase());
+        hero.setCreatedAt(DateTimeUtils.getCurrentDateTime());
+        if (heroes.putIfAbsent(hero.getHeroName().toLowerCase(), hero) != null){
+            throw new ApiException(500, CommonStrings.getApiErrorInternalServerError(), ILLEGAL_ARGUMENT_EXCEPTION,
+                    "Hero with name " + hero.getHeroName() + " already exists");
+        }
+        return hero;
+    }
+
+    private static void deleteHero(String sHeroName){
+        getHero(sHeroName);
+        heroes.remove(sHeroName);
+    }
+}
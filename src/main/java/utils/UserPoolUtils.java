@@ -0,0 +1,258 @@
+package utils;
+
+import data.APICalls;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import objects.Hero;
+import objects.User;
+import org.testng.Assert;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Class that keeps pool of already created users for UI tests, so test doesn't have to POST
+ * user, GET it again (for createdAt) and DELETE it at the end on its critical path
+ * @description - users are grouped by profile (prefix of the username, e.g. "fixture").
+ * Pool is started when suite starts (start()), but users are created only when test leases the first user of the
+ * default profile, then the rest of fixtureUserPoolSize users is created in the background (suites where no test leases
+ * a user don't create any). Test leases a user with leaseUser() and returns it with releaseUser() in tearDown.
+ * Returned user is reset in the background: heroes are deleted, and if its details (e.g. first name via UI)
+ * or password were changed, user is restored. API can't update user, so restored user is deleted and POSTed
+ * again with the same username, details and password as when it was leased (only createdAt is new).
+ * Password can't be read via API, so it is checked by calling API with the original credentials.
+ * Tests that mutate user in a way that should not be restored (e.g. test deletes the user) use leaseFreshUser(),
+ * fresh users are deleted when they are released.
+ * Pool is started and shut down by CleanupSuiteListener, if it is not started (suite without it) every leased
+ * user is created and deleted the same way as in tests without pool
+ */
+public class UserPoolUtils extends LoggerUtils {
+
+    private static final String sDefaultProfile = PropertiesUtils.getFixtureUserPoolProfile();
+    private static final int iPoolSize = PropertiesUtils.getFixtureUserPoolSize();
+
+    // idle users for each profile, stored as JSON, so every lease gets new User object
+    private static final Map<String, Queue<String>> idleUsers = new ConcurrentHashMap<>();
+    // leased users by username
+    private static final Map<String, LeasedUser> leasedUsers = new ConcurrentHashMap<>();
+    // background creation, reset and deletion of users
+    private static final Set<CompletableFuture<Void>> pendingTasks = ConcurrentHashMap.newKeySet();
+    private static volatile boolean bStarted = false;
+    // set when the first user of the default profile is leased, so pool is filled only in suites that use it
+    private static final AtomicBoolean bPrefilled = new AtomicBoolean();
+
+    /**
+     * Class that stores leased user as it was when it was leased
+     */
+    private static class LeasedUser {
+        private final String sProfile;
+        private final String sJson;
+        private final boolean bFresh;
+
+        private LeasedUser(String sProfile, String sJson, boolean bFresh) {
+            this.sProfile = sProfile;
+            this.sJson = sJson;
+            this.bFresh = bFresh;
+        }
+    }
+
+    private static Queue<String> getIdleUsers(String sProfile){
+        return idleUsers.computeIfAbsent(sProfile, k -> new ConcurrentLinkedQueue<>());
+    }
+
+    /**
+     * Method that runs task in the background and keeps it until it is finished, so shutdown()
+     * can wait for it. Errors are only logged because they don't belong to any test
+     */
+    private static void runInBackground(String sTaskName, Runnable task){
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            try {
+                task.run();
+            } catch (AssertionError | Exception e){
+                log.error(String.format("User pool %s failed! Message: %s", sTaskName, e.getMessage()));
+            }
+        }, AsyncRestApiUtils.getExecutor());
+        pendingTasks.add(future);
+        future.whenComplete((v, e) -> pendingTasks.remove(future));
+    }
+
+    /**
+     * Method that POST user, GET its createdAt and returns user in JSON format
+     *
+     * @param user {User} - new user
+     *
+     * @return {String} - created user in JSON format (with password)
+     */
+    private static String createUser(User user){
+        RestApiUtils.postUser(user);
+        user.setCreatedAt(RestApiUtils.getUser(user.getUsername()).getCreatedAt());
+        return JsonUtils.writeUser(user);
+    }
+
+    /**
+     * Method that creates users for the profile in the background and adds them to the pool
+     *
+     * @param sProfile {String} - profile (username prefix) of the users
+     * @param iCount {int} - how many users to create
+     */
+    public static void prefill(String sProfile, int iCount){
+        log.debug(String.format("prefill() %s %d users", sProfile, iCount));
+        for (User user : User.createNewUniqueUsers(sProfile, iCount)){
+            runInBackground("prefill " + user.getUsername(), () -> getIdleUsers(sProfile).add(createUser(user)));
+        }
+    }
+
+    /**
+     * Method that starts the pool, it is called when the suite is started. Users are not created yet,
+     * pool is filled when the first user is leased
+     */
+    public static void start(){
+        bStarted = true;
+    }
+
+    /**
+     * Method that leases user from the pool, if there is no idle user new one is created
+     *
+     * @param sProfile {String} - profile (username prefix) of the user
+     *
+     * @return {User} - created user with createdAt and password, test can use it until it is released
+     */
+    public static User leaseUser(String sProfile){
+        if (bStarted && sProfile.equals(sDefaultProfile) && iPoolSize > 1 && bPrefilled.compareAndSet(false, true)){
+            // this lease creates its own user, it goes to the pool when it is released
+            prefill(sDefaultProfile, iPoolSize - 1);
+        }
+        String sJson = bStarted ? getIdleUsers(sProfile).poll() : null;
+        if (sJson == null){
+            log.debug("leaseUser() there is no idle user, creating new one for profile " + sProfile);
+            sJson = createUser(User.createNewUniqueUser(sProfile));
+        }
+        User user = JsonUtils.readUser(sJson);
+        leasedUsers.put(user.getUsername(), new LeasedUser(sProfile, sJson, false));
+        log.debug("leaseUser() " + user.getUsername());
+        return user;
+    }
+
+    /**
+     * Default method that leases user of the default profile
+     *
+     * @return {User} - created user with createdAt and password
+     */
+    public static User leaseUser(){
+        return leaseUser(sDefaultProfile);
+    }
+
+    /**
+     * Method that creates new user that will not be returned to the pool (it is deleted when it is released),
+     * it is used by tests that change user in a way that can't be reset
+     *
+     * @param sProfile {String} - profile (username prefix) of the user
+     *
+     * @return {User} - created user with createdAt and password
+     */
+    public static User leaseFreshUser(String sProfile){
+        String sJson = createUser(User.createNewUniqueUser(sProfile));
+        User user = JsonUtils.readUser(sJson);
+        leasedUsers.put(user.getUsername(), new LeasedUser(sProfile, sJson, true));
+        log.debug("leaseFreshUser() " + user.getUsername());
+        return user;
+    }
+
+    /**
+     * Method that returns leased user, user is reset and returned to the pool in the background
+     * (or submitted to CleanupUtils for deletion if it is fresh user or pool is not started)
+     *
+     * @param user {User} - leased user
+     */
+    public static void releaseUser(User user){
+        LeasedUser leasedUser = leasedUsers.remove(user.getUsername());
+        if (leasedUser == null){
+            Assert.fail(String.format("User %s is not leased from the pool!", user.getUsername()));
+        }
+        log.debug("releaseUser() " + user.getUsername());
+        if (leasedUser.bFresh || !bStarted){
+            CleanupUtils.deleteUser(user.getUsername());
+        } else {
+            runInBackground("reset " + user.getUsername(), () -> resetUser(leasedUser));
+        }
+    }
+
+    /**
+     * Method that deletes heroes of the user and checks if user details and password are the same as
+     * when it was leased. If they are not, user is restored (deleted and POSTed again with original details)
+     */
+    private static void resetUser(LeasedUser leasedUser){
+        User original = JsonUtils.readUser(leasedUser.sJson);
+        String sUsername = original.getUsername();
+        ApiCacheUtils.invalidateUser(sUsername);
+        User current = RestApiUtils.getUser(sUsername);
+        List<Hero> heroes = current.getHeroes();
+        if (heroes != null){
+            for (Hero hero : heroes){
+                RestApiUtils.deleteHero(hero.getHeroName());
+            }
+        }
+        if (hasSameDetails(original, current) && hasSamePassword(original)){
+            getIdleUsers(leasedUser.sProfile).add(leasedUser.sJson);
+        } else {
+            log.debug(String.format("User %s is changed, it is restored", sUsername));
+            RestApiUtils.deleteUser(sUsername);
+            getIdleUsers(leasedUser.sProfile).add(createUser(original));
+        }
+    }
+
+    /**
+     * Method that checks if user can still authenticate with the original password, any response
+     * except 401 (e.g. 403 because only admin can use API) means that the password is correct
+     */
+    private static boolean hasSamePassword(User original){
+        // session from the previous check could still be valid after the password is changed
+        ApiAuthUtils.removeSession(original.getUsername(), original.getPassword());
+        Response response = ApiClientUtils.sendRequest(Method.GET, APICalls.CHECK_IF_USER_EXISTS,
+                APICalls.createCheckIfUserExistApiCall(original.getUsername()), null, original.getUsername(), original.getPassword());
+        ApiClientUtils.releaseConnection(response);
+        return response.getStatusCode() != 401;
+    }
+
+    private static boolean hasSameDetails(User original, User current){
+        return Objects.equals(original.getEmail(), current.getEmail())
+                && Objects.equals(original.getFirstName(), current.getFirstName())
+                && Objects.equals(original.getLastName(), current.getLastName())
+                && Objects.equals(original.getAbout(), current.getAbout())
+                && Objects.equals(original.getSecretQuestion(), current.getSecretQuestion())
+                && Objects.equals(original.getSecretAnswer(), current.getSecretAnswer());
+    }
+
+    /**
+     * Method that stops the pool, waits for background tasks and deletes all idle users,
+     * it is called when the suite is finished
+     */
+    public static void shutdown(){
+        bStarted = false;
+        bPrefilled.set(false);
+        CompletableFuture.allOf(pendingTasks.toArray(CompletableFuture<?>[]::new)).join();
+        int iDeleted = 0;
+        for (Queue<String> users : idleUsers.values()){
+            String sJson;
+            while ((sJson = users.poll()) != null){
+                String sUsername = JsonUtils.readUser(sJson).getUsername();
+                try {
+                    RestApiUtils.deleteUser(sUsername);
+                    iDeleted++;
+                } catch (AssertionError | Exception e){
+                    log.error(String.format("Deleting pooled user %s failed! Message: %s", sUsername, e.getMessage()));
+                }
+            }
+        }
+        if (!leasedUsers.isEmpty()){
+            log.warn("Users that are not released to the pool: " + leasedUsers.keySet());
+        }
+        log.info(String.format("[USER POOL] Deleted %d idle users", iDeleted));
+    }
+}
@@ -0,0 +1,52 @@
+package listeners;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import utils.ApiCacheUtils;
+import utils.CleanupUtils;
+import utils.DatabaseConnectionPool;
+import utils.LoggerUtils;
+import utils.UserPoolUtils;
+
+/**
+ * The class that starts pool of fixture users (UserPoolUtils) when the suite is started, and makes sure that
+ * pooled users and users and heroes which tests submitted for deletion (CleanupUtils) are deleted,
+ * or reported if they can't be deleted, before the suite is finished. Cache of API responses is turned on or off
+ * when the suite starts (suite parameter apiCacheEnabled). At the end idle database connections are closed
+ * and statistics of the connection pool are logged. Listener is registered on BaseTestClass (@Listeners),
+ * so it doesn't have to be in the suite XML
+ */
+public class CleanupSuiteListener extends LoggerUtils implements ISuiteListener {
+
+    private static final String CLEANUP_FINISHED = "cleanupFinished";
+
+    @Override
+    public void onStart(ISuite suite) {
+        ApiCacheUtils.configure(suite.getParameter("apiCacheEnabled"));
+        UserPoolUtils.start();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        finishCleanup(suite);
+    }
+
+    /**
+     * Method that shuts down the user pool, waits for background cleanup and closes idle database connections,
+     * it is done only once per suite, because listener that stops backend (StandInServerListener) has to call
+     * it before, suite listeners from @Listeners are finished after listeners from the suite XML
+     *
+     * @param suite {ISuite} - suite that is finished
+     */
+    static void finishCleanup(ISuite suite){
+        if (suite.getAttribute(CLEANUP_FINISHED) != null){
+            return;
+        }
+        suite.setAttribute(CLEANUP_FINISHED, Boolean.TRUE);
+        // pool submits fresh users for deletion, so it is shut down before cleanup is drained
+        UserPoolUtils.shutdown();
+        log.info("[CLEANUP] Waiting for background cleanup of suite " + suite.getName());
+        CleanupUtils.drain();
+        DatabaseConnectionPool.evictAll();
+    }
+}
@@ -0,0 +1,218 @@
+package listeners;
+
+import annotations.RequiresHero;
+import annotations.RequiresUser;
+import objects.BulkApiResult;
+import objects.Hero;
+import objects.User;
+import org.testng.Assert;
+import org.testng.IClassListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestClass;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import utils.ApiCassetteUtils;
+import utils.BulkRestApiUtils;
+import utils.CleanupUtils;
+import utils.DateTimeUtils;
+import utils.LoggerUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The class that creates users and heroes declared on the test class with RequiresUser and RequiresHero
+ * annotations before the test class runs, injects them into fields and deletes them when class is finished
+ * @description - all users of the class are created at the same time (BulkRestApiUtils), and after them
+ * all heroes, so fixture costs about two API calls of time instead of one call per user and hero.
+ * Only users that are created are submitted for deletion (CleanupUtils), heroes are deleted with their owner.
+ * If fixture can't be created, test methods of the class are skipped (TestNG doesn't report tests of the class
+ * if exception is thrown from onBeforeClass, so the error is stored and tests are skipped when they are invoked).
+ * Fixture calls are recorded into (and replayed from) cassette <test class>.fixtures (ApiCassetteUtils).
+ * Listener is registered on BaseTestClass (@Listeners), so it doesn't have to be in the suite XML
+ */
+public class FixtureListener extends LoggerUtils implements IClassListener, IInvokedMethodListener {
+
+    // fixtures of the test classes that are running, key is name of the test class
+    private static final Map<String, ClassFixtures> fixtures = new ConcurrentHashMap<>();
+
+    /**
+     * Class that stores users created for one test class and error if fixture failed
+     */
+    private static class ClassFixtures {
+        private final List<User> users = Collections.synchronizedList(new ArrayList<>());
+        private volatile String sError;
+    }
+
+    @Override
+    public void onBeforeClass(ITestClass testClass) {
+        Class<?> realClass = testClass.getRealClass();
+        RequiresUser[] requiredUsers = realClass.getAnnotationsByType(RequiresUser.class);
+        RequiresHero[] requiredHeroes = realClass.getAnnotationsByType(RequiresHero.class);
+        if (requiredUsers.length == 0 && requiredHeroes.length == 0){
+            return;
+        }
+        ClassFixtures classFixtures = new ClassFixtures();
+        // with parallel methods every method worker can report the class, fixture is created only once
+        if (fixtures.putIfAbsent(testClass.getName(), classFixtures) != null){
+            return;
+        }
+        Object[] instances = testClass.getInstances(false);
+        // fixture calls are not made by any test method, so they are recorded into (and replayed from) cassette of the class
+        boolean bCassette = ApiCassetteUtils.isEnabled();
+        try {
+            if (bCassette){
+                ApiCassetteUtils.startCassette(testClass.getName() + ".fixtures");
+            }
+            for (int i = 0; i < instances.length; i++){
+                // usernames and hero names of different instances would have the same stamp
+                String sPrefix = realClass.getSimpleName() + (i > 0 ? i : "");
+                provision(instances[i], sPrefix, requiredUsers, requiredHeroes, classFixtures);
+            }
+        } catch (AssertionError | Exception e){
+            classFixtures.sError = e.getMessage();
+            log.error(String.format("[FIXTURE] Fixture of %s is not created! Message: %s", testClass.getName(), e.getMessage()));
+        } finally {
+            if (bCassette){
+                ApiCassetteUtils.stopCassette(classFixtures.sError == null);
+            }
+        }
+    }
+
+    @Override
+    public void onAfterClass(ITestClass testClass) {
+        ClassFixtures classFixtures = fixtures.remove(testClass.getName());
+        if (classFixtures == null){
+            return;
+        }
+        synchronized (classFixtures.users){
+            for (User user : classFixtures.users){
+                CleanupUtils.deleteUser(user.getUsername());
+            }
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod() && !method.getTestMethod().isBeforeMethodConfiguration()){
+            return;
+        }
+        ClassFixtures classFixtures = fixtures.get(testResult.getTestClass().getName());
+        if (classFixtures != null && classFixtures.sError != null){
+            throw new SkipException("Fixture of the test class is not created! Message: " + classFixtures.sError);
+        }
+    }
+
+    /**
+     * Method that creates users and then heroes of one test class instance and injects them into fields
+     *
+     * @param instance {Object} - instance of the test class
+     * @param sPrefix {String} - prefix of usernames and hero names
+     * @param requiredUsers {RequiresUser[]} - users annotations of the test class
+     * @param requiredHeroes {RequiresHero[]} - heroes annotations of the test class
+     * @param classFixtures {ClassFixtures} - created users are added here, so they are deleted after the class
+     */
+    private static void provision(Object instance, String sPrefix, RequiresUser[] requiredUsers,
+                                  RequiresHero[] requiredHeroes, ClassFixtures classFixtures){
+        int iUsers = 0;
+        for (RequiresUser requiredUser : requiredUsers){
+            iUsers += requiredUser.count();
+        }
+        // all users are created with one call, so usernames have the same stamp and different index
+        List<User> allUsers = User.createNewUniqueUsers(sPrefix, iUsers);
+        Map<String, List<User>> usersByField = new LinkedHashMap<>();
+        int iFrom = 0;
+        for (RequiresUser requiredUser : requiredUsers){
+            usersByField.put(requiredUser.field(), allUsers.subList(iFrom, iFrom + requiredUser.count()));
+            iFrom += requiredUser.count();
+        }
+        for (User user : allUsers){
+            user.setCreatedAt(DateTimeUtils.getCurrentDateTime());
+        }
+        BulkApiResult usersResult = BulkRestApiUtils.postUsers(allUsers);
+        for (User user : allUsers){
+            if (usersResult.getFailed().stream().noneMatch(item -> item.getName().equals(user.getUsername()))){
+                classFixtures.users.add(user);
+            }
+        }
+        usersResult.assertSuccess();
+
+        int iHeroes = 0;
+        for (RequiresHero requiredHero : requiredHeroes){
+            if (!usersByField.containsKey(requiredHero.owner())){
+                Assert.fail(String.format("Owner %s of hero field %s is not RequiresUser field!", requiredHero.owner(), requiredHero.field()));
+            }
+            iHeroes += usersByField.get(requiredHero.owner()).size() * requiredHero.count();
+        }
+        // all heroes are created with one call like users and then given to their owners
+        List<Hero> allHeroes = iHeroes > 0 ? Hero.createNewUniqueHeroes(allUsers.get(0), sPrefix, iHeroes) : new ArrayList<>();
+        Map<String, List<Hero>> heroesByField = new LinkedHashMap<>();
+        int iHero = 0;
+        for (RequiresHero requiredHero : requiredHeroes){
+            List<Hero> heroes = new ArrayList<>();
+            for (User owner : usersByField.get(requiredHero.owner())){
+                for (int i = 0; i < requiredHero.count(); i++){
+                    Hero hero = allHeroes.get(iHero++);
+                    hero.setUsername(owner.getUsername());
+                    hero.setCreatedAt(DateTimeUtils.getCurrentDateTime());
+                    owner.addHero(hero);
+                    heroes.add(hero);
+                }
+            }
+            heroesByField.put(requiredHero.field(), heroes);
+        }
+        if (!allHeroes.isEmpty()){
+            BulkRestApiUtils.postHeroes(allHeroes).assertSuccess();
+        }
+
+        for (Map.Entry<String, List<User>> entry : usersByField.entrySet()){
+            inject(instance, entry.getKey(), entry.getValue(), User.class);
+        }
+        for (Map.Entry<String, List<Hero>> entry : heroesByField.entrySet()){
+            inject(instance, entry.getKey(), entry.getValue(), Hero.class);
+        }
+        log.info(String.format("[FIXTURE] %s: %d users and %d heroes created", instance.getClass().getName(), allUsers.size(), allHeroes.size()));
+    }
+
+    /**
+     * Method that sets field of the test class (or its parent class) to the list of objects,
+     * or to the object if field is not a list
+     */
+    private static void inject(Object instance, String sFieldName, List<?> values, Class<?> type){
+        Field field = findField(instance.getClass(), sFieldName);
+        if (field == null){
+            Assert.fail(String.format("Field %s doesn't exist in %s!", sFieldName, instance.getClass().getName()));
+        }
+        Object value = null;
+        if (field.getType().isAssignableFrom(List.class)){
+            value = new ArrayList<>(values);
+        } else if (field.getType().isAssignableFrom(type) && values.size() == 1){
+            value = values.get(0);
+        } else {
+            Assert.fail(String.format("Field %s should be %s or List<%s> for %d objects!", sFieldName,
+                    type.getSimpleName(), type.getSimpleName(), values.size()));
+        }
+        try {
+            field.setAccessible(true);
+            field.set(instance, value);
+        } catch (IllegalAccessException e){
+            Assert.fail(String.format("Field %s can't be set! Message: %s", sFieldName, e.getMessage()));
+        }
+    }
+
+    private static Field findField(Class<?> testClass, String sFieldName){
+        for (Class<?> current = testClass; current != null; current = current.getSuperclass()){
+            try {
+                return current.getDeclaredField(sFieldName);
+            } catch (NoSuchFieldException e){
+                // field can be in the parent class
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package listeners;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import utils.LoggerUtils;
+import utils.StandInApiServer;
+
+/**
+ * The class that starts in-process stand-in server for users and heroes API (StandInApiServer)
+ * before the suite and switches environment to "standin", so API tests can be executed without
+ * application. Server is stopped when the suite is finished, after users and heroes submitted for deletion
+ * are deleted (CleanupSuiteListener)
+ */
+public class StandInServerListener extends LoggerUtils implements ISuiteListener {
+
+    @Override
+    public void onStart(ISuite suite) {
+        log.info("[STAND-IN] Starting stand-in API server for suite " + suite.getName());
+        System.setProperty("environment", "standin");
+        StandInApiServer.start();
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        CleanupSuiteListener.finishCleanup(suite);
+        StandInApiServer.stop();
+        System.clearProperty("environment");
+    }
+}
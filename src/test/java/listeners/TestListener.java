@@ -13,7 +13,12 @@ import org.openqa.selenium.WebDriver;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
+import utils.ApiAuthUtils;
+import utils.ApiCacheUtils;
+import utils.ApiLimiterUtils;
+import utils.ApiSingleFlightUtils;
 import utils.ExtentReportUtils;
+import utils.LatencyUtils;
 import utils.LoggerUtils;
 import utils.PropertiesUtils;
 import utils.ScreenshotUtils;
@@ -57,6 +62,8 @@ public class TestListener extends LoggerUtils implements ITestListener {
         String sSuiteName = context.getSuite().getName();
         extentReport = ExtentReportUtils.createExtentReportInstance(sSuiteName);
         log.info("[SUITE STARTED] " + sSuiteName);
+        ApiCacheUtils.clear();
+        LatencyUtils.clear();
         context.setAttribute("listenerTakeScreenshot", bListenerTakeScreenshot);
         bUpdateJira = getUpdateJira(context);
         sExtentReportName = ExtentReportUtils.getExtentReportName(sSuiteName);
@@ -75,7 +82,14 @@ public class TestListener extends LoggerUtils implements ITestListener {
     public void onFinish(ITestContext context) {
         String sSuiteName = context.getSuite().getName();
         log.info("[SUITE FINISHED] " + sSuiteName);
+        ApiAuthUtils.logAuthStatistics();
+        ApiLimiterUtils.logLimiterStatistics();
+        ApiSingleFlightUtils.logSingleFlightStatistics();
+        ApiCacheUtils.logCacheStatistics();
+        ApiCacheUtils.clear();
+        LatencyUtils.logLatencySummary();
         if (extentReport != null) {
+            ExtentReportUtils.addLatencySummary(extentReport);
             extentReport.flush();
         }
     }
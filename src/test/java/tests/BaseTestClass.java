@@ -1,14 +1,85 @@
 package tests;
 
+import listeners.CleanupSuiteListener;
+import listeners.FixtureListener;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestResult;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.internal.TestResult;
+import utils.ApiCassetteUtils;
 import utils.LoggerUtils;
 import utils.PropertiesUtils;
+import utils.RestApiUtils;
 import utils.ScreenshotUtils;
 import utils.WebDriverUtils;
+import java.lang.reflect.Method;
 
+// fixtures declared with RequiresUser and RequiresHero are created for every test class, and users and heroes
+// submitted for deletion are deleted when suite finishes, no matter which suite (or IDE) runs it
+@Listeners({FixtureListener.class, CleanupSuiteListener.class})
 public abstract class BaseTestClass extends LoggerUtils {
 
+    /**
+     * Method that sets how much RestApiUtils verifies for the current test (thread)
+     * @description - tests in tests.api package verify API itself, so they always use STRICT
+     * verification (checks if user/hero exists before and after the call), all other tests
+     * use API only to create and delete fixtures, so they use level from the property file.
+     * TestNG runs @BeforeMethod of the base class before @BeforeMethod of the test class
+     */
+    @BeforeMethod(alwaysRun = true)
+    public void setUpApiVerificationLevel(){
+        if(this.getClass().getPackage().getName().startsWith("tests.api")){
+            RestApiUtils.setVerificationLevel(RestApiUtils.VerificationLevel.STRICT);
+        } else {
+            RestApiUtils.resetVerificationLevel();
+        }
+    }
+
+    /**
+     * Method that removes verification level of the test, so the next class on the same thread
+     * (e.g. its fixtures from FixtureListener) uses level from the property file.
+     * TestNG runs @AfterMethod of the base class after @AfterMethod of the test class
+     */
+    @AfterMethod(alwaysRun = true)
+    public void tearDownApiVerificationLevel(){
+        RestApiUtils.resetVerificationLevel();
+    }
+
+    /**
+     * Method that starts API cassette of the test method when API calls are recorded or replayed
+     * (apiCassetteMode), so setup and cleanup calls of the test are in the same cassette.
+     * Every invocation of the data provider test has its own cassette (index of the parameters is added
+     * to the name), otherwise parallel invocations would overwrite each other's cassette
+     *
+     * @param method {Method} - test method
+     * @param testResult {ITestResult} - result of the test method that is going to be invoked
+     */
+    @BeforeMethod(alwaysRun = true)
+    public void setUpApiCassette(Method method, ITestResult testResult){
+        if(ApiCassetteUtils.isEnabled()){
+            String sCassette = this.getClass().getName() + "." + method.getName();
+            if (testResult.getParameters().length > 0 && testResult instanceof TestResult){
+                sCassette = sCassette + "[" + ((TestResult) testResult).getParameterIndex() + "]";
+            }
+            ApiCassetteUtils.startCassette(sCassette);
+        }
+    }
+
+    /**
+     * Method that stops API cassette of the test method, TestNG runs @AfterMethod of the base class
+     * after @AfterMethod of the test class. Recorded cassette is written only if test passed
+     *
+     * @param testResult {ITestResult} - result of the test method
+     */
+    @AfterMethod(alwaysRun = true)
+    public void tearDownApiCassette(ITestResult testResult){
+        if(ApiCassetteUtils.isEnabled()){
+            ApiCassetteUtils.stopCassette(testResult.getStatus() == ITestResult.SUCCESS);
+        }
+    }
+
     /**
      * Method that returns an instance of the WebDriver created in the WebDriver class
      *
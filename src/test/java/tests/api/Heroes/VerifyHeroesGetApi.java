@@ -1,5 +1,7 @@
 package tests.api.Heroes;
 
+import annotations.RequiresHero;
+import annotations.RequiresUser;
 import objects.Hero;
 import objects.User;
 import org.openqa.selenium.WebDriver;
@@ -12,38 +14,31 @@ import tests.BaseTestClass;
 import utils.DateTimeUtils;
 import utils.RestApiUtils;
 
+@RequiresUser(field = "userVerify")
+@RequiresHero(field = "heroVerify", owner = "userVerify")
 public class VerifyHeroesGetApi extends BaseTestClass {
     private String sTestName = this.getClass().getName();
     private WebDriver driver;
 
+    // created and deleted by FixtureListener
     private User userVerify;
     private Hero heroVerify;
-    private boolean bCreated = false;
 
     @BeforeMethod
     public void setUpTest(){
         log.info(String.format("[SETUP TEST] %s", sTestName));
         driver = setUpDriver();
-        userVerify = User.createNewUniqueUser("VerifyHeroGetApi");
-        RestApiUtils.postUser(userVerify);
-        heroVerify = Hero.createNewUniqueHero(userVerify, "HeroGETApi");
-        heroVerify.setCreatedAt(DateTimeUtils.getCurrentDateTime());
-        RestApiUtils.postHero(heroVerify);
-        bCreated = true;
     }
     @AfterMethod(alwaysRun = true)
     public void tearDown(ITestResult testResult){
         log.info(String.format("[END TEST] %s", sTestName));
         tearDown(driver,testResult);
-        if(bCreated){
-            cleanUp();
-        }
     }
 
     /**
      * Test that verify if GET API call return correct details
-         * Create unique User in before test
-         * Create unique Hero in before test
+         * Create unique User before test class (RequiresUser)
+         * Create unique Hero before test class (RequiresHero)
          * Get Hero detail using GET API call
          * Check if Hero details are correct as created in before test
          * (hero's name, hero's class, hero's level, hero's username, hero's created at)
@@ -63,12 +58,4 @@ public class VerifyHeroesGetApi extends BaseTestClass {
         softAssert.assertAll("Wrong Error Response Details!");
 
     }
-    private void cleanUp(){
-        log.debug("cleanUp()");
-        try {
-            RestApiUtils.deleteUser(userVerify.getUsername());
-        } catch (AssertionError | Exception e) {
-            log.error("Cleaning up failed! Message: " + e.getMessage());
-        }
-    }
 }
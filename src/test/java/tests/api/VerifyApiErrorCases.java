@@ -0,0 +1,77 @@
+package tests.api;
+
+import annotations.RequiresHero;
+import annotations.RequiresUser;
+import data.TestNGGroups;
+import objects.ApiError;
+import objects.ApiErrorCase;
+import objects.Hero;
+import objects.User;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.asserts.SoftAssert;
+import tests.BaseTestClass;
+import utils.ApiErrorCaseUtils;
+import utils.DateTimeUtils;
+import java.util.Date;
+import java.util.Iterator;
+
+@RequiresUser(field = "existingUser")
+@RequiresHero(field = "existingHero", owner = "existingUser")
+@Test(groups = {TestNGGroups.API})
+public class VerifyApiErrorCases extends BaseTestClass {
+
+    // created and deleted by FixtureListener
+    private User existingUser;
+    private Hero existingHero;
+
+    /**
+     * Data provider with all negative cases from ApiErrorCaseUtils, cases are executed in parallel
+     * (number of threads is data-provider-thread-count of the suite)
+     */
+    @DataProvider(name = "errorCases", parallel = true)
+    public Iterator<Object[]> errorCases(){
+        return ApiErrorCaseUtils.createErrorCases(existingUser, existingHero).stream()
+                .map(errorCase -> new Object[]{errorCase})
+                .iterator();
+    }
+
+    /**
+     * Test that verify that every invalid User/Hero payload or wrong credentials
+     * returns expected error (see ApiErrorCaseUtils):
+         * Status code,
+         * Error,
+         * Exception,
+         * Message,
+         * Path
+         * and that that date matches
+     * If payload is accepted by mistake, created user is deleted
+     */
+    @Test(dataProvider = "errorCases")
+    public void testVerifyApiErrorCase(ApiErrorCase errorCase) {
+        try {
+            ApiError error = ApiErrorCaseUtils.send(errorCase);
+            Date date = DateTimeUtils.getCurrentDateTime();
+            log.debug(errorCase + ": " + error);
+
+            SoftAssert softAssert = new SoftAssert();
+            softAssert.assertTrue(errorCase.getExpectedStatuses().contains(error.getStatus()),
+                    "Wrong Status Code " + error.getStatus() + ", expected " + errorCase.getExpectedStatuses() + "!");
+            if (errorCase.getExpectedError() != null){
+                softAssert.assertEquals(error.getError(), errorCase.getExpectedError(), "Wrong Error!");
+            }
+            if (errorCase.getExpectedException() != null){
+                softAssert.assertEquals(error.getException(), errorCase.getExpectedException(), "Wrong Exception!");
+            }
+            if (errorCase.getExpectedMessage() != null){
+                softAssert.assertEquals(error.getMessage(), errorCase.getExpectedMessage(), "Wrong Message!");
+            }
+            softAssert.assertEquals(error.getPath(), errorCase.getExpectedPath(), "Wrong Path!");
+            softAssert.assertTrue(DateTimeUtils.compareDateTimes(error.getTimestamp(), date, 5), "Wrong Timestamp!");
+            softAssert.assertAll("Wrong Error Response Details for '" + errorCase + "'!");
+        } catch (AssertionError | RuntimeException e){
+            ApiErrorCaseUtils.cleanUp(errorCase);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package tests.database;
+
+import data.TestNGGroups;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import tests.BaseTestClass;
+import utils.RowMapperBenchmarkUtils;
+
+@Test(groups = {TestNGGroups.BENCHMARK})
+public class RunRowMapperBenchmark extends BaseTestClass {
+    private String sTestName = this.getClass().getName();
+
+    @BeforeMethod
+    public void setUpTest(){
+        log.info(String.format("[SETUP TEST] %s", sTestName));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(){
+        log.info(String.format("[END TEST] %s", sTestName));
+    }
+
+    /**
+     * Compare row mappers written by hand with BeanListHandler on in-memory result sets of users and heroes
+     * (dbRowMapperBenchmarkRows, dbRowMapperBenchmarkIterations) and verify that they return the same objects
+     * (times and allocated memory are in the log, "[ROW MAPPER]")
+     */
+    @Test
+    public void testRunRowMapperBenchmark(){
+        Assert.assertTrue(RowMapperBenchmarkUtils.run(), "Row mappers and BeanListHandler return different objects!");
+    }
+}
@@ -0,0 +1,254 @@
+package tests.database;
+
+import data.TestNGGroups;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import tests.BaseTestClass;
+import utils.DatabaseConnectionPool;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Tests of DatabaseConnectionPool with stub JDBC driver (jdbc:stub:), so no database is needed.
+ * Physical connections that stub driver opened are in physicalConnections, so tests can check
+ * which connection the pool returned, break it or check if it is closed
+ */
+@Test(groups = {TestNGGroups.REGRESSION}, singleThreaded = true)
+public class VerifyDatabaseConnectionPool extends BaseTestClass {
+    private String sTestName = this.getClass().getName();
+    private static final String STUB_URL = "jdbc:stub:pool";
+
+    private final List<StubConnection> physicalConnections = new CopyOnWriteArrayList<>();
+    private final StubDriver driver = new StubDriver();
+    private DatabaseConnectionPool pool;
+
+    /**
+     * Class for state of the physical connection that stub driver opened
+     */
+    private static class StubConnection {
+        private volatile boolean bValid = true;
+        private volatile boolean bClosed;
+        private Connection connection;
+    }
+
+    /**
+     * JDBC driver which opens stub connections for jdbc:stub: URLs
+     */
+    private class StubDriver implements Driver {
+        @Override
+        public Connection connect(String sUrl, Properties info) {
+            if (!acceptsURL(sUrl)){
+                return null;
+            }
+            StubConnection stub = new StubConnection();
+            stub.connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()){
+                            case "isValid":
+                                return stub.bValid && !stub.bClosed;
+                            case "isClosed":
+                                return stub.bClosed;
+                            case "close":
+                                stub.bClosed = true;
+                                return null;
+                            case "getAutoCommit":
+                                return true;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "toString":
+                                return "StubConnection";
+                            default:
+                                return null;
+                        }
+                    });
+            physicalConnections.add(stub);
+            return stub.connection;
+        }
+
+        @Override
+        public boolean acceptsURL(String sUrl) {
+            return sUrl.startsWith("jdbc:stub:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String sUrl, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+
+    @BeforeClass(alwaysRun = true)
+    public void registerDriver() throws SQLException {
+        DriverManager.registerDriver(driver);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deregisterDriver() throws SQLException {
+        DriverManager.deregisterDriver(driver);
+    }
+
+    @BeforeMethod
+    public void setUpTest(){
+        log.info(String.format("[SETUP TEST] %s", sTestName));
+        physicalConnections.clear();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(){
+        log.info(String.format("[END TEST] %s", sTestName));
+        if (pool != null){
+            pool.close();
+            pool = null;
+        }
+    }
+
+    /**
+     * Method that creates pool for the stub driver with settings of the test
+     */
+    private DatabaseConnectionPool createPool(int iMaxPoolSize, long lConnectionTimeoutMillis, long lMaxLifetimeMillis,
+                                              long lLeakDetectionThresholdMillis){
+        pool = new DatabaseConnectionPool(STUB_URL, "user", "password", iMaxPoolSize, lConnectionTimeoutMillis, 1,
+                lMaxLifetimeMillis, lLeakDetectionThresholdMillis);
+        return pool;
+    }
+
+    /**
+     * Verify that connection which is returned to the pool is used by the next query
+     */
+    @Test
+    public void testVerifyConnectionIsReused() throws SQLException {
+        createPool(2, 1000, 0, 0);
+        pool.getConnection().close();
+        pool.getConnection().close();
+        Assert.assertEquals(physicalConnections.size(), 1, "Returned connection is not reused!");
+        Assert.assertFalse(physicalConnections.get(0).bClosed, "Idle connection is closed!");
+    }
+
+    /**
+     * Verify that query waits dbConnectionTimeout for connection when all connections are in use
+     * and fails with SQLTransientConnectionException after that
+     */
+    @Test
+    public void testVerifyConnectionTimeout() throws SQLException {
+        createPool(1, 300, 0, 0);
+        Connection connection = pool.getConnection();
+        long lStart = System.currentTimeMillis();
+        Assert.assertThrows(SQLTransientConnectionException.class, () -> pool.getConnection());
+        Assert.assertTrue(System.currentTimeMillis() - lStart >= 300, "Pool didn't wait for connection!");
+        connection.close();
+        pool.getConnection().close();
+        Assert.assertEquals(physicalConnections.size(), 1, "Connection that is returned after timeout is not reused!");
+    }
+
+    /**
+     * Verify that connection older than max lifetime is closed and new connection is opened instead of it
+     */
+    @Test
+    public void testVerifyExpiredConnectionIsClosed() throws SQLException, InterruptedException {
+        createPool(1, 1000, 200, 0);
+        pool.getConnection().close();
+        Thread.sleep(300);
+        pool.getConnection().close();
+        Assert.assertEquals(physicalConnections.size(), 2, "Expired connection is used!");
+        Assert.assertTrue(physicalConnections.get(0).bClosed, "Expired connection is not closed!");
+        Assert.assertTrue(pool.getStatistics().contains("expired: 1"), "Wrong statistics: " + pool.getStatistics());
+    }
+
+    /**
+     * Verify that connection which was idle for more than 500 ms is validated and broken connection
+     * is closed and replaced with new one
+     */
+    @Test
+    public void testVerifyBrokenConnectionIsReplaced() throws SQLException, InterruptedException {
+        createPool(1, 1000, 0, 0);
+        pool.getConnection().close();
+        physicalConnections.get(0).bValid = false;
+        Thread.sleep(600);
+        Connection connection = pool.getConnection();
+        Assert.assertTrue(connection.isValid(1), "Broken connection is returned!");
+        connection.close();
+        Assert.assertEquals(physicalConnections.size(), 2, "Broken connection is not replaced!");
+        Assert.assertTrue(physicalConnections.get(0).bClosed, "Broken connection is not closed!");
+        Assert.assertTrue(pool.getStatistics().contains("validation failures: 1"), "Wrong statistics: " + pool.getStatistics());
+    }
+
+    /**
+     * Verify that connection which is not returned in leak detection threshold is reported only once
+     * and that connection can't be used after it is returned to the pool
+     */
+    @Test
+    public void testVerifyLeakIsDetected() throws SQLException, InterruptedException {
+        createPool(2, 1000, 0, 200);
+        Connection connection = pool.getConnection();
+        Thread.sleep(700);
+        Assert.assertTrue(pool.getStatistics().contains("leaks: 1"), "Wrong statistics: " + pool.getStatistics());
+        connection.close();
+        Assert.assertThrows(SQLException.class, () -> connection.setAutoCommit(false));
+    }
+
+    /**
+     * Verify that pool can be used after idle connections are closed when suite is finished,
+     * and leak detection still works, so the next suite in the same JVM uses the same pool
+     */
+    @Test
+    public void testVerifyPoolIsUsableAfterEvict() throws SQLException, InterruptedException {
+        createPool(2, 1000, 0, 200);
+        pool.getConnection().close();
+        DatabaseConnectionPool.evictAll();
+        Assert.assertTrue(physicalConnections.get(0).bClosed, "Idle connection is not closed!");
+        Connection connection = pool.getConnection();
+        Assert.assertEquals(physicalConnections.size(), 2, "New connection is not opened after evict!");
+        Thread.sleep(700);
+        Assert.assertTrue(pool.getStatistics().contains("leaks: 1"), "Leak is not detected after evict: " + pool.getStatistics());
+        connection.close();
+    }
+
+    /**
+     * Verify that pool can't be used after it is closed and that connection borrowed before that
+     * is closed when it is returned
+     */
+    @Test
+    public void testVerifyClosedPoolCantBeUsed() throws SQLException {
+        createPool(2, 1000, 0, 0);
+        Connection connection = pool.getConnection();
+        pool.close();
+        Assert.assertThrows(SQLException.class, () -> pool.getConnection());
+        connection.close();
+        Assert.assertTrue(physicalConnections.get(0).bClosed, "Connection returned to closed pool is not closed!");
+    }
+}
@@ -9,6 +9,7 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import org.testng.asserts.SoftAssert;
 import tests.BaseTestClass;
+import utils.CleanupUtils;
 import utils.DatabaseUtils;
 import utils.DateTimeUtils;
 import utils.RestApiUtils;
@@ -91,7 +92,7 @@ public class VerifyUserDetailsInDatabase extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            CleanupUtils.deleteUser(user.getUsername());
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
@@ -7,9 +7,9 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import tests.BaseTestClass;
+import utils.CleanupUtils;
 import utils.DateTimeUtils;
 import utils.PropertiesUtils;
-import utils.RestApiUtils;
 import java.util.Date;
 
 public class DemoLocaleDateTime extends BaseTestClass {
@@ -54,7 +54,7 @@ public class DemoLocaleDateTime extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            CleanupUtils.deleteUser(user.getUsername());
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
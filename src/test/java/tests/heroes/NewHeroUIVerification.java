@@ -11,6 +11,7 @@ import org.testng.annotations.Test;
 import org.testng.asserts.SoftAssert;
 import pages.*;
 import tests.BaseTestClass;
+import utils.CleanupUtils;
 import utils.DateTimeUtils;
 import utils.PropertiesUtils;
 import utils.RestApiUtils;
@@ -96,7 +97,7 @@ public class NewHeroUIVerification extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteHero(hero.getHeroName());
+            CleanupUtils.deleteHero(hero.getHeroName());
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
@@ -12,6 +12,7 @@ import org.testng.annotations.Test;
 import org.testng.asserts.SoftAssert;
 import pages.*;
 import tests.BaseTestClass;
+import utils.CleanupUtils;
 import utils.DateTimeUtils;
 import utils.RestApiUtils;
 
@@ -102,7 +103,7 @@ public class VerifyAddNewHeroButton extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            CleanupUtils.deleteUser(user.getUsername());
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
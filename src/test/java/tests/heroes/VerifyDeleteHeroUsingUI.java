@@ -12,7 +12,10 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import pages.*;
 import tests.BaseTestClass;
+import utils.AsyncRestApiUtils;
 import utils.RestApiUtils;
+import utils.UserPoolUtils;
+import java.util.concurrent.CompletableFuture;
 
 @Test(groups = {TestNGGroups.REGRESSION,TestNGGroups.SANITY,TestNGGroups.HEROES})
 public class VerifyDeleteHeroUsingUI extends BaseTestClass {
@@ -21,28 +24,30 @@ public class VerifyDeleteHeroUsingUI extends BaseTestClass {
 
     private User user;
     private Hero hero;
-    private boolean bCreated = false;
+    private boolean bLeased = false;
 
     @BeforeMethod
     public void setUpTest(){
         log.info(String.format("[SETUP TEST] %s", sTestName));
-        driver = setUpDriver();
+        // hero of the pooled user is deleted when user is returned to the pool
+        user = UserPoolUtils.leaseUser();
+        bLeased = true;
+        hero = Hero.createNewUniqueHero(user, "HeroDelete");
 
-        user = User.createNewUniqueUser("DeleteHero");
-        RestApiUtils.postUser(user);
-        bCreated = true;
-        user.setCreatedAt(RestApiUtils.getUser(user.getUsername()).getCreatedAt());
+        // hero is created via API while the browser is starting
+        CompletableFuture<Void> fixtures = AsyncRestApiUtils.postHero(hero)
+                .thenCompose(createdHero -> AsyncRestApiUtils.getHero(hero.getHeroName()))
+                .thenAccept(savedHero -> hero.setCreatedAt(savedHero.getCreatedAt()));
+        driver = setUpDriver();
 
-        hero = Hero.createNewUniqueHero(user, "HeroDelete");
-        RestApiUtils.postHero(hero);
-        hero.setCreatedAt(RestApiUtils.getHero(hero.getHeroName()).getCreatedAt());
+        AsyncRestApiUtils.await(fixtures);
         user.addHero(hero);
     }
     @AfterMethod(alwaysRun = true)
     public void tearDown(ITestResult testResult){
         log.info(String.format("[END TEST] %s", sTestName));
         tearDown(driver,testResult);
-        if(bCreated){
+        if(bLeased){
             cleanUp();
         }
     }
@@ -92,7 +97,7 @@ public class VerifyDeleteHeroUsingUI extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            UserPoolUtils.releaseUser(user);
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
@@ -0,0 +1,36 @@
+package tests.load;
+
+import data.TestNGGroups;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import tests.BaseTestClass;
+import utils.LoadGeneratorUtils;
+import utils.PropertiesUtils;
+
+@Test(groups = {TestNGGroups.LOAD})
+public class RunApiLoad extends BaseTestClass {
+    private String sTestName = this.getClass().getName();
+
+    @BeforeMethod
+    public void setUpTest(){
+        log.info(String.format("[SETUP TEST] %s", sTestName));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(){
+        log.info(String.format("[END TEST] %s", sTestName));
+    }
+
+    /**
+     * Load (or soak, with long loadDuration) of users and heroes API with the scenario mix,
+     * rate, concurrency and duration from the property file (or -D system properties)
+     * and verify that error rate is not above loadMaxErrorRate
+     */
+    @Test
+    public void testRunApiLoad(){
+        boolean bPassed = LoadGeneratorUtils.run();
+        Assert.assertTrue(bPassed, "Error rate of API load is above " + PropertiesUtils.getLoadMaxErrorRate() + "!");
+    }
+}
@@ -11,6 +11,7 @@ import org.testng.annotations.Test;
 import pages.LoginPage;
 import pages.WelcomePage;
 import tests.BaseTestClass;
+import utils.CleanupUtils;
 import utils.RestApiUtils;
 
 public class NewlyCreatedUserCanLogin extends BaseTestClass {
@@ -79,7 +80,7 @@ public class NewlyCreatedUserCanLogin extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            CleanupUtils.deleteUser(user.getUsername());
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
@@ -0,0 +1,36 @@
+package tests.network;
+
+import data.TestNGGroups;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import tests.BaseTestClass;
+import utils.FaultProxyHarnessUtils;
+import utils.PropertiesUtils;
+
+@Test(groups = {TestNGGroups.NETWORK})
+public class RunFaultProxyHarness extends BaseTestClass {
+    private String sTestName = this.getClass().getName();
+
+    @BeforeMethod
+    public void setUpTest(){
+        log.info(String.format("[SETUP TEST] %s", sTestName));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(){
+        log.info(String.format("[END TEST] %s", sTestName));
+    }
+
+    /**
+     * Run the suite from faultProxySuite through the fault injecting proxy once for every
+     * RTT from faultProxyRttSteps and verify that the suite passes with every RTT
+     * (report of durations, timeouts and latencies is in the log, "[FAULT PROXY]")
+     */
+    @Test
+    public void testRunFaultProxyHarness(){
+        boolean bPassed = FaultProxyHarnessUtils.run();
+        Assert.assertTrue(bPassed, "Suite " + PropertiesUtils.getFaultProxySuite() + " has failed tests with some of the RTT steps!");
+    }
+}
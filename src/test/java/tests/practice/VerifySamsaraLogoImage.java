@@ -14,8 +14,8 @@ import pages.LoginPage;
 import pages.PracticePage;
 import pages.WelcomePage;
 import tests.BaseTestClass;
-import utils.RestApiUtils;
 import utils.ScreenshotUtils;
+import utils.UserPoolUtils;
 
 @Jira(jiraID = "JIRA0015")
 @Test(groups = {TestNGGroups.REGRESSION,TestNGGroups.MOUSE})
@@ -23,7 +23,7 @@ public class VerifySamsaraLogoImage extends BaseTestClass {
     private final String sTestName = this.getClass().getName();
     private WebDriver driver;
     private User user;
-    private boolean bCreated = false;
+    private boolean bLeased = false;
 
 
     @BeforeMethod
@@ -32,17 +32,16 @@ public class VerifySamsaraLogoImage extends BaseTestClass {
         driver = setUpDriver();
         testContext.setAttribute(sTestName + ".drivers", new WebDriver[]{driver});
 
-        user = User.createNewUniqueUser("SamsaraImage");
-        RestApiUtils.postUser(user);
-        bCreated = true;
-        user.setCreatedAt(RestApiUtils.getUser(user.getUsername()).getCreatedAt());
+        // test only logs in, so user from the pool can be used
+        user = UserPoolUtils.leaseUser();
+        bLeased = true;
         log.info(user);
     }
     @AfterMethod(alwaysRun = true)
     public void tearDown(ITestResult testResult){
         log.info(String.format("[END TEST] %s", sTestName));
         tearDown(driver,testResult);
-        if(bCreated){
+        if(bLeased){
             cleanUp();
         }
     }
@@ -69,7 +68,7 @@ public class VerifySamsaraLogoImage extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            UserPoolUtils.releaseUser(user);
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
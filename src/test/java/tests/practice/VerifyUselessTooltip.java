@@ -15,7 +15,7 @@ import pages.LoginPage;
 import pages.PracticePage;
 import pages.WelcomePage;
 import tests.BaseTestClass;
-import utils.RestApiUtils;
+import utils.UserPoolUtils;
 
 @Jira(jiraID = "JIRA0011")
 @Test(groups = {TestNGGroups.REGRESSION,TestNGGroups.MOUSE})
@@ -24,7 +24,7 @@ public class VerifyUselessTooltip extends BaseTestClass {
     private String sTestName = this.getClass().getName();
     private WebDriver driver;
     private User user;
-    private boolean bCreated = false;
+    private boolean bLeased = false;
 
 
     @BeforeMethod
@@ -33,17 +33,16 @@ public class VerifyUselessTooltip extends BaseTestClass {
         driver = setUpDriver();
         testContext.setAttribute(sTestName + ".drivers", new WebDriver[]{driver});
 
-        user = User.createNewUniqueUser("UselessTooltip");
-        RestApiUtils.postUser(user);
-        bCreated = true;
-        user.setCreatedAt(RestApiUtils.getUser(user.getUsername()).getCreatedAt());
+        // test only logs in, so user from the pool can be used
+        user = UserPoolUtils.leaseUser();
+        bLeased = true;
         log.info(user);
     }
     @AfterMethod(alwaysRun = true)
     public void tearDown(ITestResult testResult){
         log.info(String.format("[END TEST] %s", sTestName));
         tearDown(driver,testResult);
-        if(bCreated){
+        if(bLeased){
             cleanUp();
         }
     }
@@ -74,7 +73,7 @@ public class VerifyUselessTooltip extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            UserPoolUtils.releaseUser(user);
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
@@ -14,6 +14,7 @@ import pages.LoginPage;
 import pages.ProfilePage;
 import pages.WelcomePage;
 import tests.BaseTestClass;
+import utils.CleanupUtils;
 import utils.RestApiUtils;
 import utils.ScreenshotUtils;
 
@@ -71,7 +72,7 @@ public class VerifyProfileImage extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            CleanupUtils.deleteUser(user.getUsername());
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
@@ -13,6 +13,7 @@ import org.testng.asserts.SoftAssert;
 import pages.LoginPage;
 import pages.RegisterPage;
 import tests.BaseTestClass;
+import utils.CleanupUtils;
 import utils.DateTimeUtils;
 import utils.RestApiUtils;
 
@@ -88,7 +89,7 @@ public class  SuccessfulRegister extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            CleanupUtils.deleteUser(user.getUsername());
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }
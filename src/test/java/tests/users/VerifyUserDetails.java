@@ -14,7 +14,7 @@ import pages.*;
 import tests.BaseTestClass;
 import utils.DateTimeUtils;
 import utils.PropertiesUtils;
-import utils.RestApiUtils;
+import utils.UserPoolUtils;
 
 @Jira(jiraID = "JIRA0005")
 @Test(groups = {TestNGGroups.REGRESSION,TestNGGroups.SANITY,TestNGGroups.USERS,
@@ -23,7 +23,7 @@ public class VerifyUserDetails extends BaseTestClass {
     private String sTestName = this.getClass().getName();
     private WebDriver driver;
     private User user;
-    private boolean bCreated = false;
+    private boolean bLeased = false;
 
 
     @BeforeMethod
@@ -32,17 +32,16 @@ public class VerifyUserDetails extends BaseTestClass {
         driver = setUpDriver();
         testContext.setAttribute(sTestName + ".drivers", new WebDriver[]{driver});
 
-        user = User.createNewUniqueUser("UserDetails");
-        RestApiUtils.postUser(user);
-        bCreated = true;
-        user.setCreatedAt(RestApiUtils.getUser(user.getUsername()).getCreatedAt());
+        // test only reads user details, so user from the pool can be used
+        user = UserPoolUtils.leaseUser();
+        bLeased = true;
         log.info(user);
     }
     @AfterMethod(alwaysRun = true)
     public void tearDown(ITestResult testResult){
         log.info(String.format("[END TEST] %s", sTestName));
         tearDown(driver,testResult);
-        if(bCreated){
+        if(bLeased){
             cleanUp();
         }
     }
@@ -80,7 +79,7 @@ public class VerifyUserDetails extends BaseTestClass {
     private void cleanUp(){
         log.debug("cleanUp()");
         try {
-            RestApiUtils.deleteUser(user.getUsername());
+            UserPoolUtils.releaseUser(user);
         } catch (AssertionError | Exception e) {
             log.error("Cleaning up failed! Message: " + e.getMessage());
         }